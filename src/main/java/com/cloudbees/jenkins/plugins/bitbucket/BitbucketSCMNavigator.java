@@ -32,6 +32,8 @@ import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketTeam;
 import com.cloudbees.jenkins.plugins.bitbucket.api.endpoint.BitbucketEndpointProvider;
 import com.cloudbees.jenkins.plugins.bitbucket.client.repository.UserRoleInRepository;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.avatars.BitbucketTeamAvatarMetadataAction;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.client.BitbucketRateLimiter;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.client.BitbucketRateLimiter.Priority;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.endpoint.BitbucketCloudEndpoint;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.endpoint.BitbucketServerEndpoint;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketApiUtils;
@@ -261,9 +263,10 @@ public class BitbucketSCMNavigator extends SCMNavigator {
             listener.getLogger()
                     .format("Connecting to %s using %s%n", serverUrl, CredentialsNameProvider.name(credentials));
         }
-        try (final BitbucketSCMNavigatorRequest request = new BitbucketSCMNavigatorContext()
-                .withTraits(traits)
-                .newRequest(this, observer)) {
+        try (BitbucketRateLimiter.PriorityScope priority = BitbucketRateLimiter.withPriority(Priority.BACKGROUND);
+                final BitbucketSCMNavigatorRequest request = new BitbucketSCMNavigatorContext()
+                    .withTraits(traits)
+                    .newRequest(this, observer)) {
             SourceFactory sourceFactory = new SourceFactory(request);
             WitnessImpl witness = new WitnessImpl(request, listener);
 
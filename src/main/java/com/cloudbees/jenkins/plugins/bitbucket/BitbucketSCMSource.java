@@ -43,10 +43,14 @@ import com.cloudbees.jenkins.plugins.bitbucket.client.repository.UserRoleInRepos
 import com.cloudbees.jenkins.plugins.bitbucket.endpoints.BitbucketEndpointConfiguration;
 import com.cloudbees.jenkins.plugins.bitbucket.hooks.HasPullRequests;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.avatars.BitbucketRepoAvatarMetadataAction;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.client.BitbucketApiStatistics;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.client.BitbucketRateLimiter;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.client.BitbucketRateLimiter.Priority;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.endpoint.BitbucketCloudEndpoint;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.endpoint.BitbucketServerEndpoint;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.extension.BitbucketEnvVarExtension;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.extension.GitClientAuthenticatorExtension;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.metrics.BitbucketMetrics;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketApiUtils;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketApiUtils.BitbucketSupplier;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketCredentialsUtils;
@@ -55,6 +59,7 @@ import com.cloudbees.jenkins.plugins.bitbucket.impl.util.MirrorListSupplier;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.URLUtils;
 import com.cloudbees.jenkins.plugins.bitbucket.server.BitbucketServerWebhookImplementation;
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.BitbucketServerAPIClient;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.BitbucketServerMirrorCache;
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.repository.BitbucketServerRepository;
 import com.cloudbees.jenkins.plugins.bitbucket.trait.BranchDiscoveryTrait;
 import com.cloudbees.jenkins.plugins.bitbucket.trait.ForkPullRequestDiscoveryTrait;
@@ -94,7 +99,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import jenkins.authentication.tokens.api.AuthenticationTokens;
@@ -127,6 +132,7 @@ import jenkins.scm.impl.UncategorizedSCMHeadCategory;
 import jenkins.scm.impl.form.NamedArrayList;
 import jenkins.scm.impl.trait.Discovery;
 import jenkins.scm.impl.trait.Selection;
+import jenkins.util.SystemProperties;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.jgit.lib.Constants;
 import org.jenkinsci.Symbol;
@@ -159,6 +165,10 @@ public class BitbucketSCMSource extends SCMSource {
             Math.max(
                 0, Integer.getInteger(BitbucketSCMSource.class.getName() + ".eventDelaySeconds", 5)));
 
+    /** How long the repository metadata is reused before it is fetched again, in seconds. */
+    private static final long REPOSITORY_CACHE_DURATION = TimeUnit.SECONDS.toNanos(
+            SystemProperties.getInteger(BitbucketSCMSource.class.getName() + ".repositoryCacheDuration", 600));
+
     /**
      * Bitbucket URL.
      */
@@ -198,15 +208,10 @@ public class BitbucketSCMSource extends SCMSource {
     private List<SCMSourceTrait> traits;
 
     /**
-     * The cache of pull request titles for each open PR.
+     * The cache of pull request titles and contributors for each open PR, persisted with the owner.
      */
     @CheckForNull
-    private transient /*effectively final*/ Map<String, String> pullRequestTitleCache;
-    /**
-     * The cache of pull request contributors for each open PR.
-     */
-    @CheckForNull
-    private transient /*effectively final*/ Map<String, ContributorMetadataAction> pullRequestContributorCache;
+    private transient /*effectively final*/ PullRequestMetadataStore pullRequestMetadata;
     /**
      * The cache of the primary clone links.
      */
@@ -217,6 +222,11 @@ public class BitbucketSCMSource extends SCMSource {
      */
     @CheckForNull
     private transient List<BitbucketHref> mirrorCloneLinks = null;
+    /**
+     * The cache of the repository metadata (clone links, id, project, visibility).
+     */
+    @CheckForNull
+    private transient volatile CachedRepository cachedRepository;
 
     /**
      * Constructor.
@@ -323,13 +333,52 @@ public class BitbucketSCMSource extends SCMSource {
     }
 
     public BitbucketApi buildBitbucketClient(String repoOwner, String repository) {
+        BitbucketApi client = BitbucketApiFactory.newInstance(getServerUrl(), authenticator(), repoOwner, null, repository);
+        if (StringUtils.equalsIgnoreCase(repoOwner, this.repoOwner) && StringUtils.equals(repository, this.repository)) {
+            setupReadMirror(client);
+        }
+        return client;
+    }
+
+    /**
+     * Sends the read-only requests of the given client of this repository to
+     * the mirror this source clones from, when the endpoint is configured to
+     * read from mirrors.
+     *
+     * @param client the client of the repository of this source
+     */
+    @Restricted(NoExternalUse.class)
+    public void setupReadMirror(@NonNull BitbucketApi client) {
+        String mirrorIdLocal = mirrorId;
+        if (mirrorIdLocal == null
+                || !(client instanceof BitbucketServerAPIClient serverClient)
+                || !BitbucketServerEndpoint.isReadFromMirrors(getServerUrl())) {
+            return;
+        }
+        if (mirrorCloneLinks == null) {
+            initMirrorCloneLinks(serverClient, mirrorIdLocal);
+        }
+        List<BitbucketHref> cloneLinks = mirrorCloneLinks;
+        if (cloneLinks == null) {
+            return;
+        }
+        // HTTP clone links of Bitbucket Data Center are <base URL>/scm/<project>/<repository>.git
+        cloneLinks.stream()
+            .map(BitbucketHref::getHref)
+            .filter(href -> href != null && href.startsWith("http") && href.contains("/scm/"))
+            .findFirst()
+            .map(href -> URLUtils.removeAuthority(StringUtils.substringBeforeLast(href, "/scm/")))
+            .ifPresent(mirrorURL -> serverClient.setReadMirror(mirrorURL, mirrorIdLocal));
+    }
+
+    private BitbucketApi buildPrimaryBitbucketClient() {
         return BitbucketApiFactory.newInstance(getServerUrl(), authenticator(), repoOwner, null, repository);
     }
 
     @Override
     public void afterSave() {
         try (BitbucketApi client = buildBitbucketClient()) {
-            gatherPrimaryCloneLinks(client);
+            gatherPrimaryCloneLinks(client, true);
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE,
                     "Could not determine clone links of " + getRepoOwner() + "/" + getRepository() +
@@ -337,21 +386,48 @@ public class BitbucketSCMSource extends SCMSource {
         }
     }
 
-    private void gatherPrimaryCloneLinks(@NonNull BitbucketApi apiClient) throws IOException {
-        BitbucketRepository r = apiClient.getRepository();
+    @NonNull
+    private BitbucketRepository gatherPrimaryCloneLinks(@NonNull BitbucketApi apiClient, boolean refresh) throws IOException {
+        BitbucketRepository r = getRepositoryMetadata(apiClient, refresh);
         Map<String, List<BitbucketHref>> links = r.getLinks();
         if (links != null && links.containsKey("clone")) {
             setPrimaryCloneLinks(links.get("clone"));
         }
+        return r;
+    }
+
+    /**
+     * Returns the repository of this source, fetched again only when asked to
+     * or when the cached copy is older than the configured duration.
+     *
+     * @param apiClient the client used to fetch the repository when needed
+     * @param refresh {@code true} to discard the cached copy
+     * @return the repository
+     * @throws IOException if the repository can not be fetched
+     */
+    @NonNull
+    private BitbucketRepository getRepositoryMetadata(@NonNull BitbucketApi apiClient, boolean refresh) throws IOException {
+        String key = getServerUrl() + '#' + credentialsId + '#' + repoOwner + '/' + repository;
+        CachedRepository cached = cachedRepository;
+        if (!refresh && cached != null && cached.isValid(key)) {
+            return cached.repository;
+        }
+        BitbucketRepository r = apiClient.getRepository();
+        cachedRepository = new CachedRepository(key, r);
+        return r;
     }
 
     @Override
     protected void retrieve(@CheckForNull SCMSourceCriteria criteria, @NonNull SCMHeadObserver observer,
                             @CheckForNull SCMHeadEvent<?> event, @NonNull TaskListener listener)
             throws IOException, InterruptedException {
-        try (BitbucketSCMSourceRequest request = new BitbucketSCMSourceContext(criteria, observer)
-                .withTraits(traits)
-                .newRequest(this, listener)) {
+        BitbucketApiStatistics statistics = BitbucketApiStatistics.start();
+        long scanStart = System.nanoTime();
+        boolean success = false;
+        try (BitbucketRateLimiter.PriorityScope priority = BitbucketRateLimiter.withPriority(event != null ? Priority.EVENT : Priority.BACKGROUND);
+                BitbucketSCMSourceRequest request = new BitbucketSCMSourceContext(criteria, observer)
+                    .withTraits(traits)
+                    .newRequest(this, listener)) {
             StandardCredentials scanCredentials = credentials();
             if (scanCredentials == null) {
                 listener.getLogger().format("Connecting to %s with no credentials, anonymous access%n", getServerUrl());
@@ -360,25 +436,43 @@ public class BitbucketSCMSource extends SCMSource {
                 listener.getLogger().format("Connecting to %s using %s%n", getServerUrl(),
                         CredentialsNameProvider.name(scanCredentials));
             }
-            gatherPrimaryCloneLinks(buildBitbucketClient());
+            long start = System.nanoTime();
+            try (BitbucketApi client = buildBitbucketClient()) {
+                // an explicit scan refreshes the repository, events reuse it
+                gatherPrimaryCloneLinks(client, event == null);
+            }
+            statistics.recordPhase("clone links", System.nanoTime() - start);
 
             // populate the request with its data sources
             if (request.isFetchPRs() && event instanceof HasPullRequests hasPrEvent) {
+                start = System.nanoTime();
                 request.setPullRequests(getBitbucketPullRequestsFromEvent(hasPrEvent, listener));
+                statistics.recordPhase("event pull requests", System.nanoTime() - start);
             }
             // now server the request
             if (request.isFetchPRs() && !request.isComplete()) {
                 // Search pull requests
+                start = System.nanoTime();
                 retrievePullRequests(request);
+                statistics.recordPhase("pull requests", System.nanoTime() - start);
             }
             if (request.isFetchBranches() && !request.isComplete()) {
                 // Search branches
+                start = System.nanoTime();
                 retrieveBranches(request);
+                statistics.recordPhase("branches", System.nanoTime() - start);
             }
             if (request.isFetchTags() && !request.isComplete()) {
                 // Search tags
+                start = System.nanoTime();
                 retrieveTags(request);
+                statistics.recordPhase("tags", System.nanoTime() - start);
             }
+            success = true;
+        } finally {
+            statistics.close();
+            statistics.printSummary(listener.getLogger());
+            BitbucketMetrics.get().scan(repoOwner + "/" + repository, System.nanoTime() - scanStart, success);
         }
     }
 
@@ -427,13 +521,9 @@ public class BitbucketSCMSource extends SCMSource {
             boolean fork = !StringUtils.equalsIgnoreCase(fullName, pull.getSource().getRepository().getFullName());
             String pullRepoOwner = pull.getSource().getRepository().getOwnerName();
             String pullRepository = pull.getSource().getRepository().getRepositoryName();
+            // shared by the pull requests of the same fork, closed with the request
             final BitbucketApi forkClient = fork && BitbucketApiUtils.isCloud(getServerUrl())
-                    ? BitbucketApiFactory.newInstance(
-                        getServerUrl(),
-                        authenticator(),
-                        pullRepoOwner,
-                        null,
-                        pullRepository)
+                    ? request.getForkApiClient(pullRepoOwner, pullRepository)
                     : null;
             count++;
             livePRs.add(pull.getId());
@@ -493,6 +583,7 @@ public class BitbucketSCMSource extends SCMSource {
                     };
                     if (request.process(head, intermediateFactory, probeFactory, revisionFactory, request.defaultWitness())) {
                         request.listener().getLogger().format("%n  %d pull requests were processed (query completed)%n", count);
+                        getPullRequestMetadata().save();
                         return;
                     }
                 }
@@ -503,15 +594,12 @@ public class BitbucketSCMSource extends SCMSource {
                                 + " and branch "
                                 + originalBranchName);
                 continue;
-            } finally {
-                if (forkClient != null) {
-                    forkClient.close();
-                }
             }
         }
         request.listener().getLogger().format("%n  %d pull requests were processed%n", count);
         getPullRequestTitleCache().keySet().retainAll(livePRs);
         getPullRequestContributorCache().keySet().retainAll(livePRs);
+        getPullRequestMetadata().save();
     }
 
     private void retrieveBranches(final BitbucketSCMSourceRequest request) throws IOException, InterruptedException {
@@ -747,8 +835,8 @@ public class BitbucketSCMSource extends SCMSource {
     @Restricted(ProtectedExternally.class)
     protected String getProjectKey() {
         String projectKey = null;
-        try {
-            BitbucketProject project = buildBitbucketClient().getRepository().getProject();
+        try (BitbucketApi client = buildBitbucketClient()) {
+            BitbucketProject project = getRepositoryMetadata(client, false).getProject();
             if (project != null) {
                 projectKey = project.getKey();
             }
@@ -820,8 +908,7 @@ public class BitbucketSCMSource extends SCMSource {
         // TODO when we have support for trusted events, use the details from event if event was from trusted source
         List<Action> result = new ArrayList<>();
         try (BitbucketApi client = buildBitbucketClient()) {
-            gatherPrimaryCloneLinks(client);
-            BitbucketRepository repo = client.getRepository();
+            BitbucketRepository repo = gatherPrimaryCloneLinks(client, true);
             result.add(new BitbucketRepoAvatarMetadataAction(showAvatar() ? repo : null));
             String defaultBranch = client.getDefaultBranch();
             if (StringUtils.isNotBlank(defaultBranch)) {
@@ -915,19 +1002,22 @@ public class BitbucketSCMSource extends SCMSource {
     }
 
     @NonNull
-    private synchronized Map<String, String> getPullRequestTitleCache() {
-        if (pullRequestTitleCache == null) {
-            pullRequestTitleCache = new ConcurrentHashMap<>();
+    private synchronized PullRequestMetadataStore getPullRequestMetadata() {
+        if (pullRequestMetadata == null) {
+            SCMSourceOwner owner = getOwner();
+            pullRequestMetadata = PullRequestMetadataStore.load(owner != null ? owner.getRootDir() : null, getId());
         }
-        return pullRequestTitleCache;
+        return pullRequestMetadata;
     }
 
     @NonNull
-    private synchronized Map<String, ContributorMetadataAction> getPullRequestContributorCache() {
-        if (pullRequestContributorCache == null) {
-            pullRequestContributorCache = new ConcurrentHashMap<>();
-        }
-        return pullRequestContributorCache;
+    private Map<String, String> getPullRequestTitleCache() {
+        return getPullRequestMetadata().getTitles();
+    }
+
+    @NonNull
+    private Map<String, ContributorMetadataAction> getPullRequestContributorCache() {
+        return getPullRequestMetadata().getContributors();
     }
 
     @NonNull
@@ -963,55 +1053,32 @@ public class BitbucketSCMSource extends SCMSource {
     }
 
     private void initCloneLinks() {
-        if (primaryCloneLinks == null) {
-            BitbucketApi bitbucket = buildBitbucketClient();
-            initPrimaryCloneLinks(bitbucket);
+        if (primaryCloneLinks != null && (mirrorId == null || mirrorCloneLinks != null)) {
+            return;
+        }
+        try (BitbucketApi bitbucket = buildPrimaryBitbucketClient()) {
+            if (primaryCloneLinks == null) {
+                initPrimaryCloneLinks(bitbucket);
+            }
             if (mirrorId != null && mirrorCloneLinks == null) {
-                initMirrorCloneLinks((BitbucketServerAPIClient) bitbucket, mirrorId);
+                initMirrorCloneLinks(bitbucket, mirrorId);
             }
-        }
-        if (mirrorId != null && mirrorCloneLinks == null) {
-            BitbucketApi bitbucket = buildBitbucketClient();
-            initMirrorCloneLinks((BitbucketServerAPIClient) bitbucket, mirrorId);
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Failed to close the client of " + getRepoOwner() + "/" + getRepository(), e);
         }
     }
 
-    private void initMirrorCloneLinks(BitbucketServerAPIClient bitbucket, String mirrorIdLocal) {
+    private void initMirrorCloneLinks(BitbucketApi primary, String mirrorIdLocal) {
         try {
-            // Mirrors are supported only by Bitbucket Server
-            BitbucketServerRepository r = (BitbucketServerRepository) bitbucket.getRepository();
-            List<BitbucketMirroredRepositoryDescriptor> mirrors = bitbucket.getMirrors(r.getId());
-            BitbucketMirroredRepositoryDescriptor mirroredRepositoryDescriptor = mirrors.stream()
-                .filter(it -> mirrorIdLocal.equals(it.getMirrorServer().getId()))
-                .findFirst()
-                .orElseThrow(() ->
-                    new IllegalStateException("Could not find mirror descriptor for mirror id " + mirrorIdLocal)
-                );
-            if (!mirroredRepositoryDescriptor.getMirrorServer().isEnabled()) {
-                throw new IllegalStateException("Mirror is disabled for mirror id " + mirrorIdLocal);
-            }
-            Map<String, List<BitbucketHref>> mirrorDescriptorLinks = mirroredRepositoryDescriptor.getLinks();
-            if (mirrorDescriptorLinks == null) {
-                throw new IllegalStateException("There is no repository descriptor links for mirror id " + mirrorIdLocal);
-            }
-            List<BitbucketHref> self = mirrorDescriptorLinks.get("self");
-            if (self == null || self.isEmpty()) {
-                throw new IllegalStateException("There is no self-link for mirror id " + mirrorIdLocal);
-            }
-            String selfLink = self.get(0).getHref();
-            BitbucketMirroredRepository mirroredRepository = bitbucket.getMirroredRepository(selfLink);
-            if (!mirroredRepository.isAvailable()) {
-                throw new IllegalStateException("Mirrored repository is not available for mirror id " + mirrorIdLocal);
-            }
-            Map<String, List<BitbucketHref>> mirroredRepositoryLinks = mirroredRepository.getLinks();
-            if (mirroredRepositoryLinks == null) {
-                throw new IllegalStateException("There is no mirrored repository links for mirror id " + mirrorIdLocal);
-            }
-            List<BitbucketHref> mirroredRepositoryCloneLinks = mirroredRepositoryLinks.get("clone");
-            if (mirroredRepositoryCloneLinks == null) {
-                throw new IllegalStateException("There is no mirrored repository clone links for mirror id " + mirrorIdLocal);
-            }
-            mirrorCloneLinks = mirroredRepositoryCloneLinks;
+            // credentials ids are not unique across folders, share with the clients sending the same secret only
+            String credentialsIdentity = ((BitbucketServerAPIClient) primary).getCredentialsIdentity();
+            BitbucketServerMirrorCache.Key key = new BitbucketServerMirrorCache.Key(getServerUrl(), repoOwner, repository, mirrorIdLocal, credentialsIdentity);
+            // the loader may run later in background, it cannot use the client of the caller
+            mirrorCloneLinks = BitbucketServerMirrorCache.get().getCloneLinks(key, () -> {
+                try (BitbucketServerAPIClient bitbucket = (BitbucketServerAPIClient) buildPrimaryBitbucketClient()) {
+                    return resolveMirrorCloneLinks(bitbucket, mirrorIdLocal);
+                }
+            });
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE,
                 "Could not determine mirror clone links of " + getRepoOwner() + "/" + getRepository()
@@ -1020,9 +1087,47 @@ public class BitbucketSCMSource extends SCMSource {
         }
     }
 
+    @NonNull
+    private List<BitbucketHref> resolveMirrorCloneLinks(BitbucketServerAPIClient bitbucket, String mirrorIdLocal) throws IOException {
+        // Mirrors are supported only by Bitbucket Server
+        BitbucketServerRepository r = (BitbucketServerRepository) getRepositoryMetadata(bitbucket, false);
+        List<BitbucketMirroredRepositoryDescriptor> mirrors = bitbucket.getMirrors(r.getId());
+        BitbucketMirroredRepositoryDescriptor mirroredRepositoryDescriptor = mirrors.stream()
+            .filter(it -> mirrorIdLocal.equals(it.getMirrorServer().getId()))
+            .findFirst()
+            .orElseThrow(() ->
+                new IllegalStateException("Could not find mirror descriptor for mirror id " + mirrorIdLocal)
+            );
+        if (!mirroredRepositoryDescriptor.getMirrorServer().isEnabled()) {
+            throw new IllegalStateException("Mirror is disabled for mirror id " + mirrorIdLocal);
+        }
+        Map<String, List<BitbucketHref>> mirrorDescriptorLinks = mirroredRepositoryDescriptor.getLinks();
+        if (mirrorDescriptorLinks == null) {
+            throw new IllegalStateException("There is no repository descriptor links for mirror id " + mirrorIdLocal);
+        }
+        List<BitbucketHref> self = mirrorDescriptorLinks.get("self");
+        if (self == null || self.isEmpty()) {
+            throw new IllegalStateException("There is no self-link for mirror id " + mirrorIdLocal);
+        }
+        String selfLink = self.get(0).getHref();
+        BitbucketMirroredRepository mirroredRepository = bitbucket.getMirroredRepository(selfLink);
+        if (!mirroredRepository.isAvailable()) {
+            throw new IllegalStateException("Mirrored repository is not available for mirror id " + mirrorIdLocal);
+        }
+        Map<String, List<BitbucketHref>> mirroredRepositoryLinks = mirroredRepository.getLinks();
+        if (mirroredRepositoryLinks == null) {
+            throw new IllegalStateException("There is no mirrored repository links for mirror id " + mirrorIdLocal);
+        }
+        List<BitbucketHref> mirroredRepositoryCloneLinks = mirroredRepositoryLinks.get("clone");
+        if (mirroredRepositoryCloneLinks == null) {
+            throw new IllegalStateException("There is no mirrored repository clone links for mirror id " + mirrorIdLocal);
+        }
+        return mirroredRepositoryCloneLinks;
+    }
+
     private void initPrimaryCloneLinks(BitbucketApi bitbucket) {
         try {
-            BitbucketRepository r = bitbucket.getRepository();
+            BitbucketRepository r = getRepositoryMetadata(bitbucket, false);
             List<BitbucketHref> cloneLinks = r.getCloneLinks();
             if (cloneLinks.isEmpty()) {
                 throw new IllegalStateException("There is no clone links");
@@ -1036,6 +1141,21 @@ public class BitbucketSCMSource extends SCMSource {
         }
     }
 
+    private static final class CachedRepository {
+        private final String key;
+        private final BitbucketRepository repository;
+        private final long nanos = System.nanoTime();
+
+        CachedRepository(String key, BitbucketRepository repository) {
+            this.key = key;
+            this.repository = repository;
+        }
+
+        boolean isValid(String key) {
+            return this.key.equals(key) && System.nanoTime() - nanos < REPOSITORY_CACHE_DURATION;
+        }
+    }
+
     @Deprecated(since = "936.0.0", forRemoval = true)
     public boolean isCloud() {
         return BitbucketApiUtils.isCloud(serverUrl);
@@ -27,8 +27,11 @@ import com.cloudbees.jenkins.plugins.bitbucket.hooks.WebhookConfiguration;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.model.TaskListener;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.Set;
+import java.util.TreeSet;
 import jenkins.scm.api.SCMHeadObserver;
 import jenkins.scm.api.SCMSource;
 import jenkins.scm.api.SCMSourceCriteria;
@@ -107,6 +110,12 @@ public class BitbucketSCMSourceContext extends SCMSourceContext<BitbucketSCMSour
      */
     private boolean useReadableNotificationIds;
 
+    /**
+     * The additional pull request attributes that traits need from Bitbucket Cloud.
+     */
+    @NonNull
+    private final Set<String> pullRequestFields = new TreeSet<>();
+
     /**
      * Constructor.
      *
@@ -252,6 +261,17 @@ public class BitbucketSCMSourceContext extends SCMSourceContext<BitbucketSCMSour
         return useReadableNotificationIds;
     }
 
+    /**
+     * Returns the pull request attributes to request to Bitbucket Cloud in
+     * addition to the ones always requested.
+     *
+     * @return the additional pull request attributes.
+     */
+    @NonNull
+    public final Set<String> pullRequestFields() {
+        return Collections.unmodifiableSet(pullRequestFields);
+    }
+
     /**
      * Adds a requirement for branch details to any {@link BitbucketSCMSourceRequest} for this context.
      *
@@ -418,6 +438,19 @@ public class BitbucketSCMSourceContext extends SCMSourceContext<BitbucketSCMSour
         return this;
     }
 
+    /**
+     * Requests additional pull request attributes to Bitbucket Cloud, that
+     * only returns the attributes the plugin consumes.
+     *
+     * @param fields the attribute paths relative to a pull request, for example {@code participants.role}.
+     * @return {@code this} for method chaining.
+     */
+    @NonNull
+    public final BitbucketSCMSourceContext withPullRequestFields(@NonNull String... fields) {
+        pullRequestFields.addAll(Arrays.asList(fields));
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      */
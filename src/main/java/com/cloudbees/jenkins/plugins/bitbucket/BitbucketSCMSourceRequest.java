@@ -27,6 +27,7 @@ import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApi;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketBranch;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketCommit;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketPullRequest;
+import com.cloudbees.jenkins.plugins.bitbucket.client.BitbucketCloudApiClient;
 import com.cloudbees.jenkins.plugins.bitbucket.filesystem.BitbucketSCMFile;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -40,6 +41,7 @@ import java.util.Date;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -259,10 +261,19 @@ public class BitbucketSCMSourceRequest extends SCMSourceRequest {
      */
     @CheckForNull
     private Iterable<BitbucketBranch> branches;
+    /**
+     * The branch details indexed by name or {@code null} if not yet built from {@link #getBranches()}.
+     */
+    @CheckForNull
+    private Map<String, BitbucketBranch> branchesByName;
     /**
      * The BitbucketApi that is used for the request.
      */
     private BitbucketApi api;
+    /**
+     * The clients of the forks the pull requests come from, by full name of the fork.
+     */
+    private final Map<String, BitbucketApi> forkApis = new HashMap<>();
     /**
      * The BitbucketSCMSource that is used for the request.
      */
@@ -271,6 +282,10 @@ public class BitbucketSCMSourceRequest extends SCMSourceRequest {
      * A map serving as a cache of pull request IDs to the full set of data about the pull request.
      */
     private final Map<Integer, BitbucketPullRequest> pullRequestData;
+    /**
+     * The additional pull request attributes requested by the traits.
+     */
+    private final Set<String> pullRequestFields;
     /**
      * The tag details or {@code null} if not {@link #isFetchTags()}.
      */
@@ -294,6 +309,7 @@ public class BitbucketSCMSourceRequest extends SCMSourceRequest {
         fetchOriginPRs = context.wantOriginPRs();
         fetchForkPRs = context.wantForkPRs();
         skipPublicPRs = context.skipPublicPRs();
+        pullRequestFields = new HashSet<>(context.pullRequestFields());
         originPRStrategies = fetchOriginPRs && !context.originPRStrategies().isEmpty()
                 ? Collections.unmodifiableSet(EnumSet.copyOf(context.originPRStrategies()))
                 : Collections.<ChangeRequestCheckoutStrategy>emptySet();
@@ -528,11 +544,28 @@ public class BitbucketSCMSourceRequest extends SCMSourceRequest {
     private final BitbucketApi getBitbucketApiClient() {
         if (api == null) {
             api = source.buildBitbucketClient();
+            if (api instanceof BitbucketCloudApiClient cloudApi && !pullRequestFields.isEmpty()) {
+                cloudApi.addPullRequestFields(pullRequestFields);
+            }
         }
 
         return api;
     }
 
+    /**
+     * Returns the client of the fork a pull request comes from, shared by all the pull requests of that fork
+     * until this request is closed.
+     *
+     * @param repoOwner the owner of the fork.
+     * @param repository the name of the fork.
+     * @return the client of the fork.
+     */
+    @NonNull
+    final BitbucketApi getForkApiClient(@NonNull String repoOwner, @NonNull String repository) {
+        return forkApis.computeIfAbsent((repoOwner + "/" + repository).toLowerCase(Locale.ENGLISH),
+                k -> source.buildBitbucketClient(repoOwner, repository));
+    }
+
     /**
      * Provides the requests with the branch details.
      *
@@ -540,6 +573,7 @@ public class BitbucketSCMSourceRequest extends SCMSourceRequest {
      */
     public final void setBranches(@CheckForNull Iterable<BitbucketBranch> branches) {
         this.branches = branches;
+        this.branchesByName = null;
     }
 
     /**
@@ -559,6 +593,29 @@ public class BitbucketSCMSourceRequest extends SCMSourceRequest {
         return Util.fixNull(branches);
     }
 
+    /**
+     * Returns the branch details for the given branch name. The lookup is
+     * backed by an index built once from {@link #getBranches()}.
+     *
+     * @param branchName the name of the branch
+     * @return the branch details or {@code null} if no branch exists with the
+     *         given name
+     * @throws IOException if there was a network communications error.
+     * @throws InterruptedException if interrupted while waiting on remote communications.
+     */
+    @CheckForNull
+    public final BitbucketBranch getBranch(@NonNull String branchName) throws IOException, InterruptedException {
+        if (branchesByName == null) {
+            Map<String, BitbucketBranch> index = new HashMap<>();
+            for (BitbucketBranch branch : getBranches()) {
+                // keep the first occurrence as the linear lookup did
+                index.putIfAbsent(branch.getName(), branch);
+            }
+            branchesByName = index;
+        }
+        return branchesByName.get(branchName);
+    }
+
     /**
      * Provides the requests with the tag details.
      *
@@ -593,6 +650,10 @@ public class BitbucketSCMSourceRequest extends SCMSourceRequest {
         if (api != null) {
             api.close();
         }
+        for (BitbucketApi forkApi : forkApis.values()) {
+            forkApi.close();
+        }
+        forkApis.clear();
         super.close();
     }
 
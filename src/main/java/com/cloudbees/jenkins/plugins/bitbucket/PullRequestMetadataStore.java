@@ -0,0 +1,133 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Util;
+import hudson.XmlFile;
+import hudson.util.XStream2;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.scm.api.metadata.ContributorMetadataAction;
+
+/**
+ * The titles and contributors of the open pull requests of a source, kept in
+ * a file of the source owner so that they are known right after a restart,
+ * without waiting for the next pull request discovery.
+ * <p>
+ * The file is written only when the metadata has changed since it was last
+ * read or written.
+ */
+final class PullRequestMetadataStore {
+
+    private static final Logger LOGGER = Logger.getLogger(PullRequestMetadataStore.class.getName());
+
+    private static final String DIRECTORY = "bitbucket-pull-requests";
+
+    private static final XStream2 XSTREAM = new XStream2();
+
+    static {
+        XSTREAM.alias("bitbucket-pull-requests", PullRequestMetadataStore.class);
+        XSTREAM.alias("contributor", ContributorMetadataAction.class);
+    }
+
+    @CheckForNull
+    private final transient XmlFile file;
+    private Map<String, String> titles = new ConcurrentHashMap<>();
+    private Map<String, ContributorMetadataAction> contributors = new ConcurrentHashMap<>();
+    private transient Map<String, String> savedTitles = Map.of();
+    private transient Map<String, ContributorMetadataAction> savedContributors = Map.of();
+
+    private PullRequestMetadataStore(@CheckForNull XmlFile file) {
+        this.file = file;
+    }
+
+    /**
+     * Loads the metadata of a source.
+     *
+     * @param rootDir the root directory of the source owner, or {@code null}
+     *        to keep the metadata in memory only
+     * @param sourceId the identifier of the source
+     * @return the metadata, empty if never saved or not readable
+     */
+    @NonNull
+    static PullRequestMetadataStore load(@CheckForNull File rootDir, @NonNull String sourceId) {
+        if (rootDir == null) {
+            return new PullRequestMetadataStore(null);
+        }
+        XmlFile file = new XmlFile(XSTREAM, new File(new File(rootDir, DIRECTORY), Util.rawEncode(sourceId) + ".xml"));
+        PullRequestMetadataStore store = new PullRequestMetadataStore(file);
+        if (file.exists()) {
+            try {
+                file.unmarshal(store);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, e, () -> "Failed to read the pull request metadata from " + file);
+            }
+            store.titles = new ConcurrentHashMap<>(store.titles != null ? store.titles : Map.of());
+            store.contributors = new ConcurrentHashMap<>(store.contributors != null ? store.contributors : Map.of());
+            store.savedTitles = new HashMap<>(store.titles);
+            store.savedContributors = new HashMap<>(store.contributors);
+        }
+        return store;
+    }
+
+    @NonNull
+    Map<String, String> getTitles() {
+        return titles;
+    }
+
+    @NonNull
+    Map<String, ContributorMetadataAction> getContributors() {
+        return contributors;
+    }
+
+    /**
+     * Writes the metadata if it changed since the last time it was read or
+     * written.
+     */
+    synchronized void save() {
+        if (file == null || (titles.equals(savedTitles) && contributors.equals(savedContributors))) {
+            return;
+        }
+        Map<String, String> titlesToSave = new HashMap<>(titles);
+        Map<String, ContributorMetadataAction> contributorsToSave = new HashMap<>(contributors);
+        try {
+            if (titlesToSave.isEmpty() && contributorsToSave.isEmpty()) {
+                file.delete();
+            } else {
+                file.write(this);
+            }
+            savedTitles = titlesToSave;
+            savedContributors = contributorsToSave;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, e, () -> "Failed to write the pull request metadata to " + file);
+        }
+    }
+}
@@ -30,6 +30,7 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import jenkins.scm.api.SCMFile;
 import jenkins.scm.impl.avatars.AvatarImage;
 import org.kohsuke.accmod.Restricted;
@@ -322,6 +323,39 @@ public interface BitbucketApi extends AutoCloseable {
     @Restricted(NoExternalUse.class)
     SCMFile getFile(@NonNull BitbucketSCMFile file) throws IOException;
 
+    /**
+     * Return a zip archive of the repository at the given commit.
+     *
+     * @param hash the commit to archive
+     * @param path the directory to archive or {@code null} for the whole
+     *        repository, entries keep their path from the repository root
+     * @return the stream of the archive, or {@code null} if archives are not
+     *         supported
+     * @throws IOException if there was a network communications error.
+     */
+    @CheckForNull
+    @Restricted(NoExternalUse.class)
+    default InputStream getArchive(@NonNull String hash, @CheckForNull String path) throws IOException {
+        return null;
+    }
+
+    /**
+     * Return the files and directories under the given directory down to the
+     * given depth, with as few requests as the API allows.
+     *
+     * @param directory the directory to list
+     * @param depth the number of levels to list, {@code 1} for the children
+     *        of the directory only
+     * @return the type of each file by its path relative to the directory, or
+     *         {@code null} if recursive listing is not supported
+     * @throws IOException if there was a network communications error.
+     */
+    @CheckForNull
+    @Restricted(NoExternalUse.class)
+    default Map<String, SCMFile.Type> getTree(@NonNull BitbucketSCMFile directory, int depth) throws IOException {
+        return null;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -341,17 +375,53 @@ public interface BitbucketApi extends AutoCloseable {
     @NonNull
     List<? extends BitbucketCommit> getCommits(@CheckForNull String from, @NonNull String to) throws IOException;
 
-//    /**
-//     * Return a set changes between the two given commits.
-//     *
-//     * @param firstCommit the commit containing the changes we wish to preview
-//     *        or {@code null} to use the unique parent of secondCommit
-//     * @param secondCommit the commit representing the state to which we want to
-//     *        compare the first commit
-//     * @return the file changes between first commit and second source commit.
-//     * @throws IOException if there was a network communications error.
-//     */
-//    @NonNull
-//    List<BitbucketCloudCommitDiffStat> getCommitsChanges(String fromCommit, String toCommit) throws IOException;
+    /**
+     * Visits the commits between the two given commits page by page, the
+     * next pages are not requested once the visitor stops.
+     *
+     * @param from the commit or reference containing the changes we wish to
+     *        preview or {@code null} to get changes since the beginning.
+     * @param to the commit or reference representing the state to which we want
+     *        to compare the first commit
+     * @param visitor receives each page of commits, most recent first
+     * @throws IOException if there was a network communications error.
+     */
+    @Restricted(NoExternalUse.class)
+    default void getCommits(@CheckForNull String from, @NonNull String to, @NonNull PageVisitor<BitbucketCommit> visitor) throws IOException {
+        visitor.visit(getCommits(from, to));
+    }
+
+    /**
+     * Visits the files changed between the two given commits page by page,
+     * the next pages are not requested once the visitor stops.
+     *
+     * @param from the commit or reference before the changes
+     * @param to the commit or reference containing the changes
+     * @param visitor receives each page of changes
+     * @return {@code false} if the API does not support it
+     * @throws IOException if there was a network communications error.
+     */
+    @Restricted(NoExternalUse.class)
+    default boolean getChanges(@NonNull String from, @NonNull String to, @NonNull PageVisitor<BitbucketChange> visitor) throws IOException {
+        return false;
+    }
+
+    /**
+     * Receives the values of a paged resource one page at time.
+     *
+     * @param <V> the type of the values
+     */
+    @FunctionalInterface
+    @Restricted(NoExternalUse.class)
+    interface PageVisitor<V> {
+        /**
+         * Visits a page.
+         *
+         * @param values the values of the page
+         * @return {@code false} to stop before the next page
+         * @throws IOException if the values cannot be processed
+         */
+        boolean visit(@NonNull List<? extends V> values) throws IOException;
+    }
 
 }
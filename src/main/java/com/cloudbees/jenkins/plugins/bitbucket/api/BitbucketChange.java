@@ -0,0 +1,81 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A file changed between two commits.
+ */
+public interface BitbucketChange {
+
+    enum ChangeType {
+        ADDED, MODIFIED, REMOVED, RENAMED;
+    }
+
+    /**
+     * Returns how the file has been changed.
+     *
+     * @return the type of change
+     */
+    @NonNull
+    ChangeType getChangeType();
+
+    /**
+     * Returns the path of the file before the change.
+     *
+     * @return the path, {@code null} if the file has been added
+     */
+    @CheckForNull
+    String getOldPath();
+
+    /**
+     * Returns the path of the file after the change.
+     *
+     * @return the path, {@code null} if the file has been removed
+     */
+    @CheckForNull
+    String getNewPath();
+
+    /**
+     * Returns the hash of the content of the file before the change.
+     *
+     * @return the blob hash, {@code null} if the API does not provide it
+     */
+    @CheckForNull
+    default String getOldContentId() {
+        return null;
+    }
+
+    /**
+     * Returns the hash of the content of the file after the change.
+     *
+     * @return the blob hash, {@code null} if the API does not provide it
+     */
+    @CheckForNull
+    default String getNewContentId() {
+        return null;
+    }
+}
@@ -35,7 +35,6 @@ import hudson.Util;
 import hudson.util.ListBoxModel;
 import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.function.UnaryOperator;
 import org.apache.commons.lang3.StringUtils;
@@ -89,11 +88,7 @@ public final class BitbucketEndpointProvider{
     @SuppressWarnings("unchecked")
     public static <T extends BitbucketEndpoint> Optional<T> lookupEndpoint(@CheckForNull String serverURL) {
         String normalizedServerURL = URLUtils.normalizeURL(serverURL);
-        return BitbucketEndpointConfiguration.get()
-                .getEndpoints().stream()
-                .filter(endpoint -> Objects.equals(normalizedServerURL, endpoint.getServerURL()))
-                .map(endpoint -> (T) endpoint)
-                .findFirst();
+        return Optional.ofNullable((T) BitbucketEndpointConfiguration.get().findEndpoint(normalizedServerURL));
     }
 
     /**
@@ -26,6 +26,7 @@ package com.cloudbees.jenkins.plugins.bitbucket.client;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApi;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketBuildStatus;
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketChange;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketCloudWorkspace;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketCommit;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketException;
@@ -36,6 +37,7 @@ import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketTeam;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketWebHook;
 import com.cloudbees.jenkins.plugins.bitbucket.client.branch.BitbucketCloudBranch;
 import com.cloudbees.jenkins.plugins.bitbucket.client.branch.BitbucketCloudCommit;
+import com.cloudbees.jenkins.plugins.bitbucket.client.branch.BitbucketCloudCommitDiffStat;
 import com.cloudbees.jenkins.plugins.bitbucket.client.pullrequest.BitbucketCloudPullRequest;
 import com.cloudbees.jenkins.plugins.bitbucket.client.pullrequest.BitbucketCloudPullRequestCommit;
 import com.cloudbees.jenkins.plugins.bitbucket.client.repository.BitbucketCloudHook;
@@ -44,6 +46,8 @@ import com.cloudbees.jenkins.plugins.bitbucket.client.repository.BitbucketReposi
 import com.cloudbees.jenkins.plugins.bitbucket.client.repository.UserRoleInRepository;
 import com.cloudbees.jenkins.plugins.bitbucket.filesystem.BitbucketSCMFile;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.client.AbstractBitbucketApi;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.client.BitbucketApiStatistics;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.client.BitbucketRequestCoalescer;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.client.ICheckedCallable;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.credentials.BitbucketAccessTokenAuthenticator;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.credentials.BitbucketOAuthAuthenticator;
@@ -67,22 +71,29 @@ import java.io.UnsupportedEncodingException;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import javax.imageio.ImageIO;
 import jenkins.scm.api.SCMFile;
 import jenkins.scm.impl.avatars.AvatarImage;
+import jenkins.util.SystemProperties;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.io.HttpClientConnectionManager;
 import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.http.HttpStatus;
 import org.apache.hc.core5.http.message.BasicNameValuePair;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 
 import static java.util.concurrent.TimeUnit.HOURS;
 import static java.util.concurrent.TimeUnit.MINUTES;
@@ -90,13 +101,30 @@ import static org.apache.commons.lang3.StringUtils.abbreviate;
 
 public class BitbucketCloudApiClient extends AbstractBitbucketApi implements BitbucketApi {
 
-    private static final HttpHost API_HOST = BitbucketApiUtils.toHttpHost("https://api.bitbucket.org");
+    @Restricted(NoExternalUse.class)
+    public static final HttpHost API_HOST = BitbucketApiUtils.toHttpHost("https://api.bitbucket.org");
     private static final String V2_API_BASE_URL = "https://api.bitbucket.org/2.0/repositories";
     private static final String V2_WORKSPACES_API_BASE_URL = "https://api.bitbucket.org/2.0/workspaces";
     private static final String REPO_URL_TEMPLATE = V2_API_BASE_URL + "{/owner,repo}";
     // Limit images to 16k
     private static final int MAX_AVATAR_LENGTH = 16384;
     private static final int MAX_PAGE_LENGTH = 100;
+    private static final boolean SPARSE_FIELDS = SystemProperties.getBoolean(BitbucketCloudApiClient.class.getName() + ".sparseFields", true);
+
+    /*
+     * Partial responses, only the attributes read by the model classes are
+     * requested. Keep each projection in sync with its model class when
+     * it starts to consume a new attribute.
+     */
+    private static final List<String> PULL_REQUEST_FIELDS = List.of("id", "title", "links.html.href",
+            "author.account_id", "author.nickname", "participants.user.account_id", "participants.approved",
+            "source.repository.full_name", "source.repository.is_private", "source.branch.name", "source.commit.hash",
+            "destination.repository.full_name", "destination.repository.is_private", "destination.branch.name", "destination.commit.hash");
+    private static final List<String> BRANCH_FIELDS = List.of("name",
+            "target.hash", "target.message", "target.date", "target.author.raw");
+    private static final List<String> REPOSITORY_FIELDS = List.of("scm", "full_name", "owner.username", "owner.display_name",
+            "updated_on", "is_private", "links", "project.key", "project.name", "project.links.avatar.href");
+    private static final List<String> SOURCE_FIELDS = List.of("path", "type", "attributes", "commit.hash");
 
     private static final HttpClientConnectionManager connectionManager = connectionManagerBuilder()
             .setMaxConnPerRoute(20)
@@ -109,17 +137,19 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
     private final String projectKey;
     private final String repositoryName;
     private final boolean enableCache;
-    private static final Cache<String, BitbucketTeam> cachedTeam = new Cache<>(6, HOURS);
-    private static final Cache<String, List<BitbucketCloudRepository>> cachedRepositories = new Cache<>(3, HOURS);
-    private static final Cache<String, BitbucketCloudCommit> cachedCommits = new Cache<>(24, HOURS);
+    private static final Cache<String, BitbucketTeam> cachedTeam = new Cache<>("team", 6, HOURS);
+    private static final Cache<String, List<BitbucketCloudRepository>> cachedRepositories = new Cache<>("repositories", 3, HOURS);
+    private static final Cache<String, BitbucketCloudCommit> cachedCommits = new Cache<>("commits", 24, HOURS);
     private transient BitbucketRepository cachedRepository;
     private transient String cachedDefaultBranch;
+    private final Set<String> additionalPullRequestFields = new TreeSet<>();
 
     public static List<String> stats() {
         List<String> stats = new ArrayList<>();
         stats.add("Team: " + cachedTeam.stats().toString());
         stats.add("Repositories : " + cachedRepositories.stats().toString());
         stats.add("Commits: " + cachedCommits.stats().toString());
+        stats.add("Deduplicated requests: " + BitbucketRequestCoalescer.get().getDeduplicated());
         return stats;
     }
 
@@ -143,6 +173,44 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
         this.client = super.setupClientBuilder().build();
     }
 
+    /**
+     * Requests additional pull request attributes to the ones consumed by
+     * {@link BitbucketCloudPullRequest}, for the traits that need them.
+     *
+     * @param fields the attribute paths relative to a pull request, for
+     *        example {@code state} or {@code participants.role}
+     */
+    public void addPullRequestFields(@NonNull Collection<String> fields) {
+        additionalPullRequestFields.addAll(fields);
+    }
+
+    /*
+     * Sets the fields parameter of the template with the given projection,
+     * prefixed by the page attribute for paged resources.
+     */
+    private static UriTemplate withFields(UriTemplate template, boolean paged, Collection<String> fields) {
+        if (!SPARSE_FIELDS) {
+            return template;
+        }
+        StringBuilder projection = new StringBuilder(paged ? "next,page,pagelen,size" : "");
+        for (String field : fields) {
+            if (!projection.isEmpty()) {
+                projection.append(',');
+            }
+            projection.append(paged ? "values." : "").append(field);
+        }
+        return template.set("fields", projection.toString());
+    }
+
+    private List<String> pullRequestFields() {
+        if (additionalPullRequestFields.isEmpty()) {
+            return PULL_REQUEST_FIELDS;
+        }
+        List<String> fields = new ArrayList<>(PULL_REQUEST_FIELDS);
+        fields.addAll(additionalPullRequestFields);
+        return fields;
+    }
+
     @Override
     protected boolean isSupportedAuthenticator(@CheckForNull BitbucketAuthenticator authenticator) {
         return authenticator == null
@@ -180,10 +248,10 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
         // https://developer.atlassian.com/bitbucket/api/2/reference/resource/repositories/%7Busername%7D/%7Brepo_slug%7D/pullrequests#get
         // so because with values greater than 50 the API returns HTTP 400
         int pageLen = 50;
-        String url = UriTemplate.fromTemplate(REPO_URL_TEMPLATE + "/pullrequests{?page,pagelen}")
+        String url = withFields(UriTemplate.fromTemplate(REPO_URL_TEMPLATE + "/pullrequests{?page,pagelen,fields}")
                 .set("owner", owner)
                 .set("repo", repositoryName)
-                .set("pagelen", pageLen)
+                .set("pagelen", pageLen), true, pullRequestFields())
                 .expand();
 
         List<BitbucketCloudPullRequest> pullRequests = getPagedRequest(url, BitbucketCloudPullRequest.class);
@@ -245,10 +313,10 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
     @Override
     @NonNull
     public BitbucketPullRequest getPullRequestById(@NonNull Integer id) throws IOException {
-        String url = UriTemplate.fromTemplate(REPO_URL_TEMPLATE + "/pullrequests{/id}")
+        String url = withFields(UriTemplate.fromTemplate(REPO_URL_TEMPLATE + "/pullrequests{/id}{?fields}")
                 .set("owner", owner)
                 .set("repo", repositoryName)
-                .set("id", id)
+                .set("id", id), false, pullRequestFields())
                 .expand();
         BitbucketCloudPullRequest pr = getRequestAs(url, BitbucketCloudPullRequest.class);
         setupClosureForPRBranch(pr);
@@ -270,6 +338,8 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
                     .set("repo", repositoryName)
                     .expand();
             cachedRepository = getRequestAs(url, BitbucketCloudRepository.class);
+        } else {
+            BitbucketApiStatistics.recordCacheHit("repository");
         }
         return cachedRepository;
     }
@@ -390,10 +460,10 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
     }
 
     public List<BitbucketCloudBranch> getBranchesByRef(String nodePath) throws IOException {
-        String url = UriTemplate.fromTemplate(REPO_URL_TEMPLATE + nodePath + "{?pagelen}")
+        String url = withFields(UriTemplate.fromTemplate(REPO_URL_TEMPLATE + nodePath + "{?pagelen,fields}")
                 .set("owner", owner)
                 .set("repo", repositoryName)
-                .set("pagelen", MAX_PAGE_LENGTH)
+                .set("pagelen", MAX_PAGE_LENGTH), true, BRANCH_FIELDS)
                 .expand();
         return getPagedRequest(url, BitbucketCloudBranch.class).stream()
                 .filter(BitbucketCloudBranch::isActive) // Filter the inactive branches out
@@ -618,9 +688,9 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
             cacheKey.append("::<anonymous>");
         }
 
-        final UriTemplate template = UriTemplate.fromTemplate(V2_API_BASE_URL + "{/owner}{?role,page,pagelen,q}")
+        final UriTemplate template = withFields(UriTemplate.fromTemplate(V2_API_BASE_URL + "{/owner}{?role,page,pagelen,q,fields}")
                 .set("owner", owner)
-                .set("pagelen", MAX_PAGE_LENGTH);
+                .set("pagelen", MAX_PAGE_LENGTH), true, REPOSITORY_FIELDS);
         if (StringUtils.isNotBlank(projectKey)) {
             template.set("q", "project.key=" + "\"" + projectKey + "\""); // q=project.key="<projectKey>"
             cacheKey.append("::").append(projectKey);
@@ -690,11 +760,11 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
 
     @Override
     public Iterable<SCMFile> getDirectoryContent(final BitbucketSCMFile parent) throws IOException {
-        String url = UriTemplate.fromTemplate(REPO_URL_TEMPLATE + "/src{/branchOrHash,path}")
+        String url = withFields(UriTemplate.fromTemplate(REPO_URL_TEMPLATE + "/src{/branchOrHash,path}{?fields}")
                 .set("owner", owner)
                 .set("repo", repositoryName)
                 .set("branchOrHash", parent.getHash())
-                .set("path", parent.getPath())
+                .set("path", parent.getPath()), true, SOURCE_FIELDS)
                 .expand();
         List<BitbucketRepositorySource> sources = getPagedRequest(url, BitbucketRepositorySource.class);
         return sources.stream()
@@ -703,6 +773,27 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
                 .toList();
     }
 
+    @NonNull
+    @Override
+    public Map<String, SCMFile.Type> getTree(@NonNull BitbucketSCMFile directory, int depth) throws IOException {
+        String url = withFields(UriTemplate.fromTemplate(REPO_URL_TEMPLATE + "/src{/branchOrHash,path}{?max_depth,fields}")
+                .set("owner", owner)
+                .set("repo", repositoryName)
+                .set("branchOrHash", directory.getHash())
+                .set("path", directory.getPath())
+                .set("max_depth", depth), true, SOURCE_FIELDS)
+                .expand();
+        // entries of all the levels come with their path from the repository root
+        String prefix = directory.isRoot() ? "" : directory.getPath() + "/";
+        Map<String, SCMFile.Type> tree = new TreeMap<>();
+        for (BitbucketRepositorySource source : getPagedRequest(url, BitbucketRepositorySource.class)) {
+            if (source.getPath().startsWith(prefix)) {
+                tree.put(source.getPath().substring(prefix.length()), source.getFileType());
+            }
+        }
+        return tree;
+    }
+
     @Override
     public InputStream getFileContent(@NonNull BitbucketSCMFile file) throws IOException {
         String url = UriTemplate.fromTemplate(REPO_URL_TEMPLATE + "/src{/branchOrHash,path}{?at}")
@@ -732,43 +823,41 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
     @NonNull
     @Override
     public List<BitbucketCloudCommit> getCommits(@CheckForNull String fromCommit, @NonNull String toCommit) throws IOException {
-        String url = UriTemplate.fromTemplate(REPO_URL_TEMPLATE + "/commits{?include,exclude}")
+        return getPagedRequest(commitsURL(fromCommit, toCommit), BitbucketCloudCommit.class);
+    }
+
+    @Override
+    public void getCommits(@CheckForNull String fromCommit, @NonNull String toCommit, @NonNull PageVisitor<BitbucketCommit> visitor) throws IOException {
+        visitPages(commitsURL(fromCommit, toCommit), BitbucketCloudCommit.class, visitor);
+    }
+
+    private String commitsURL(@CheckForNull String fromCommit, @NonNull String toCommit) {
+        return UriTemplate.fromTemplate(REPO_URL_TEMPLATE + "/commits{?include,exclude}")
                 .set("owner", owner)
                 .set("repo", repositoryName)
                 .set("include", toCommit)
                 .set("exclude", fromCommit)
                 .expand();
-        return getPagedRequest(url, BitbucketCloudCommit.class);
     }
 
-/*
     @Override
-    public List<BitbucketCloudCommitDiffStat> getCommitsChanges(@NonNull String fromCommit, @Nullable String toCommit) throws IOException {
+    public boolean getChanges(@NonNull String fromCommit, @NonNull String toCommit, @NonNull PageVisitor<BitbucketChange> visitor) throws IOException {
         String url = UriTemplate.fromTemplate(REPO_URL_TEMPLATE + "/diffstat/{spec}")
                 .set("owner", owner)
                 .set("repo", repositoryName)
                 .set("spec", StringUtils.join(new String[] { toCommit, "..", fromCommit }))
                 .expand();
-
-        String response = getRequest(url);
-        try {
-            BitbucketCloudPage<BitbucketCloudCommitDiffStat> page = JsonParser.toJava(response, new TypeReference<BitbucketCloudPage<BitbucketCloudCommitDiffStat>>(){});
-            List<BitbucketCloudCommitDiffStat> changes = new ArrayList<>();
-            changes.addAll(page.getValues());
-            while (!page.isLastPage()) {
-                response = getRequest(page.getNext());
-                page = JsonParser.toJava(response, new TypeReference<BitbucketCloudPage<BitbucketCloudCommitDiffStat>>(){});
-                changes.addAll(page.getValues());
-            }
-
-            return changes;
-        } catch (JacksonException e) {
-            throw new IOException("I/O error when parsing response from URL: " + url, e);
-        }
+        visitPages(url, BitbucketCloudCommitDiffStat.class, visitor);
+        return true;
     }
-*/
+
     private <V> List<V> getPagedRequest(String url, Class<V> resultType) throws IOException {
         List<V> resources = new ArrayList<>();
+        visitPages(url, resultType, resources::addAll);
+        return resources;
+    }
+
+    private <V> void visitPages(String url, Class<V> resultType, PageVisitor<? super V> visitor) throws IOException {
         String response = getRequest(url);
 
         ParameterizedType parameterizedType = new ParameterizedType() {
@@ -798,16 +887,15 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
             };
 
             BitbucketCloudPage<V> page = JsonParser.toJava(response, type);
-            resources.addAll(page.getValues());
-            while (!page.isLastPage()){
+            boolean next = visitor.visit(page.getValues());
+            while (next && !page.isLastPage()){
                 response = getRequest(page.getNext());
                 page = JsonParser.toJava(response, type);
-                resources.addAll(page.getValues());
+                next = visitor.visit(page.getValues());
             }
         } catch (JacksonException e) {
             throw new IOException("I/O error when parsing response from URL: " + url, e);
         }
-        return resources;
     }
 
     private <V> V getRequestAs(String url, Class<V> resultType) throws IOException {
@@ -23,7 +23,10 @@
  */
 package com.cloudbees.jenkins.plugins.bitbucket.client;
 
+import com.cloudbees.jenkins.plugins.bitbucket.impl.client.BitbucketApiStatistics;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.client.ICheckedCallable;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.metrics.BitbucketMetrics;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -31,6 +34,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
@@ -40,6 +44,8 @@ public class Cache<K, V> {
 
     private final Map<K, Entry<V>> entries;
 
+    private final String name;
+
     private long expireAfterNanos;
 
     public Cache(final int duration, final TimeUnit unit) {
@@ -47,18 +53,35 @@ public class Cache<K, V> {
     }
 
     public Cache(final int duration, final TimeUnit unit, final int maxEntries) {
+        this("cache", duration, unit, maxEntries);
+    }
+
+    public Cache(final String name, final int duration, final TimeUnit unit) {
+        this(name, duration, unit, MAX_ENTRIES_DEFAULT);
+    }
+
+    public Cache(final String name, final int duration, final TimeUnit unit, final int maxEntries) {
+        this.name = name;
         this.expireAfterNanos = unit.toNanos(duration);
-        this.entries = new LimitedMap<>(maxEntries);
+        this.entries = new LimitedMap<>(name, maxEntries);
+    }
+
+    public String getName() {
+        return name;
     }
 
     public synchronized <E extends Exception> V get(final K key, final ICheckedCallable<V, E> request) throws ExecutionException {
         if (isExpired(key)) {
             doRemove(key);
+            BitbucketMetrics.get().cacheEviction(name);
         }
 
         if (entries.containsKey(key)) {
+            BitbucketApiStatistics.recordCacheHit(name);
+            BitbucketMetrics.get().cacheHit(name);
             return entries.get(key).value;
         }
+        BitbucketMetrics.get().cacheMiss(name);
 
         V result;
         try {
@@ -70,6 +93,49 @@ public class Cache<K, V> {
         return doPut(key, result);
     }
 
+    /**
+     * Returns the value cached for the given key without loading it.
+     *
+     * @param key the key
+     * @return the cached value or {@code null} if absent or expired
+     */
+    @CheckForNull
+    public synchronized V getIfPresent(final K key) {
+        if (isExpired(key)) {
+            doRemove(key);
+            BitbucketMetrics.get().cacheEviction(name);
+        }
+
+        final Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            BitbucketMetrics.get().cacheMiss(name);
+            return null;
+        }
+        BitbucketApiStatistics.recordCacheHit(name);
+        BitbucketMetrics.get().cacheHit(name);
+        return entry.value;
+    }
+
+    /**
+     * Caches a value loaded by the caller, for values that are too slow to
+     * load while holding the lock of the cache.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    public synchronized void put(final K key, final V value) {
+        doPut(key, value);
+    }
+
+    /**
+     * Removes the entries whose key matches the given filter.
+     *
+     * @param filter the keys to remove
+     */
+    public synchronized void evict(final Predicate<? super K> filter) {
+        entries.keySet().removeIf(filter);
+    }
+
     public void evictAll() {
         entries.clear();
     }
@@ -113,15 +179,22 @@ public class Cache<K, V> {
     private static class LimitedMap<K, V> extends LinkedHashMap<K, V> { // NOSONAR
         private static final long serialVersionUID = 12492123640782072L;
 
+        private final String name;
+
         private final int maxEntries;
 
-        public LimitedMap(final int maxEntries) {
+        public LimitedMap(final String name, final int maxEntries) {
+            this.name = name;
             this.maxEntries = maxEntries;
         }
 
         @Override
         protected boolean removeEldestEntry(final java.util.Map.Entry<K, V> eldest) {
-            return super.size() > maxEntries;
+            boolean remove = super.size() > maxEntries;
+            if (remove) {
+                BitbucketMetrics.get().cacheEviction(name);
+            }
+            return remove;
         }
     }
 
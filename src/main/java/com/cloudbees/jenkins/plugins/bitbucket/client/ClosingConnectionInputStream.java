@@ -25,6 +25,7 @@ package com.cloudbees.jenkins.plugins.bitbucket.client;
 
 import java.io.IOException;
 import java.io.InputStream;
+import org.apache.hc.core5.concurrent.Cancellable;
 import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
 
@@ -34,9 +35,43 @@ public class ClosingConnectionInputStream extends InputStream {
 
     private final InputStream delegate;
 
+    private final Cancellable request;
+
+    private boolean aborted;
+
     public ClosingConnectionInputStream(final ClassicHttpResponse response) throws IOException {
+        this(response, null);
+    }
+
+    public ClosingConnectionInputStream(final ClassicHttpResponse response, final Cancellable request) throws IOException {
         this.response = response;
         this.delegate = response.getEntity().getContent();
+        this.request = request;
+    }
+
+    /**
+     * Returns the length of the content as announced by the server.
+     *
+     * @return the length in bytes, or a negative number if unknown
+     */
+    public long getContentLength() {
+        return response.getEntity().getContentLength();
+    }
+
+    /**
+     * Shuts the connection down without reading the rest of the content,
+     * unlike {@link #close()} that consumes it to reuse the connection.
+     */
+    public void abort() {
+        aborted = true;
+        if (request != null) {
+            request.cancel();
+        }
+        try {
+            delegate.close();
+        } catch (IOException e) {
+            // the connection is already shut down
+        }
     }
 
     @Override
@@ -46,6 +81,9 @@ public class ClosingConnectionInputStream extends InputStream {
 
     @Override
     public void close() throws IOException {
+        if (aborted) {
+            return;
+        }
         EntityUtils.consume(response.getEntity());
         delegate.close();
     }
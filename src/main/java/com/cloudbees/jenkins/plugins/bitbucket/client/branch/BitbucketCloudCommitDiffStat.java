@@ -23,12 +23,13 @@
  */
 package com.cloudbees.jenkins.plugins.bitbucket.client.branch;
 
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketChange;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 
-public class BitbucketCloudCommitDiffStat {
+public class BitbucketCloudCommitDiffStat implements BitbucketChange {
     public enum CommitDiffStat {
         added, removed, modified, renamed; // NOSONAR
     }
@@ -66,8 +67,8 @@ public class BitbucketCloudCommitDiffStat {
     @JsonCreator
     public BitbucketCloudCommitDiffStat(@NonNull @JsonProperty("type") String type,
                                         @NonNull @JsonProperty("status") CommitDiffStat status,
-                                        @NonNull @JsonProperty("lines_removed") int addedLines,
-                                        @NonNull @JsonProperty("lines_added") int removedLines,
+                                        @NonNull @JsonProperty("lines_added") int addedLines,
+                                        @NonNull @JsonProperty("lines_removed") int removedLines,
                                         @Nullable @JsonProperty("old") FileInfo oldFile,
                                         @Nullable @JsonProperty("new") FileInfo newFile) {
         this.setType(type);
@@ -100,6 +101,17 @@ public class BitbucketCloudCommitDiffStat {
         this.status = status;
     }
 
+    @NonNull
+    @Override
+    public ChangeType getChangeType() {
+        return switch (status) {
+            case added -> ChangeType.ADDED;
+            case removed -> ChangeType.REMOVED;
+            case renamed -> ChangeType.RENAMED;
+            default -> ChangeType.MODIFIED;
+        };
+    }
+
     public int getAddedLines() {
         return addedLines;
     }
@@ -116,6 +128,7 @@ public class BitbucketCloudCommitDiffStat {
         this.removedLines = removedLines;
     }
 
+    @Override
     public String getNewPath() {
         return newPath;
     }
@@ -132,6 +145,7 @@ public class BitbucketCloudCommitDiffStat {
         this.newFileType = newFileType;
     }
 
+    @Override
     public String getOldPath() {
         return oldPath;
     }
@@ -72,8 +72,9 @@ public class BitbucketRepositorySource {
         return "commit_directory".equals(type);
     }
 
+    @JsonIgnore
     @NonNull
-    public BitbucketSCMFile toBitbucketSCMFile(BitbucketSCMFile parent) {
+    public SCMFile.Type getFileType() {
         SCMFile.Type fileType;
         if (isDirectory()) {
             fileType = SCMFile.Type.DIRECTORY;
@@ -87,7 +88,12 @@ public class BitbucketRepositorySource {
                 }
             }
         }
-        return parent.child(path, fileType);
+        return fileType;
+    }
+
+    @NonNull
+    public BitbucketSCMFile toBitbucketSCMFile(BitbucketSCMFile parent) {
+        return parent.child(path, getFileType());
     }
 
 }
@@ -42,9 +42,11 @@ import hudson.util.XStream2;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -71,6 +73,13 @@ public class BitbucketEndpointConfiguration extends GlobalConfiguration {
      */
     private List<BitbucketEndpoint> endpoints = new CopyOnWriteArrayList<>();
 
+    /**
+     * The endpoints by {@link BitbucketEndpoint#getServerURL()}, built on first lookup and dropped each time the
+     * list of endpoints changes.
+     */
+    @CheckForNull
+    private transient volatile Map<String, BitbucketEndpoint> index;
+
     /**
      * Constructor.
      */
@@ -78,6 +87,15 @@ public class BitbucketEndpointConfiguration extends GlobalConfiguration {
         load();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void load() {
+        super.load();
+        index = null;
+    }
+
     // TODO remove within a year
     @Restricted(NoExternalUse.class)
     @Override
@@ -213,6 +231,7 @@ public class BitbucketEndpointConfiguration extends GlobalConfiguration {
             eps.add(new BitbucketCloudEndpoint());
         }
         this.endpoints = new CopyOnWriteArrayList<>(eps);
+        invalidateIndex();
         save();
     }
 
@@ -230,6 +249,7 @@ public class BitbucketEndpointConfiguration extends GlobalConfiguration {
             }
         }
         endpoints.add(endpoint);
+        invalidateIndex();
         return true;
     }
 
@@ -253,6 +273,7 @@ public class BitbucketEndpointConfiguration extends GlobalConfiguration {
         if (!found) {
             newEndpoints.add(endpoint);
         }
+        invalidateIndex();
     }
 
     /**
@@ -262,7 +283,9 @@ public class BitbucketEndpointConfiguration extends GlobalConfiguration {
      * @return {@code true} if the list of endpoints was modified
      */
     public boolean removeEndpoint(@NonNull BitbucketEndpoint endpoint) {
-        return endpoints.removeIf(e -> e.isEquals(endpoint));
+        boolean removed = endpoints.removeIf(e -> e.isEquals(endpoint));
+        invalidateIndex();
+        return removed;
     }
 
     /**
@@ -273,7 +296,53 @@ public class BitbucketEndpointConfiguration extends GlobalConfiguration {
      */
     public boolean removeEndpoint(@CheckForNull String serverURL) {
         String fixedServerURL = URLUtils.normalizeURL(serverURL);
-        return endpoints.removeIf(e -> Objects.equals(fixedServerURL, e.getServerURL()));
+        boolean removed = endpoints.removeIf(e -> Objects.equals(fixedServerURL, e.getServerURL()));
+        invalidateIndex();
+        return removed;
+    }
+
+    /**
+     * Finds the endpoint of a server URL.
+     *
+     * @param serverURL the normalized server URL.
+     * @return the endpoint or {@code null} if not configured.
+     */
+    @Restricted(NoExternalUse.class)
+    @CheckForNull
+    public BitbucketEndpoint findEndpoint(@CheckForNull String serverURL) {
+        if (serverURL == null) {
+            return null;
+        }
+        Map<String, BitbucketEndpoint> localIndex = index;
+        if (localIndex == null) {
+            localIndex = buildIndex();
+        }
+        return localIndex.get(serverURL);
+    }
+
+    @NonNull
+    private synchronized Map<String, BitbucketEndpoint> buildIndex() {
+        Map<String, BitbucketEndpoint> localIndex = index;
+        if (localIndex == null) {
+            Map<String, BitbucketEndpoint> endpointsByURL = new HashMap<>();
+            for (BitbucketEndpoint endpoint : getEndpoints()) {
+                String serverURL = endpoint.getServerURL();
+                if (serverURL != null) {
+                    // first one wins, as the linear lookup did
+                    endpointsByURL.putIfAbsent(serverURL, endpoint);
+                }
+            }
+            localIndex = Map.copyOf(endpointsByURL);
+            index = localIndex;
+        }
+        return localIndex;
+    }
+
+    /*
+     * Synchronized with buildIndex so that an index built from the list before a change cannot be published after it.
+     */
+    private synchronized void invalidateIndex() {
+        index = null;
     }
 
     @NonNull
@@ -0,0 +1,310 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.filesystem;
+
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApi;
+import com.cloudbees.jenkins.plugins.bitbucket.client.ClosingConnectionInputStream;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import jenkins.scm.api.SCMFile.Type;
+import jenkins.util.SystemProperties;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Serves the files of a lightweight checkout from a zip archive of the
+ * repository, once the checkout has requested enough files to make a single
+ * download cheaper than one request per file.
+ * <p>
+ * The archive is narrowed to the deepest path that contains all the files
+ * requested so far, files outside of it are still requested one by one. If
+ * the archive cannot be downloaded or is too big, every file is requested
+ * one by one.
+ * <p>
+ * The archive is built by {@code git archive}, which leaves out the files
+ * marked {@code export-ignore} and rewrites the ones marked
+ * {@code export-subst} in {@code .gitattributes}. It only tells about the
+ * files it contains: missing files and directory listings are requested,
+ * and all the content is requested when some files are rewritten.
+ */
+final class BitbucketArchive implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(BitbucketArchive.class.getName());
+
+    static final String THRESHOLD_PROPERTY_NAME = BitbucketArchive.class.getName() + ".threshold";
+    static final String MAX_SIZE_PROPERTY_NAME = BitbucketArchive.class.getName() + ".maxSize";
+
+    private final BitbucketApi api;
+    private final String hash;
+    private final int threshold;
+    private final long maxBytes;
+
+    private int requests;
+    /**
+     * The deepest path containing all the requested files, {@code null}
+     * before the first request.
+     */
+    @CheckForNull
+    private String scope;
+    private boolean failed;
+    @CheckForNull
+    private Path file;
+    @CheckForNull
+    private ZipFile zip;
+    /**
+     * The type of the children of each directory in the archive.
+     */
+    private final Map<String, Map<String, Type>> directories = new HashMap<>();
+    /**
+     * Whether some files of the archive have their content rewritten.
+     */
+    private boolean substituted;
+
+    BitbucketArchive(@NonNull BitbucketApi api, @NonNull String hash, int threshold, long maxBytes) {
+        this.api = api;
+        this.hash = hash;
+        this.threshold = threshold;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Creates the archive for a lightweight checkout at the given revision.
+     *
+     * @param api the client of the repository
+     * @param hash the revision of the checkout
+     * @return the archive, or {@code null} if disabled or if the revision is
+     *         not a commit
+     */
+    @CheckForNull
+    static BitbucketArchive create(@NonNull BitbucketApi api, @CheckForNull String hash) {
+        int threshold = SystemProperties.getInteger(THRESHOLD_PROPERTY_NAME, 10);
+        // in megabytes
+        int maxSize = SystemProperties.getInteger(MAX_SIZE_PROPERTY_NAME, 50);
+        if (threshold <= 0 || maxSize <= 0 || !BitbucketFileContentCache.isCacheable(hash)) {
+            return null;
+        }
+        return new BitbucketArchive(api, hash, threshold, maxSize * 1024L * 1024L);
+    }
+
+    /**
+     * Returns the type of a file from the archive.
+     *
+     * @param file the file
+     * @return the type, or {@code null} if it must be requested
+     */
+    @CheckForNull
+    Type type(@NonNull BitbucketSCMFile file) {
+        String path = file.getPath();
+        if (!use(path)) {
+            return null;
+        }
+        if (directories.containsKey(path)) {
+            return Type.DIRECTORY;
+        }
+        // a file missing from the archive could be export-ignore
+        return directories.getOrDefault(parentOf(path), Map.of()).get(nameOf(path));
+    }
+
+    /**
+     * Returns the content of a file from the archive.
+     *
+     * @param file the file
+     * @return the content, or {@code null} if it must be requested
+     * @throws IOException if the archive cannot be read
+     */
+    @CheckForNull
+    InputStream content(@NonNull BitbucketSCMFile file) throws IOException {
+        String path = file.getPath();
+        if (!use(path) || substituted) {
+            return null;
+        }
+        ZipFile archive = zip;
+        ZipEntry entry = archive != null ? archive.getEntry(path) : null;
+        if (entry == null || entry.isDirectory()) {
+            return null;
+        }
+        return archive.getInputStream(entry);
+    }
+
+    /**
+     * Counts a request on the given path and tells if the archive serves it,
+     * downloading the archive if the threshold is reached.
+     */
+    private synchronized boolean use(@NonNull String path) {
+        if (zip == null && !failed) {
+            scope = scope == null ? path : commonPath(scope, path);
+            if (++requests > threshold) {
+                download();
+            }
+        }
+        return zip != null && isInScope(path);
+    }
+
+    private boolean isInScope(@NonNull String path) {
+        return scope == null || scope.isEmpty() || path.equals(scope) || path.startsWith(scope + "/");
+    }
+
+    private void download() {
+        try {
+            file = Files.createTempFile("bitbucket-archive", ".zip");
+            try (InputStream content = api.getArchive(hash, scope == null || scope.isEmpty() ? null : scope)) {
+                if (content == null) {
+                    // not supported by this API
+                    failed = true;
+                    return;
+                }
+                if (content instanceof ClosingConnectionInputStream response && response.getContentLength() > maxBytes) {
+                    tooBig();
+                    response.abort();
+                    return;
+                }
+                try (OutputStream out = Files.newOutputStream(file)) {
+                    copy(content, out);
+                }
+                if (failed && content instanceof ClosingConnectionInputStream response) {
+                    // closing would read the rest of the archive to reuse the connection
+                    response.abort();
+                }
+            }
+            if (failed) {
+                return;
+            }
+            zip = new ZipFile(file.toFile());
+            index(zip);
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, e, () -> "Failed to download the archive of " + api.getOwner() + "/" + api.getRepositoryName()
+                + " at " + hash + ", files are requested one by one");
+            failed = true;
+        } finally {
+            if (failed) {
+                close();
+            }
+        }
+    }
+
+    private void copy(InputStream content, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        int read;
+        while ((read = content.read(buffer)) != -1) {
+            total += read;
+            if (total > maxBytes) {
+                tooBig();
+                return;
+            }
+            out.write(buffer, 0, read);
+        }
+    }
+
+    private void tooBig() {
+        LOGGER.log(Level.FINE, () -> "The archive of " + api.getOwner() + "/" + api.getRepositoryName()
+            + " at " + hash + " is bigger than " + maxBytes + " bytes, files are requested one by one");
+        failed = true;
+    }
+
+    private void index(@NonNull ZipFile archive) throws IOException {
+        directories.put("", new TreeMap<>());
+        Enumeration<? extends ZipEntry> entries = archive.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            String path = entry.getName();
+            if (entry.isDirectory()) {
+                addDirectory(path.substring(0, path.length() - 1));
+            } else {
+                String parent = parentOf(path);
+                addDirectory(parent);
+                directories.get(parent).put(nameOf(path), Type.REGULAR_FILE);
+                if (".gitattributes".equals(nameOf(path))) {
+                    try (InputStream attributes = archive.getInputStream(entry)) {
+                        substituted |= IOUtils.toString(attributes, StandardCharsets.UTF_8).contains("export-subst");
+                    }
+                }
+            }
+        }
+    }
+
+    private void addDirectory(@NonNull String path) {
+        if (directories.containsKey(path)) {
+            return;
+        }
+        directories.put(path, new TreeMap<>());
+        String parent = parentOf(path);
+        addDirectory(parent);
+        directories.get(parent).put(nameOf(path), Type.DIRECTORY);
+    }
+
+    @NonNull
+    private static String parentOf(@NonNull String path) {
+        int index = path.lastIndexOf('/');
+        return index == -1 ? "" : path.substring(0, index);
+    }
+
+    @NonNull
+    private static String nameOf(@NonNull String path) {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    @NonNull
+    private static String commonPath(@NonNull String path1, @NonNull String path2) {
+        String common = path1;
+        while (!common.isEmpty() && !path2.equals(common) && !path2.startsWith(common + "/")) {
+            common = parentOf(common);
+        }
+        return common;
+    }
+
+    @Override
+    public synchronized void close() {
+        directories.clear();
+        try {
+            if (zip != null) {
+                zip.close();
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Failed to close the archive " + file, e);
+        }
+        zip = null;
+        try {
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Failed to delete the archive " + file, e);
+        }
+        file = null;
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.filesystem;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Keeps on disk the content of the files read by lightweight checkouts, so
+ * that the builds of the same commit (pipeline script, shared libraries
+ * loaded from the repository) do not download the same file again.
+ * <p>
+ * Only the files read at a full commit hash are kept, a file at a given
+ * commit never changes and the entries never need to be revalidated. Reads
+ * on a branch name or on a pull request merge go to the server.
+ * <p>
+ * The cache is bounded by the total size of the files, the least recently
+ * read files are deleted first. Cached content is streamed from its file.
+ */
+final class BitbucketFileContentCache {
+    private static final Logger LOGGER = Logger.getLogger(BitbucketFileContentCache.class.getName());
+
+    static final String MAX_SIZE_PROPERTY_NAME = BitbucketFileContentCache.class.getName() + ".maxSize";
+
+    private static final Pattern COMMIT_HASH = Pattern.compile("[0-9a-fA-F]{40}");
+
+    private static BitbucketFileContentCache instance;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final long maxFileBytes;
+    /**
+     * Size of the cached files by name, in access order.
+     */
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private boolean loaded;
+
+    BitbucketFileContentCache(@NonNull Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.maxFileBytes = maxBytes / 16;
+    }
+
+    /**
+     * Returns the cache of this Jenkins instance, {@code null} if disabled.
+     *
+     * @return the cache or {@code null}
+     */
+    @CheckForNull
+    static synchronized BitbucketFileContentCache get() {
+        if (instance == null) {
+            // in megabytes
+            int maxSize = SystemProperties.getInteger(MAX_SIZE_PROPERTY_NAME, 100);
+            if (maxSize <= 0) {
+                return null;
+            }
+            Path directory = Jenkins.get().getRootDir().toPath().resolve("caches").resolve("bitbucket-file-content");
+            instance = new BitbucketFileContentCache(directory, maxSize * 1024L * 1024L);
+        }
+        return instance;
+    }
+
+    /**
+     * Tells if the content of a file read at the given revision can be
+     * cached.
+     *
+     * @param hash the revision of the file
+     * @return {@code true} if the revision is a full commit hash
+     */
+    static boolean isCacheable(@CheckForNull String hash) {
+        return hash != null && COMMIT_HASH.matcher(hash).matches();
+    }
+
+    /**
+     * Returns the content of a file, from the cache or from the given loader.
+     *
+     * @param serverURL the endpoint of the repository
+     * @param repository the owner and name of the repository
+     * @param hash the commit of the file
+     * @param path the path of the file
+     * @param loader reads the content from the server
+     * @return the content of the file, to be closed by the caller
+     * @throws IOException if the file cannot be read from the server
+     */
+    @NonNull
+    InputStream getContent(@NonNull String serverURL, @NonNull String repository, @NonNull String hash, @NonNull String path,
+                           @NonNull ContentLoader loader) throws IOException {
+        String name = DigestUtils.sha256Hex(serverURL + '\n' + repository + '\n' + hash.toLowerCase(Locale.ENGLISH) + '\n' + path);
+        Path file = directory.resolve(name);
+        if (touch(name)) {
+            try {
+                return Files.newInputStream(file);
+            } catch (NoSuchFileException e) {
+                // deleted behind our back
+                remove(name);
+            }
+        }
+
+        Path tmp;
+        long size;
+        try (InputStream content = loader.load()) {
+            Files.createDirectories(directory);
+            tmp = Files.createTempFile(directory, name, ".tmp");
+            try {
+                size = Files.copy(content, tmp, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                Files.deleteIfExists(tmp);
+                throw e;
+            }
+        }
+        if (size > maxFileBytes) {
+            // too big to be cached, the temporary file goes away once read
+            return Files.newInputStream(tmp, StandardOpenOption.DELETE_ON_CLOSE);
+        }
+        try {
+            move(tmp, file);
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, e, () -> "Failed to cache " + path + " at " + hash + " of " + repository);
+            return Files.newInputStream(tmp, StandardOpenOption.DELETE_ON_CLOSE);
+        }
+        add(name, size);
+        return Files.newInputStream(file);
+    }
+
+    private synchronized boolean touch(String name) {
+        load();
+        return index.get(name) != null;
+    }
+
+    private synchronized void remove(String name) {
+        Long size = index.remove(name);
+        if (size != null) {
+            totalBytes -= size;
+        }
+    }
+
+    private synchronized void add(String name, long size) {
+        Long previous = index.put(name, size);
+        totalBytes += size - (previous != null ? previous : 0L);
+        Iterator<Map.Entry<String, Long>> eldest = index.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            if (entry.getKey().equals(name)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(directory.resolve(entry.getKey()));
+            } catch (IOException e) {
+                // still open on some platforms, it will be evicted again on next restart
+                LOGGER.log(Level.FINE, e, () -> "Failed to delete the cached file " + entry.getKey());
+            }
+            totalBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Indexes the files kept by a previous run, the least recently modified
+     * ones are evicted first.
+     */
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                if (file.getFileName().toString().endsWith(".tmp")) {
+                    Files.deleteIfExists(file);
+                } else {
+                    files.add(file);
+                }
+            }
+            files.sort(Comparator.comparing(BitbucketFileContentCache::lastModified));
+            for (Path file : files) {
+                add(file.getFileName().toString(), Files.size(file));
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, e, () -> "Failed to read the file content cache in " + directory);
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0L);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @FunctionalInterface
+    interface ContentLoader {
+        @NonNull
+        InputStream load() throws IOException;
+    }
+}
@@ -29,17 +29,47 @@ import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import jenkins.scm.api.SCMFile;
+import jenkins.util.SystemProperties;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
 
 public class BitbucketSCMFile extends SCMFile {
 
+    /**
+     * The number of levels listed at once when a directory other than the
+     * root is walked, each directory is listed on its own by default as most
+     * walks do not recurse.
+     */
+    private static final int PREFETCH_DEPTH = SystemProperties.getInteger(BitbucketSCMFile.class.getName() + ".prefetchDepth", 1);
+
     private final BitbucketApi api;
     private  String ref;
     private final String hash;
     private boolean resolved;
+    /**
+     * The endpoint of the repository, when known the content of the files is
+     * cached.
+     */
+    @CheckForNull
+    private String serverURL;
+    /**
+     * The archive of the lightweight checkout this file belongs to, if any.
+     */
+    @CheckForNull
+    private BitbucketArchive archive;
+    /**
+     * The type of the children of the directories listed so far, by path,
+     * shared by all the files of the same root.
+     */
+    private final Map<String, Map<String, Type>> listings;
 
     public String getRef() {
         return ref;
@@ -54,6 +84,7 @@ public class BitbucketSCMFile extends SCMFile {
         this.ref = ref;
         this.hash = hash;
         this.resolved = false;
+        this.listings = new ConcurrentHashMap<>();
     }
 
     public BitbucketSCMFile(BitbucketSCMFile parent, String name, @CheckForNull Type type, String hash) {
@@ -61,6 +92,9 @@ public class BitbucketSCMFile extends SCMFile {
         this.api = parent.api;
         this.ref = parent.ref;
         this.hash = hash;
+        this.serverURL = parent.serverURL;
+        this.archive = parent.archive;
+        this.listings = parent.listings;
         if (type != null) {
             type(type);
         }
@@ -76,11 +110,29 @@ public class BitbucketSCMFile extends SCMFile {
         type(type);
     }
 
+    /* package */ void setServerURL(@CheckForNull String serverURL) {
+        this.serverURL = serverURL;
+    }
+
+    /* package */ void setArchive(@CheckForNull BitbucketArchive archive) {
+        this.archive = archive;
+    }
+
     @Override
     @NonNull
     public Iterable<SCMFile> children() throws IOException, InterruptedException {
         if (this.isDirectory()) {
-            return api.getDirectoryContent(this);
+            Map<String, Type> types = hash != null ? listings.get(getPath()) : null;
+            if (types == null && !isRoot() && prefetchSubtree()) {
+                types = listings.get(getPath());
+            }
+            if (types != null) {
+                List<SCMFile> children = new ArrayList<>();
+                types.forEach((name, type) -> children.add(new BitbucketSCMFile(this, name, type, hash)));
+                return children;
+            }
+            // not from the archive, which leaves out the export-ignore files
+            return list();
         } else {
             // respect the interface javadoc
             return Collections.emptyList();
@@ -91,15 +143,30 @@ public class BitbucketSCMFile extends SCMFile {
     @NonNull
     public InputStream content() throws IOException, InterruptedException {
         if (this.isFile()) {
+            InputStream content = archive != null ? archive.content(this) : null;
+            if (content != null) {
+                return content;
+            }
+            BitbucketFileContentCache cache = serverURL != null && BitbucketFileContentCache.isCacheable(hash)
+                    ? BitbucketFileContentCache.get()
+                    : null;
+            if (cache != null) {
+                return cache.getContent(serverURL, api.getOwner() + "/" + api.getRepositoryName(), hash, getPath(),
+                        () -> api.getFileContent(this));
+            }
             return api.getFileContent(this);
         } else {
             throw new IOException("Cannot get raw content from a directory");
         }
     }
 
+    /**
+     * Returns the committer time of the revision of this file, the APIs do
+     * not tell when each file was last changed without a request per file.
+     */
     @Override
     public long lastModified() throws IOException, InterruptedException {
-        return 0L;
+        return BitbucketSCMFileSystem.lastModified(api, hash);
     }
 
     @Override
@@ -120,15 +187,150 @@ public class BitbucketSCMFile extends SCMFile {
     @NonNull
     protected Type type() throws IOException, InterruptedException {
         if (!resolved) {
-            try {
-                SCMFile metadata = api.getFile(this);
-                type(metadata.getType());
-            } catch(IOException e) {
-                type(Type.NONEXISTENT);
+            Type type = archive != null ? archive.type(this) : null;
+            if (type == null) {
+                type = listedType();
+            }
+            if (type != null) {
+                type(type);
+            } else {
+                try {
+                    SCMFile metadata = api.getFile(this);
+                    type(metadata.getType());
+                } catch(IOException e) {
+                    type(Type.NONEXISTENT);
+                }
             }
             resolved = true;
         }
         return this.getType();
     }
 
+    /**
+     * Lists this directory and its subdirectories down to the given depth
+     * with as few requests as the API allows, the walk of the listed tree
+     * through {@link #children()} and {@link #child(String)} is then answered
+     * without any request.
+     *
+     * @param depth the number of levels to list, {@code 1} for the children
+     *        of this directory only
+     * @return {@code true} if the tree has been listed, {@code false} if the
+     *         API does not support it or if this file is not read at a
+     *         revision
+     * @throws IOException if there was a network communications error.
+     * @throws InterruptedException if interrupted while waiting on remote communications.
+     */
+    public boolean prefetch(int depth) throws IOException, InterruptedException {
+        if (hash == null || depth < 1) {
+            return false;
+        }
+        Map<String, Type> tree = api.getTree(this, depth);
+        if (tree == null) {
+            return false;
+        }
+        String prefix = isRoot() ? "" : getPath() + "/";
+        Map<String, Map<String, Type>> directories = new HashMap<>();
+        directories.put(getPath(), new TreeMap<>());
+        tree.forEach((path, type) -> {
+            // the content of the directories of the last level is unknown
+            if (type == Type.DIRECTORY && path.split("/").length < depth) {
+                directories.put(prefix + path, new TreeMap<>());
+            }
+        });
+        tree.forEach((path, type) -> {
+            int index = path.lastIndexOf('/');
+            Map<String, Type> types = directories.get(index == -1 ? getPath() : prefix + path.substring(0, index));
+            if (types != null) {
+                types.put(path.substring(index + 1), type);
+            }
+        });
+        listings.putAll(directories);
+        type(Type.DIRECTORY);
+        resolved = true;
+        return true;
+    }
+
+    /**
+     * Lists the subtree of this directory before it is walked when enabled, a
+     * recursive copy such as the one of a shared library then costs a single
+     * listing.
+     */
+    private boolean prefetchSubtree() throws InterruptedException {
+        if (PREFETCH_DEPTH <= 1) {
+            // a single level is the listing of the directory
+            return false;
+        }
+        try {
+            return prefetch(PREFETCH_DEPTH);
+        } catch (IOException e) {
+            // list the directory on its own
+            return false;
+        }
+    }
+
+    /**
+     * Lists this directory and records the type of its children.
+     */
+    @NonNull
+    private Iterable<SCMFile> list() throws IOException, InterruptedException {
+        Iterable<SCMFile> children = api.getDirectoryContent(this);
+        if (hash != null) {
+            Map<String, Type> types = new TreeMap<>();
+            for (SCMFile child : children) {
+                types.put(child.getName(), child.getType());
+            }
+            listings.put(getPath(), types);
+        }
+        return children;
+    }
+
+    /**
+     * Resolves the type of this file from the listing of its parent, listing
+     * the parent if it is a known directory. The files deeper in a directory
+     * not listed yet are resolved with their own request, a single one for
+     * the whole path.
+     *
+     * @return the type, or {@code null} if it must be requested
+     */
+    @CheckForNull
+    private Type listedType() throws IOException, InterruptedException {
+        if (isRoot() || hash == null) {
+            return null;
+        }
+        BitbucketSCMFile parent = (BitbucketSCMFile) parent();
+        Map<String, Type> types = listings.get(parent.getPath());
+        if (types == null) {
+            Type parentType = parent.isRoot() ? Type.DIRECTORY : parent.knownType();
+            if (parentType == Type.NONEXISTENT || parentType == Type.REGULAR_FILE) {
+                return Type.NONEXISTENT;
+            }
+            if (parentType != Type.DIRECTORY) {
+                return null;
+            }
+            try {
+                parent.list();
+            } catch (IOException e) {
+                // let the file be requested on its own
+                return null;
+            }
+            types = listings.get(parent.getPath());
+        }
+        return types != null ? types.getOrDefault(getName(), Type.NONEXISTENT) : null;
+    }
+
+    /**
+     * Returns the type of this file if known without any request.
+     */
+    @CheckForNull
+    private Type knownType() throws IOException, InterruptedException {
+        if (resolved) {
+            return getType();
+        }
+        if (isRoot()) {
+            return null;
+        }
+        Map<String, Type> types = listings.get(((BitbucketSCMFile) parent()).getPath());
+        return types != null ? types.getOrDefault(getName(), Type.NONEXISTENT) : null;
+    }
+
 }
@@ -30,6 +30,7 @@ import com.cloudbees.jenkins.plugins.bitbucket.PullRequestSCMHead;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApi;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApiFactory;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketChange;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketCommit;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.endpoint.BitbucketServerEndpoint;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketApiUtils;
@@ -53,6 +54,8 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.annotation.Inherited;
 import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
 import java.util.Objects;
 import jenkins.authentication.tokens.api.AuthenticationTokens;
 import jenkins.plugins.git.AbstractGitSCMSource;
@@ -63,18 +66,40 @@ import jenkins.scm.api.SCMRevision;
 import jenkins.scm.api.SCMSource;
 import jenkins.scm.api.SCMSourceDescriptor;
 import jenkins.scm.api.mixin.ChangeRequestCheckoutStrategy;
+import jenkins.scm.api.mixin.ChangeRequestSCMRevision;
 import org.apache.commons.lang3.StringUtils;
 
 import static org.apache.commons.lang3.StringUtils.defaultString;
 
 public class BitbucketSCMFileSystem extends SCMFileSystem {
+    private static final String NULL_HASH = "0000000000000000000000000000000000000000";
+
     private final String ref;
     private final BitbucketApi api;
+    @CheckForNull
+    private final String serverURL;
+    @CheckForNull
+    private final BitbucketArchive archive;
 
     protected BitbucketSCMFileSystem(BitbucketApi api, String ref, @CheckForNull SCMRevision rev) {
+        this(api, ref, rev, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param api the client of the repository
+     * @param ref the reference to browse
+     * @param rev the revision to browse
+     * @param serverURL the endpoint of the repository, the content of the
+     *        files read at a commit is cached when given
+     */
+    protected BitbucketSCMFileSystem(BitbucketApi api, String ref, @CheckForNull SCMRevision rev, @CheckForNull String serverURL) {
         super(rev);
         this.ref = ref;
         this.api = api;
+        this.serverURL = serverURL;
+        this.archive = api != null ? BitbucketArchive.create(api, rev == null ? null : rev.toString()) : null;
     }
 
     /**
@@ -82,18 +107,50 @@ public class BitbucketSCMFileSystem extends SCMFileSystem {
      */
     @Override
     public long lastModified() throws IOException {
-        return 0L; // api.getBranch(ref).getDateMillis() or api.getTag(ref).getDateMillis()
+        SCMRevision revision = getRevision();
+        return revision == null ? 0L : lastModified(api, revision.toString());
+    }
+
+    /**
+     * Returns the committer time of a revision, the most recent of the two
+     * commits for the merge of a pull request. Commits are resolved through
+     * the commit cache of the client.
+     *
+     * @param api the client of the repository
+     * @param hash the revision
+     * @return the time in milliseconds, {@code 0L} if unknown
+     * @throws IOException if there was a network communications error.
+     */
+    static long lastModified(@NonNull BitbucketApi api, @CheckForNull String hash) throws IOException {
+        long lastModified = 0L;
+        if (hash == null) {
+            return lastModified;
+        }
+        for (String commitHash : hash.split("\\+")) {
+            BitbucketCommit commit = commitHash.isEmpty() ? null : api.resolveCommit(commitHash);
+            Date committerDate = commit != null ? commit.getCommitterDate() : null;
+            if (committerDate != null) {
+                lastModified = Math.max(lastModified, committerDate.getTime());
+            }
+        }
+        return lastModified;
     }
 
     @NonNull
     @Override
     public SCMFile getRoot() {
         SCMRevision revision = getRevision();
-        return new BitbucketSCMFile(api, ref, revision == null ? null : revision.toString());
+        BitbucketSCMFile root = new BitbucketSCMFile(api, ref, revision == null ? null : revision.toString());
+        root.setServerURL(serverURL);
+        root.setArchive(archive);
+        return root;
     }
 
     @Override
     public void close() throws IOException {
+        if (archive != null) {
+            archive.close();
+        }
         if (api != null) {
             api.close();
         }
@@ -109,95 +166,114 @@ public class BitbucketSCMFileSystem extends SCMFileSystem {
             // 2. what has changed between the current revision and the current revision
             return false;
         }
-        int count = 0;
-        StringBuilder log = new StringBuilder(1024);
         String startHash = null;
         if (fromRevision instanceof AbstractGitSCMSource.SCMRevisionImpl gitRev) {
             startHash = gitRev.getHash();
         }
-        /*
-         * Simulate what the CliGitAPIImpl.ChangelogCommand execute does:
-         * - git whatchanged --no-abbrev -M --format=commit %H%ntree %T%nparent %P%nauthor %aN <%aE> %ai%ncommitter %cN <%cE> %ci%n%n%w(0,4,4)%B -n 1024 8d0fa145 e43fdffe
-         * so we need to format each commit with the same format
-         * commit %H%ntree %T%nparent %P%nauthor %aN <%aE> %ai%ncommitter %cN <%cE> %ci%n%n%w(0,4,4)%B
-         * @see org.jenkinsci.plugins.gitclient.new ChangelogCommand() {...}.RAW
-         */
-        for (BitbucketCommit commit : api.getCommits(startHash, ref)) {
-            log.setLength(0);
-            log.append("commit ").append(commit.getHash()).append('\n');
-//            log.append("tree ").append(commit.getTree().getSha()).append('\n');
-            log.append("parent ").append(StringUtils.join(commit.getParents(), " ")).append('\n');
-            log.append("author ").append(commit.getAuthor()).append(' ').append(defaultString(DateUtils.formatToISO(commit.getAuthorDate()))).append('\n');
-            log.append("committer ").append(commit.getAuthor()).append(' ').append(defaultString(DateUtils.formatToISO(commit.getCommitterDate()))).append('\n');
-            log.append('\n');
-            String msg = commit.getMessage();
-            if (msg.endsWith("\r\n")) {
-                msg = msg.substring(0, msg.length() - 2);
-            } else if (msg.endsWith("\n")) {
-                msg = msg.substring(0, msg.length() - 1);
-            }
-            msg = msg.replace("\r\n", "\n").replace("\r", "\n").replace("\n", "\n    ");
-            log.append("    ").append(msg).append('\n');
-/*
-            String NULL_HASH = "0000000000000000000000000000000000000000";
+        // the ref may have moved since the revision was resolved
+        String endHash = ref;
+        if (currentRevision instanceof AbstractGitSCMSource.SCMRevisionImpl gitRev) {
+            endHash = gitRev.getHash();
+        } else if (currentRevision instanceof ChangeRequestSCMRevision<?> prRev
+                && prRev.getTarget() instanceof AbstractGitSCMSource.SCMRevisionImpl targetRev) {
+            endHash = targetRev.getHash();
+        }
+        ChangeLogWriter writer = new ChangeLogWriter(startHash, endHash, changeLogStream);
+        api.getCommits(startHash, endHash, writer);
+        return writer.count > 0;
+    }
 
-            if (count == 0) {
-                String fromHash = commit.getHash();
-                String toHash = NULL_HASH;
-                if (currentRevision instanceof SCMRevisionImpl gitRev) {
-                    toHash = gitRev.getHash();
-                } else if (currentRevision instanceof ChangeRequestSCMRevision<?> prRev
-                        && prRev.getTarget() instanceof SCMRevisionImpl targetRev) {
-                    toHash = targetRev.getHash();
+    /*
+     * Simulate what the CliGitAPIImpl.ChangelogCommand execute does:
+     * - git whatchanged --no-abbrev -M --format=commit %H%ntree %T%nparent %P%nauthor %aN <%aE> %ai%ncommitter %cN <%cE> %ci%n%n%w(0,4,4)%B -n 1024 8d0fa145 e43fdffe
+     * so we need to format each commit with the same format
+     * commit %H%ntree %T%nparent %P%nauthor %aN <%aE> %ai%ncommitter %cN <%cE> %ci%n%n%w(0,4,4)%B
+     * @see org.jenkinsci.plugins.gitclient.new ChangelogCommand() {...}.RAW
+     *
+     * Commits and changes are written page by page as they are received.
+     */
+    private final class ChangeLogWriter implements BitbucketApi.PageVisitor<BitbucketCommit> {
+        private final String startHash;
+        private final String endHash;
+        private final OutputStream changeLogStream;
+        private int count;
+
+        ChangeLogWriter(@CheckForNull String startHash, @CheckForNull String endHash, @NonNull OutputStream changeLogStream) {
+            this.startHash = startHash;
+            this.endHash = endHash;
+            this.changeLogStream = changeLogStream;
+        }
+
+        @Override
+        public boolean visit(@NonNull List<? extends BitbucketCommit> commits) throws IOException {
+            StringBuilder log = new StringBuilder(1024);
+            for (BitbucketCommit commit : commits) {
+                log.setLength(0);
+                log.append("commit ").append(commit.getHash()).append('\n');
+                log.append("parent ").append(StringUtils.join(commit.getParents(), " ")).append('\n');
+                log.append("author ").append(commit.getAuthor()).append(' ').append(defaultString(DateUtils.formatToISO(commit.getAuthorDate()))).append('\n');
+                log.append("committer ").append(commit.getCommitter()).append(' ').append(defaultString(DateUtils.formatToISO(commit.getCommitterDate()))).append('\n');
+                log.append('\n');
+                String msg = commit.getMessage();
+                if (msg.endsWith("\r\n")) {
+                    msg = msg.substring(0, msg.length() - 2);
+                } else if (msg.endsWith("\n")) {
+                    msg = msg.substring(0, msg.length() - 1);
+                }
+                msg = msg.replace("\r\n", "\n").replace("\r", "\n").replace("\n", "\n    ");
+                log.append("    ").append(msg).append('\n');
+                changeLogStream.write(log.toString().getBytes(StandardCharsets.UTF_8));
+                if (count == 0 && startHash != null) {
+                    // in BB diff changes are not related to a specific commit so we put all of them into the most recent commit
+                    writeChanges(startHash);
                 }
-                toHash = StringUtils.rightPad(toHash, 40, '0');
+                changeLogStream.flush();
+                count++;
+                if (count >= GitSCM.MAX_CHANGELOG) {
+                    return false;
+                }
+            }
+            return true;
+        }
 
-                // in BB diff changes are not related to a specific commit so we put all of them into the most recent commit
-                for (BitbucketCloudCommitDiffStat change : api.getCommitsChanges(startHash, ref)) {
+        private void writeChanges(@NonNull String fromHash) throws IOException {
+            boolean supported = api.getChanges(fromHash, endHash, changes -> {
+                StringBuilder log = new StringBuilder(1024);
+                for (BitbucketChange change : changes) {
                     log.append('\n').append(':');
-                    switch (change.getStatus()) {
-                    case added:
-                        log.append("000000").append(' ').append("100644")
-                            .append(' ')
-                            .append(NULL_HASH).append(' ').append(toHash)
-                            .append(' ')
-                            .append('A').append("\t").append(change.getNewPath());
+                    switch (change.getChangeType()) {
+                    case ADDED:
+                        log.append("000000 100644 ").append(NULL_HASH).append(' ').append(hashOf(change.getNewContentId()))
+                            .append(" A\t").append(change.getNewPath());
                         break;
-                    case modified:
-                        log.append("100644").append(' ').append("100644")
-                            .append(' ')
-                            .append(fromHash).append(' ').append(toHash)
-                            .append(' ')
-                            .append('M').append("\t").append(change.getNewPath());
+                    case REMOVED:
+                        log.append("100644 000000 ").append(hashOf(change.getOldContentId())).append(' ').append(NULL_HASH)
+                            .append(" D\t").append(change.getOldPath());
                         break;
-                    case removed:
-                        log.append("100644").append(' ').append("000000")
-                            .append(' ')
-                            .append(fromHash).append(' ').append(NULL_HASH)
-                            .append(' ')
-                            .append('D').append("\t").append(change.getOldPath());
+                    case RENAMED:
+                        log.append("100644 100644 ").append(hashOf(change.getOldContentId())).append(' ').append(hashOf(change.getNewContentId()))
+                            .append(" R100\t").append(change.getOldPath()).append('\t').append(change.getNewPath());
                         break;
-                    case renamed:
-                        log.append("100644").append(' ').append("100644")
-                            .append(' ')
-                            .append(fromHash).append(' ').append(toHash)
-                            .append(' ')
-                            .append('R').append("\t").append(change.getOldPath()).append(' ').append(change.getNewPath());
+                    default:
+                        log.append("100644 100644 ").append(hashOf(change.getOldContentId())).append(' ').append(hashOf(change.getNewContentId()))
+                            .append(" M\t").append(change.getNewPath());
                         break;
                     }
                 }
-                log.append('\n');
-            }
-*/
-            changeLogStream.write(log.toString().getBytes(StandardCharsets.UTF_8));
-            changeLogStream.flush();
-            count++;
-            if (count >= GitSCM.MAX_CHANGELOG) {
-                break;
+                changeLogStream.write(log.toString().getBytes(StandardCharsets.UTF_8));
+                return true;
+            });
+            if (supported) {
+                changeLogStream.write('\n');
             }
         }
 
-        return count > 0;
+        /*
+         * Blob hashes are not provided by the Cloud diff stat.
+         */
+        private String hashOf(@CheckForNull String contentId) {
+            return StringUtils.defaultIfEmpty(contentId, NULL_HASH);
+        }
     }
 
     @Extension
@@ -307,7 +383,9 @@ public class BitbucketSCMFileSystem extends SCMFileSystem {
                 return null;
             }
 
-            return new BitbucketSCMFileSystem(BitbucketApiFactory.newInstance(serverURL, authenticator, owner, null, repository), ref, rev);
+            BitbucketApi client = BitbucketApiFactory.newInstance(serverURL, authenticator, owner, null, repository);
+            src.setupReadMirror(client);
+            return new BitbucketSCMFileSystem(client, ref, rev, serverURL);
         }
     }
 }
@@ -26,29 +26,30 @@ package com.cloudbees.jenkins.plugins.bitbucket.hooks;
 import com.cloudbees.jenkins.plugins.bitbucket.api.endpoint.BitbucketEndpoint;
 import com.cloudbees.jenkins.plugins.bitbucket.api.endpoint.BitbucketEndpointProvider;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.endpoint.BitbucketCloudEndpoint;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.metrics.BitbucketMetrics;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
-import edu.umd.cs.findbugs.annotations.Nullable;
 import hudson.Extension;
 import hudson.model.UnprotectedRootAction;
 import hudson.security.csrf.CrumbExclusion;
 import hudson.util.HttpResponses;
-import hudson.util.Secret;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.crypto.Mac;
 import jenkins.scm.api.SCMEvent;
+import jenkins.util.SystemProperties;
 import org.apache.commons.codec.DecoderException;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.HmacAlgorithms;
-import org.apache.commons.codec.digest.HmacUtils;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.jenkinsci.plugins.plaincredentials.StringCredentials;
@@ -70,6 +71,10 @@ public class BitbucketSCMSourcePushHookReceiver extends CrumbExclusion implement
 
     public static final String FULL_PATH = PATH + "/notify";
 
+    // payloads bigger than this are rejected without being read
+    private static final int MAX_PAYLOAD_SIZE = SystemProperties.getInteger(BitbucketSCMSourcePushHookReceiver.class.getName() + ".maxPayloadSize", 10 * 1024 * 1024);
+    private static final int BUFFER_SIZE = 8192;
+
     @Override
     public boolean process(HttpServletRequest req, HttpServletResponse resp, FilterChain chain) throws IOException, ServletException {
         String pathInfo = req.getPathInfo();
@@ -94,8 +99,8 @@ public class BitbucketSCMSourcePushHookReceiver extends CrumbExclusion implement
      * @throws IOException if there is any issue reading the HTTP content payload.
      */
     public HttpResponse doNotify(StaplerRequest2 req) throws IOException {
+        long start = System.nanoTime();
         String origin = SCMEvent.originOf(req);
-        String body = IOUtils.toString(req.getInputStream(), StandardCharsets.UTF_8);
 
         String eventKey = req.getHeader("X-Event-Key");
         if (eventKey == null) {
@@ -107,6 +112,11 @@ public class BitbucketSCMSourcePushHookReceiver extends CrumbExclusion implement
             return HttpResponses.error(HttpServletResponse.SC_BAD_REQUEST, "X-Event-Key HTTP header invalid: " + eventKey);
         }
 
+        long contentLength = req.getContentLengthLong();
+        if (contentLength > MAX_PAYLOAD_SIZE) {
+            return payloadTooLarge(type);
+        }
+
         String bitbucketKey = req.getHeader("X-Bitbucket-Type"); // specific header from Plugin implementation
         String serverURL = req.getParameter("server_url");
 
@@ -128,14 +138,17 @@ public class BitbucketSCMSourcePushHookReceiver extends CrumbExclusion implement
             serverURL = BitbucketCloudEndpoint.SERVER_URL;
         }
 
+        // the signature is digested while the payload is read
+        Signature signature = null;
         BitbucketEndpoint endpoint = BitbucketEndpointProvider
                 .lookupEndpoint(serverURL)
                 .orElse(null);
         if (endpoint != null) {
             if (endpoint.isEnableHookSignature()) {
                 if (req.getHeader("X-Hub-Signature") != null) {
-                    HttpResponseException error = checkSignature(req, body, endpoint);
-                    if (error != null) {
+                    try {
+                        signature = prepareSignature(req, endpoint);
+                    } catch (HttpResponseException error) {
                         return error;
                     }
                 } else {
@@ -148,49 +161,98 @@ public class BitbucketSCMSourcePushHookReceiver extends CrumbExclusion implement
             LOGGER.log(Level.INFO, "No bitbucket endpoint found for {0} to verify the signature of incoming webhook.", serverURL);
         }
 
+        ByteArrayOutputStream payload = readPayload(req.getInputStream(), contentLength, signature != null ? signature.mac : null);
+        if (payload == null) {
+            return payloadTooLarge(type);
+        }
+        if (signature != null && !MessageDigest.isEqual(signature.expected, signature.mac.doFinal())) {
+            return HttpResponses.error(HttpServletResponse.SC_FORBIDDEN, "Signature verification failed");
+        }
+        String body = payload.toString(StandardCharsets.UTF_8);
+
+        BitbucketMetrics metrics = BitbucketMetrics.get();
+        metrics.webhookReceived(type, System.nanoTime() - start);
+
         HookProcessor hookProcessor = getHookProcessor(type);
-        hookProcessor.process(type, body, instanceType, origin, serverURL);
+        start = System.nanoTime();
+        boolean success = false;
+        try {
+            hookProcessor.process(type, body, instanceType, origin, serverURL);
+            success = true;
+        } finally {
+            metrics.webhookProcessed(type, System.nanoTime() - start, success);
+        }
         return HttpResponses.ok();
     }
 
-    @Nullable
-    private HttpResponseException checkSignature(@NonNull StaplerRequest2 req, @NonNull String body, @NonNull BitbucketEndpoint endpoint) {
-        LOGGER.log(Level.FINE, "Payload endpoint host {0}, request endpoint host {1}", new Object[] { endpoint, req.getRemoteAddr() });
+    private static HttpResponseException payloadTooLarge(HookEventType type) {
+        LOGGER.log(Level.WARNING, "Rejected {0} hook, the payload exceeds the maximum size of {1} bytes", new Object[] { type, MAX_PAYLOAD_SIZE });
+        return HttpResponses.error(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "Payload exceeds the maximum size of " + MAX_PAYLOAD_SIZE + " bytes");
+    }
 
-        StringCredentials signatureCredentials = endpoint.hookSignatureCredentials();
-        if (signatureCredentials != null) {
-            String signatureHeader = req.getHeader("X-Hub-Signature");
-            String bitbucketAlgorithm = trimToNull(StringUtils.substringBefore(signatureHeader, "="));
-            String bitbucketSignature = trimToNull(StringUtils.substringAfter(signatureHeader, "="));
-            HmacAlgorithms algorithm = getAlgorithm(bitbucketAlgorithm);
-            if (algorithm == null) {
-                return HttpResponses.error(HttpServletResponse.SC_FORBIDDEN, "Signature " + bitbucketAlgorithm + " not supported");
+    /*
+     * Reads the raw payload and updates the digest of the signature with it,
+     * gives up as soon as the payload exceeds the maximum size.
+     */
+    @CheckForNull
+    private static ByteArrayOutputStream readPayload(@NonNull InputStream input, long contentLength, @CheckForNull Mac mac) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(contentLength > 0 ? (int) contentLength : BUFFER_SIZE);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            if (payload.size() + read > MAX_PAYLOAD_SIZE) {
+                return null;
             }
-            HmacUtils util;
-            try {
-                String key = Secret.toString(signatureCredentials.getSecret());
-                util = new HmacUtils(algorithm, key.getBytes(StandardCharsets.UTF_8));
-                byte[] digest = util.hmac(body);
-                if (!MessageDigest.isEqual(Hex.decodeHex(bitbucketSignature), digest)) {
-                    return HttpResponses.error(HttpServletResponse.SC_FORBIDDEN, "Signature verification failed");
-                }
-            } catch (IllegalArgumentException e) {
-                return HttpResponses.error(HttpServletResponse.SC_BAD_REQUEST, "Signature method not supported: " + algorithm);
-            } catch (DecoderException e) {
-                return HttpResponses.error(HttpServletResponse.SC_BAD_REQUEST, "Hex signature can not be decoded: " + bitbucketSignature);
+            if (mac != null) {
+                mac.update(buffer, 0, read);
             }
-        } else {
+            payload.write(buffer, 0, read);
+        }
+        return payload;
+    }
+
+    private static final class Signature {
+        private final Mac mac;
+        private final byte[] expected;
+
+        Signature(Mac mac, byte[] expected) {
+            this.mac = mac;
+            this.expected = expected;
+        }
+    }
+
+    @NonNull
+    private Signature prepareSignature(@NonNull StaplerRequest2 req, @NonNull BitbucketEndpoint endpoint) {
+        LOGGER.log(Level.FINE, "Payload endpoint host {0}, request endpoint host {1}", new Object[] { endpoint, req.getRemoteAddr() });
+
+        StringCredentials signatureCredentials = endpoint.hookSignatureCredentials();
+        if (signatureCredentials == null) {
             String hookId = req.getHeader("X-Hook-UUID");
             String requestId = ObjectUtils.firstNonNull(req.getHeader("X-Request-UUID"), req.getHeader("X-Request-Id"));
             String hookSignatureCredentialsId = endpoint.getHookSignatureCredentialsId();
             LOGGER.log(Level.WARNING, "No credentials {0} found to verify the signature of incoming webhook {1} request {2}", new Object[] { hookSignatureCredentialsId, hookId, requestId });
-            return HttpResponses.error(HttpServletResponse.SC_FORBIDDEN, "No credentials " + hookSignatureCredentialsId + " found in Jenkins to verify the signature");
+            throw HttpResponses.error(HttpServletResponse.SC_FORBIDDEN, "No credentials " + hookSignatureCredentialsId + " found in Jenkins to verify the signature");
+        }
+
+        String signatureHeader = req.getHeader("X-Hub-Signature");
+        String bitbucketAlgorithm = trimToNull(StringUtils.substringBefore(signatureHeader, "="));
+        String bitbucketSignature = trimToNull(StringUtils.substringAfter(signatureHeader, "="));
+        HmacAlgorithms algorithm = getAlgorithm(bitbucketAlgorithm);
+        if (algorithm == null) {
+            throw HttpResponses.error(HttpServletResponse.SC_FORBIDDEN, "Signature " + bitbucketAlgorithm + " not supported");
+        }
+        try {
+            Mac mac = HookSignatureMacs.get(endpoint.getServerURL(), algorithm, signatureCredentials);
+            return new Signature(mac, Hex.decodeHex(bitbucketSignature));
+        } catch (IllegalArgumentException e) {
+            throw HttpResponses.error(HttpServletResponse.SC_BAD_REQUEST, "Signature method not supported: " + algorithm);
+        } catch (DecoderException e) {
+            throw HttpResponses.error(HttpServletResponse.SC_BAD_REQUEST, "Hex signature can not be decoded: " + bitbucketSignature);
         }
-        return null;
     }
 
     @CheckForNull
-    private HmacAlgorithms getAlgorithm(String algorithm) {
+    private static HmacAlgorithms getAlgorithm(String algorithm) {
         switch (StringUtils.lowerCase(algorithm)) {
         case "sha1":
             return HmacAlgorithms.HMAC_SHA_1;
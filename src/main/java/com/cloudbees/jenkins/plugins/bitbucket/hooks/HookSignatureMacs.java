@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.hooks;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.util.Secret;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import javax.crypto.Mac;
+import org.apache.commons.codec.digest.HmacAlgorithms;
+import org.apache.commons.codec.digest.HmacUtils;
+import org.jenkinsci.plugins.plaincredentials.StringCredentials;
+
+/**
+ * Keeps the {@link Mac} instances used to verify the signature of incoming
+ * hooks, per endpoint and algorithm.
+ * <p>
+ * A {@link Mac} is not thread safe, so the instances are confined to the
+ * request thread that initialised them. An instance is initialised again
+ * with the new key when the secret of the signature credentials changes.
+ */
+final class HookSignatureMacs {
+
+    private static final ThreadLocal<Map<String, CachedMac>> MACS = ThreadLocal.withInitial(HashMap::new);
+
+    private static final class CachedMac {
+        private final String credentialsId;
+        private final Secret secret;
+        private final Mac mac;
+
+        CachedMac(String credentialsId, Secret secret, Mac mac) {
+            this.credentialsId = credentialsId;
+            this.secret = secret;
+            this.mac = mac;
+        }
+
+        boolean isValid(StringCredentials credentials) {
+            return credentialsId.equals(credentials.getId()) && secret.equals(credentials.getSecret());
+        }
+    }
+
+    private HookSignatureMacs() {
+    }
+
+    /**
+     * Returns a {@link Mac} of the calling thread initialised with the secret
+     * of the given credentials and ready to digest a new payload.
+     *
+     * @param serverURL the endpoint that sends the hooks
+     * @param algorithm the algorithm of the signature
+     * @param credentials the credentials that contain the secret
+     * @return the initialised {@link Mac}
+     * @throws IllegalArgumentException if the algorithm is not available or
+     *         the secret is not a valid key
+     */
+    @NonNull
+    static Mac get(@NonNull String serverURL, @NonNull HmacAlgorithms algorithm, @NonNull StringCredentials credentials) {
+        Map<String, CachedMac> macs = MACS.get();
+        String key = serverURL + '#' + algorithm.getName();
+        CachedMac cached = macs.get(key);
+        if (cached != null && cached.isValid(credentials)) {
+            cached.mac.reset();
+            return cached.mac;
+        }
+        Secret secret = credentials.getSecret();
+        Mac mac = HmacUtils.getInitializedMac(algorithm, Secret.toString(secret).getBytes(StandardCharsets.UTF_8));
+        macs.put(key, new CachedMac(credentials.getId(), secret, mac));
+        return mac;
+    }
+}
@@ -75,6 +75,9 @@ public class NativeServerPullRequestHookProcessor extends HookProcessor {
                 return;
         }
 
+        if (pullRequestEvent.getPullRequest() != null) {
+            OpenPullRequestCache.invalidate(serverUrl, pullRequestEvent.getPullRequest());
+        }
         notifyEvent(new ServerHeadEvent(serverUrl, eventType, pullRequestEvent, origin), BitbucketSCMSource.getEventDelaySeconds());
     }
 }
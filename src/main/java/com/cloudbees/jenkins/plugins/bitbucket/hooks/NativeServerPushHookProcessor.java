@@ -25,6 +25,7 @@ package com.cloudbees.jenkins.plugins.bitbucket.hooks;
 
 import com.cloudbees.jenkins.plugins.bitbucket.BitbucketSCMSource;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.JsonParser;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.BitbucketServerMirrorCache;
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.branch.BitbucketServerCommit;
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.repository.BitbucketServerRepository;
 import com.cloudbees.jenkins.plugins.bitbucket.server.events.NativeServerChange;
@@ -64,17 +65,23 @@ public class NativeServerPushHookProcessor extends HookProcessor {
         final String mirrorId;
         try {
             if (hookEvent == HookEventType.SERVER_REFS_CHANGED) {
-                final NativeServerRefsChangedEvent event = JsonParser.toJava(payload, NativeServerRefsChangedEvent.class);
+                final NativeServerRefsChangedEvent event = PushPayloadReader.readNativeServerRefsChanged(payload);
                 repository = event.getRepository();
                 changes = event.getChanges();
                 refCommit = event.getToCommit();
                 mirrorId = null;
+                if (serverUrl != null) {
+                    BitbucketServerMirrorCache.get().repositoryPushed(serverUrl, repository.getOwnerName(), repository.getRepositoryName());
+                }
             } else if (hookEvent == HookEventType.SERVER_MIRROR_REPO_SYNCHRONIZED) {
                 final NativeServerMirrorRepoSynchronizedEvent event = JsonParser.toJava(payload, NativeServerMirrorRepoSynchronizedEvent.class);
                 repository = event.getRepository();
                 changes = event.getChanges();
                 refCommit = null;
                 mirrorId = event.getMirrorServer().getId();
+                if (serverUrl != null) {
+                    BitbucketServerMirrorCache.get().repositorySynchronized(serverUrl, repository.getOwnerName(), repository.getRepositoryName(), mirrorId);
+                }
                 // If too many changes, this event set refLimitExceeded to true
                 // https://confluence.atlassian.com/bitbucketserver/event-payload-938025882.html#Eventpayload-Mirrorsynchronized
                 if (event.getRefLimitExceeded()) {
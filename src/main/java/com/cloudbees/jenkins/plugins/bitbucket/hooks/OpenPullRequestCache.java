@@ -0,0 +1,105 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.hooks;
+
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketPullRequest;
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketRepository;
+import com.cloudbees.jenkins.plugins.bitbucket.client.Cache;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.pullrequest.BitbucketServerPullRequest;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import jenkins.util.SystemProperties;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Keeps the open pull requests of a ref for a short time, so that the push
+ * events that follow each other on a busy ref do not fetch them again for
+ * every matching source.
+ * <p>
+ * The head commit of the ref is part of the key: the pull requests carry the
+ * source and destination commits, they are stale as soon as the ref moves.
+ * <p>
+ * Entries are removed when a pull request event is received for the source
+ * or the destination repository.
+ */
+final class OpenPullRequestCache {
+
+    static final String DURATION_PROPERTY_NAME = OpenPullRequestCache.class.getName() + ".duration";
+
+    private static final Cache<Key, Map<String, BitbucketServerPullRequest>> CACHE = new Cache<>("openPullRequests",
+            SystemProperties.getInteger(DURATION_PROPERTY_NAME, 60), TimeUnit.SECONDS, 1000);
+
+    record Key(@NonNull String serverURL,
+               @NonNull String owner,
+               @NonNull String repository,
+               @NonNull String refId,
+               @CheckForNull String headHash,
+               @NonNull String credentialsIdentity) {
+
+        Key {
+            owner = owner.toLowerCase(Locale.ENGLISH);
+            repository = repository.toLowerCase(Locale.ENGLISH);
+        }
+
+        boolean isRepository(@CheckForNull String serverURL, @NonNull BitbucketRepository repository) {
+            return (serverURL == null || this.serverURL.equals(serverURL))
+                && StringUtils.equalsIgnoreCase(owner, repository.getOwnerName())
+                && StringUtils.equalsIgnoreCase(this.repository, repository.getRepositoryName());
+        }
+    }
+
+    private OpenPullRequestCache() {
+    }
+
+    @CheckForNull
+    static Map<String, BitbucketServerPullRequest> get(@NonNull Key key) {
+        return CACHE.getIfPresent(key);
+    }
+
+    static void put(@NonNull Key key, @NonNull Map<String, BitbucketServerPullRequest> pullRequests) {
+        CACHE.put(key, Map.copyOf(pullRequests));
+    }
+
+    /**
+     * Forgets the open pull requests of the repositories involved in the
+     * given pull request.
+     *
+     * @param serverURL the endpoint of the event or {@code null} when the
+     *        event does not tell it
+     * @param pullRequest the pull request of the event
+     */
+    static void invalidate(@CheckForNull String serverURL, @NonNull BitbucketPullRequest pullRequest) {
+        BitbucketRepository source = pullRequest.getSource() != null ? pullRequest.getSource().getRepository() : null;
+        BitbucketRepository destination = pullRequest.getDestination() != null ? pullRequest.getDestination().getRepository() : null;
+        CACHE.evict(key -> source != null && key.isRepository(serverURL, source)
+            || destination != null && key.isRepository(serverURL, destination));
+    }
+
+    static void clear() {
+        CACHE.evictAll();
+    }
+}
@@ -60,6 +60,10 @@ public class PullRequestHookProcessor extends HookProcessor {
                         eventType = SCMEvent.Type.UPDATED;
                         break;
                 }
+                if (instanceType == BitbucketType.SERVER && pull.getPullRequest() != null) {
+                    // the plugin webhook does not tell the server URL
+                    OpenPullRequestCache.invalidate(null, pull.getPullRequest());
+                }
                 // assume updated as a catch-all type
                 notifyEvent(new PREvent(eventType, pull, origin, hookEvent), BitbucketSCMSource.getEventDelaySeconds());
             }
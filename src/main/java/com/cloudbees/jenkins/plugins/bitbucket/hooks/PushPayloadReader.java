@@ -0,0 +1,243 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.hooks;
+
+import com.cloudbees.jenkins.plugins.bitbucket.client.events.BitbucketCloudPushEvent;
+import com.cloudbees.jenkins.plugins.bitbucket.client.events.BitbucketCloudPushEvent.ChangeImpl;
+import com.cloudbees.jenkins.plugins.bitbucket.client.events.BitbucketCloudPushEvent.ReferenceImpl;
+import com.cloudbees.jenkins.plugins.bitbucket.client.events.BitbucketCloudPushEvent.TargetImpl;
+import com.cloudbees.jenkins.plugins.bitbucket.client.repository.BitbucketCloudRepository;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.branch.BitbucketServerCommit;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.repository.BitbucketServerRepository;
+import com.cloudbees.jenkins.plugins.bitbucket.server.events.NativeServerChange;
+import com.cloudbees.jenkins.plugins.bitbucket.server.events.NativeServerRef;
+import com.cloudbees.jenkins.plugins.bitbucket.server.events.NativeServerRefsChangedEvent;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+import static com.cloudbees.jenkins.plugins.bitbucket.impl.util.JsonParser.createParser;
+import static com.cloudbees.jenkins.plugins.bitbucket.impl.util.JsonParser.toJava;
+
+/**
+ * Reads the push payloads field by field and keeps only what the push hook
+ * processors use: the repository, the changed refs and their hashes.
+ * <p>
+ * The remaining parts of the payload (actor, commits, links of each change,
+ * commit details of the targets) are skipped without being bound, so the
+ * cost of a big push does not depend on the number of commits it contains.
+ */
+@Restricted(NoExternalUse.class)
+public final class PushPayloadReader {
+
+    private PushPayloadReader() {
+    }
+
+    /**
+     * Reads a Bitbucket Server {@code repo:refs_changed} payload.
+     *
+     * @param payload the webhook payload
+     * @return the event with the repository, the changes and the new head commit
+     * @throws IOException if the payload is not a valid JSON document
+     */
+    @NonNull
+    static NativeServerRefsChangedEvent readNativeServerRefsChanged(@NonNull String payload) throws IOException {
+        NativeServerRefsChangedEvent event = new NativeServerRefsChangedEvent();
+        try (JsonParser parser = createParser(payload)) {
+            startObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case "repository" -> event.setRepository(toJava(parser, BitbucketServerRepository.class));
+                    case "toCommit" -> event.setToCommit(toJava(parser, BitbucketServerCommit.class));
+                    case "changes" -> event.setChanges(readNativeServerChanges(parser));
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return event;
+    }
+
+    /**
+     * Reads a Bitbucket Cloud {@code repo:push} payload.
+     *
+     * @param payload the webhook payload
+     * @return the event with the repository and the changes
+     * @throws IOException if the payload is not a valid JSON document
+     */
+    @NonNull
+    public static BitbucketCloudPushEvent readCloudPush(@NonNull String payload) throws IOException {
+        BitbucketCloudPushEvent event = new BitbucketCloudPushEvent();
+        try (JsonParser parser = createParser(payload)) {
+            startObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case "repository" -> event.setRepository(toJava(parser, BitbucketCloudRepository.class));
+                    case "push" -> event.setChanges(readCloudChanges(parser));
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return event;
+    }
+
+    private static List<NativeServerChange> readNativeServerChanges(JsonParser parser) throws IOException {
+        List<NativeServerChange> changes = new ArrayList<>();
+        expect(parser, JsonToken.START_ARRAY);
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            NativeServerChange change = new NativeServerChange();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "ref" -> change.setRef(token == JsonToken.START_OBJECT ? readNativeServerRef(parser) : null);
+                    case "refId" -> change.setRefId(parser.getValueAsString());
+                    case "fromHash" -> change.setFromHash(parser.getValueAsString());
+                    case "toHash" -> change.setToHash(parser.getValueAsString());
+                    case "type" -> change.setType(parser.getValueAsString());
+                    default -> parser.skipChildren();
+                }
+            }
+            changes.add(change);
+        }
+        return changes;
+    }
+
+    private static NativeServerRef readNativeServerRef(JsonParser parser) throws IOException {
+        NativeServerRef ref = new NativeServerRef();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> ref.setId(parser.getValueAsString());
+                case "displayId" -> ref.setDisplayId(parser.getValueAsString());
+                case "type" -> ref.setType(parser.getValueAsString());
+                default -> parser.skipChildren();
+            }
+        }
+        return ref;
+    }
+
+    private static List<ChangeImpl> readCloudChanges(JsonParser parser) throws IOException {
+        List<ChangeImpl> changes = new ArrayList<>();
+        expect(parser, JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (!"changes".equals(field) || token != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                ChangeImpl change = new ChangeImpl();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String changeField = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    switch (changeField) {
+                        case "new" -> change.setNew(readCloudReference(parser, value));
+                        case "old" -> change.setOld(readCloudReference(parser, value));
+                        case "created" -> change.setCreated(parser.getValueAsBoolean());
+                        case "closed" -> change.setClosed(parser.getValueAsBoolean());
+                        default -> parser.skipChildren();
+                    }
+                }
+                changes.add(change);
+            }
+        }
+        return changes;
+    }
+
+    @CheckForNull
+    private static ReferenceImpl readCloudReference(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            return null;
+        }
+        ReferenceImpl reference = new ReferenceImpl();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "type" -> reference.setType(parser.getValueAsString());
+                case "name" -> reference.setName(parser.getValueAsString());
+                case "date" -> reference.setDate(readDate(parser, value));
+                case "target" -> reference.setTarget(readCloudTarget(parser, value));
+                default -> parser.skipChildren();
+            }
+        }
+        return reference;
+    }
+
+    @CheckForNull
+    private static TargetImpl readCloudTarget(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            return null;
+        }
+        TargetImpl target = new TargetImpl();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "hash" -> target.setHash(parser.getValueAsString());
+                case "date" -> target.setDate(readDate(parser, value));
+                default -> parser.skipChildren();
+            }
+        }
+        return target;
+    }
+
+    @CheckForNull
+    private static Date readDate(JsonParser parser, JsonToken token) throws IOException {
+        return token == JsonToken.VALUE_NULL ? null : toJava(parser, Date.class);
+    }
+
+    private static void startObject(JsonParser parser) throws IOException {
+        expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+    }
+
+    private static void expect(JsonParser parser, JsonToken expected) throws IOException {
+        expect(parser, parser.currentToken(), expected);
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Unexpected " + actual + " in hook payload at " + parser.currentLocation() + ", expected " + expected);
+        }
+    }
+}
@@ -290,9 +290,19 @@ final class ServerPushEvent extends AbstractNativeServerSCMHeadEvent<Collection<
     private Map<String, BitbucketServerPullRequest> loadPullRequests(BitbucketSCMSource src, NativeServerChange change) {
         final BitbucketServerRepository eventRepo = repository;
         final Map<String, BitbucketServerPullRequest> pullRequests = new HashMap<>();
+        OpenPullRequestCache.Key sharedKey = null;
+        boolean complete = false;
 
         try (BitbucketServerAPIClient api = (BitbucketServerAPIClient) src
                 .buildBitbucketClient(eventRepo.getOwnerName(), eventRepo.getRepositoryName())) {
+            // credentials ids are not unique across folders, share with the clients sending the same secret only
+            sharedKey = new OpenPullRequestCache.Key(src.getServerUrl(), eventRepo.getOwnerName(),
+                eventRepo.getRepositoryName(), change.getRefId(), change.getToHash(), api.getCredentialsIdentity());
+            final Map<String, BitbucketServerPullRequest> cached = OpenPullRequestCache.get(sharedKey);
+            if (cached != null) {
+                return cached;
+            }
+            complete = true;
             try {
                 for (final BitbucketServerPullRequest pullRequest : api.getOutgoingOpenPullRequests(change.getRefId())) {
                     pullRequests.put(pullRequest.getId(), pullRequest);
@@ -300,6 +310,7 @@ final class ServerPushEvent extends AbstractNativeServerSCMHeadEvent<Collection<
             } catch (final FileNotFoundException e) {
                 throw e;
             } catch (IOException | RuntimeException e) {
+                complete = false;
                 LOGGER.log(Level.WARNING, "Failed to retrieve outgoing Pull Requests from Bitbucket", e);
             }
 
@@ -310,14 +321,21 @@ final class ServerPushEvent extends AbstractNativeServerSCMHeadEvent<Collection<
             } catch (final FileNotFoundException e) {
                 throw e;
             } catch (IOException | RuntimeException e) {
+                complete = false;
                 LOGGER.log(Level.WARNING, "Failed to retrieve incoming Pull Requests from Bitbucket", e);
             }
         } catch (FileNotFoundException e) {
+            complete = false;
             LOGGER.log(Level.INFO, "No such Repository on Bitbucket: {0}", e.getMessage());
         } catch (IOException e1) {
+            complete = false;
             LOGGER.log(Level.INFO, "Comunication fail with server", e1);
         }
 
+        if (complete && sharedKey != null) {
+            // partial results are not shared, the next event will try again
+            OpenPullRequestCache.put(sharedKey, pullRequests);
+        }
         return pullRequests;
     }
 
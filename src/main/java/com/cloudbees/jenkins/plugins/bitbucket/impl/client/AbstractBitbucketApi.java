@@ -27,6 +27,7 @@ import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketException;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketRequestException;
 import com.cloudbees.jenkins.plugins.bitbucket.client.ClosingConnectionInputStream;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.metrics.BitbucketMetrics;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.ProxyConfiguration;
@@ -42,7 +43,7 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import jenkins.model.Jenkins;
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hc.client5.http.auth.AuthCache;
 import org.apache.hc.client5.http.auth.AuthScope;
@@ -71,12 +72,15 @@ import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpRequest;
 import org.apache.hc.core5.http.HttpStatus;
 import org.apache.hc.core5.http.NameValuePair;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
 import org.apache.hc.core5.util.TimeValue;
 import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 import org.kohsuke.accmod.restrictions.ProtectedExternally;
 
 @Restricted(ProtectedExternally.class)
@@ -84,6 +88,7 @@ public abstract class AbstractBitbucketApi implements AutoCloseable {
     protected final Logger logger = Logger.getLogger(this.getClass().getName());
     private final BitbucketAuthenticator authenticator;
     private HttpClientContext context;
+    private BitbucketRateLimiter rateLimiter;
 
     protected AbstractBitbucketApi(BitbucketAuthenticator authenticator) {
         if (!isSupportedAuthenticator(authenticator)) {
@@ -110,8 +115,14 @@ public abstract class AbstractBitbucketApi implements AutoCloseable {
             if (len == 0) {
                 content = "";
             } else {
+                byte[] bytes;
                 try (InputStream is = entity.getContent()) {
-                    content = IOUtils.toString(is, StandardCharsets.UTF_8);
+                    bytes = is.readAllBytes();
+                }
+                content = new String(bytes, StandardCharsets.UTF_8);
+                if (len < 0) {
+                    // length was unknown when the call has been recorded
+                    BitbucketApiStatistics.recordBytes(bytes.length);
                 }
             }
             return content;
@@ -166,7 +177,15 @@ public abstract class AbstractBitbucketApi implements AutoCloseable {
                 .setDefaultRequestConfig(requestConfig)
                 .evictExpiredConnections()
                 .evictIdleConnections(TimeValue.ofSeconds(2))
-                .disableCookieManagement();
+                .disableCookieManagement()
+                .addResponseInterceptorFirst((response, entity, httpContext) -> {
+                    // also called for responses that are retried by the client
+                    if (httpContext instanceof HttpClientContext clientContext
+                            && clientContext.getHttpRoute() != null
+                            && getHost().equals(clientContext.getHttpRoute().getTargetHost())) {
+                        getRateLimiter().update(response);
+                    }
+                });
 
         if (authenticator != null) {
             authenticator.configureBuilder(httpClientBuilder);
@@ -249,7 +268,59 @@ public abstract class AbstractBitbucketApi implements AutoCloseable {
         if (authenticator != null && targetHost.equals(requestHost)) {
             authenticator.configureRequest(request);
         }
-        return getClient().executeOpen(requestHost, request, context);
+        BitbucketCircuitBreaker circuitBreaker = null;
+        if (targetHost.equals(requestHost)) {
+            getRateLimiter().acquire();
+            circuitBreaker = BitbucketCircuitBreaker.get(targetHost);
+            circuitBreaker.acquirePermission();
+        }
+        String operation = getOperation(request);
+        BitbucketApiStatistics.beginOperation(operation);
+        long start = System.nanoTime();
+        ClassicHttpResponse response = null;
+        try {
+            response = getClient().executeOpen(requestHost, request, context);
+            return response;
+        } finally {
+            long length = -1;
+            if (response != null && response.getEntity() != null) {
+                length = response.getEntity().getContentLength();
+            }
+            int statusCode = response != null ? response.getCode() : -1;
+            long elapsed = System.nanoTime() - start;
+            // an interrupted thread says nothing about the endpoint health
+            if (circuitBreaker != null && (response != null || !Thread.currentThread().isInterrupted())) {
+                circuitBreaker.record(statusCode);
+            }
+            BitbucketApiStatistics.recordCall(operation, statusCode, elapsed, length);
+            BitbucketMetrics.get().apiCall(requestHost.toHostString(), operation, statusCode, elapsed);
+        }
+    }
+
+    /**
+     * Returns the rate limiter shared by all clients of the same endpoint
+     * and credentials.
+     *
+     * @return the rate limiter
+     */
+    @NonNull
+    protected BitbucketRateLimiter getRateLimiter() {
+        if (rateLimiter == null) {
+            rateLimiter = BitbucketRateLimiter.get(getHost().toHostString(), authenticator != null ? authenticator.getId() : null);
+        }
+        return rateLimiter;
+    }
+
+    /**
+     * Returns the logical operation (branches, pullrequests, commit, browse,
+     * ...) of the given request, used to account API calls.
+     *
+     * @param request the HTTP request
+     * @return the operation name
+     */
+    @NonNull
+    protected String getOperation(@NonNull HttpUriRequest request) {
+        return BitbucketApiStatistics.operationOf(request.getPath());
     }
 
     private String doRequest(HttpUriRequest request) throws IOException {
@@ -291,7 +362,7 @@ public abstract class AbstractBitbucketApi implements AutoCloseable {
             String content = getResponseContent(response);
             throw buildResponseException(response, content);
         }
-        return new ClosingConnectionInputStream(response);
+        return new ClosingConnectionInputStream(response, httpget);
     }
 
     protected int headRequestStatus(String path) throws IOException {
@@ -307,7 +378,42 @@ public abstract class AbstractBitbucketApi implements AutoCloseable {
     protected String getRequest(String path) throws IOException {
         HttpGet request = new HttpGet(path);
         request.setAbsoluteRequestUri(true);
-        return doRequest(request);
+        // identical GET requests made concurrently by different threads share the same response
+        String key = BitbucketRateLimiter.currentPriority() + " " + getCredentialsIdentity() + " " + path;
+        return BitbucketRequestCoalescer.get().execute(key, () -> doRequest(request), () -> {
+            String operation = getOperation(request);
+            BitbucketApiStatistics.recordDeduplicated(operation);
+            BitbucketMetrics.get().apiCallDeduplicated(getHost().toHostString(), operation);
+        });
+    }
+
+    /**
+     * Returns the identity of the credentials of this client, to share the
+     * responses with the clients using the same secret only. Credentials ids
+     * are not unique across folders, the identity includes a digest of the
+     * secret that the authenticator sets on requests.
+     *
+     * @return the identity of the credentials, {@code anonymous} without
+     *         credentials
+     */
+    @NonNull
+    @Restricted(NoExternalUse.class)
+    public String getCredentialsIdentity() {
+        if (authenticator == null) {
+            return "anonymous";
+        }
+        HttpRequest probe = new BasicHttpRequest("GET", "/");
+        authenticator.configureRequest(probe);
+        Header[] headers = probe.getHeaders();
+        if (headers.length == 0) {
+            // the secret is not sent in headers (client certificate), do not share with other clients
+            return authenticator.getId() + "@" + System.identityHashCode(authenticator);
+        }
+        StringBuilder secret = new StringBuilder();
+        for (Header header : headers) {
+            secret.append(header.getName()).append(':').append(header.getValue()).append('\n');
+        }
+        return authenticator.getId() + "@" + DigestUtils.sha256Hex(secret.toString());
     }
 
     protected String postRequest(String path, List<? extends NameValuePair> params) throws IOException {
@@ -0,0 +1,370 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.client;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Collects the Bitbucket API calls made by the current thread, grouped by
+ * logical operation (branches, pullrequests, commit, browse, ...), together
+ * with the time spent in each phase of a scan.
+ * <p>
+ * A collector is bound to the thread that calls {@link #start()} until it is
+ * closed. Collectors can be nested, calls are accounted in all the active
+ * collectors of the thread. When no collector is active the record methods do
+ * nothing.
+ *
+ * @since 937.0.0
+ */
+@Restricted(NoExternalUse.class)
+public final class BitbucketApiStatistics implements AutoCloseable {
+
+    private static final ThreadLocal<BitbucketApiStatistics> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<String> CURRENT_OPERATION = new ThreadLocal<>();
+    private static final String OTHER = "other";
+
+    private final BitbucketApiStatistics parent;
+    private final Map<String, OperationStatistics> operations = new TreeMap<>();
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private final Map<String, Integer> cacheHits = new TreeMap<>();
+    private final Map<String, Integer> deduplicated = new TreeMap<>();
+    private boolean closed;
+
+    private BitbucketApiStatistics(@CheckForNull BitbucketApiStatistics parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Starts to collect statistics for the calling thread.
+     *
+     * @return the new collector, must be closed by the same thread.
+     */
+    @NonNull
+    public static BitbucketApiStatistics start() {
+        BitbucketApiStatistics statistics = new BitbucketApiStatistics(CURRENT.get());
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Records an API call for the given operation made by the current thread.
+     *
+     * @param operation the logical operation
+     * @param statusCode the HTTP status code or {@code -1} if no response was received
+     * @param nanos the time elapsed to obtain the response
+     * @param bytes the response length if known, {@code -1} otherwise
+     */
+    public static void recordCall(@NonNull String operation, int statusCode, long nanos, long bytes) {
+        CURRENT_OPERATION.set(operation);
+        for (BitbucketApiStatistics s = CURRENT.get(); s != null; s = s.parent) {
+            s.operation(operation).addCall(statusCode, nanos, Math.max(0, bytes));
+        }
+    }
+
+    /**
+     * Records response bytes read for the last operation of the current thread
+     * whose length was not known when the call was recorded.
+     *
+     * @param bytes the number of bytes read
+     */
+    public static void recordBytes(long bytes) {
+        String operation = currentOperation();
+        for (BitbucketApiStatistics s = CURRENT.get(); s != null; s = s.parent) {
+            s.operation(operation).bytes += bytes;
+        }
+    }
+
+    /**
+     * Records a retry of the operation that the current thread is executing.
+     */
+    public static void recordRetry() {
+        String operation = currentOperation();
+        for (BitbucketApiStatistics s = CURRENT.get(); s != null; s = s.parent) {
+            s.operation(operation).retries++;
+        }
+    }
+
+    /**
+     * Records a call of the current thread that has not been sent because an
+     * identical call was in flight.
+     *
+     * @param operation the logical operation
+     */
+    public static void recordDeduplicated(@NonNull String operation) {
+        for (BitbucketApiStatistics s = CURRENT.get(); s != null; s = s.parent) {
+            s.deduplicated.merge(operation, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Records a hit in the given cache made by the current thread.
+     *
+     * @param cache the name of the cache
+     */
+    public static void recordCacheHit(@NonNull String cache) {
+        for (BitbucketApiStatistics s = CURRENT.get(); s != null; s = s.parent) {
+            s.cacheHits.merge(cache, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Marks the logical operation that the current thread is going to execute.
+     * Retries happen inside the HTTP client and are accounted to this operation.
+     *
+     * @param operation the logical operation
+     */
+    public static void beginOperation(@NonNull String operation) {
+        CURRENT_OPERATION.set(operation);
+    }
+
+    @NonNull
+    private static String currentOperation() {
+        String operation = CURRENT_OPERATION.get();
+        return operation != null ? operation : OTHER;
+    }
+
+    /**
+     * Returns the logical operation of a Bitbucket REST API path. The
+     * operation is the first resource segment after the repository (for
+     * example {@code branches}, {@code pullrequests} or {@code commit}),
+     * followed by the sub resource when the path addresses one (for example
+     * {@code pullrequests/merge}).
+     *
+     * @param path the request path, query parameters are ignored
+     * @return the operation name
+     */
+    @NonNull
+    public static String operationOf(@CheckForNull String path) {
+        if (path == null) {
+            return OTHER;
+        }
+        int query = path.indexOf('?');
+        if (query != -1) {
+            path = path.substring(0, query);
+        }
+        String[] segments = Arrays.stream(path.split("/")).filter(s -> !s.isEmpty()).toArray(String[]::new);
+        int index = indexOf(segments, "repositories");
+        int resource = -1;
+        if (index != -1) {
+            // Cloud /2.0/repositories/{workspace}/{repo}/{resource}
+            if (segments.length <= index + 2) {
+                return "repositories";
+            }
+            resource = index + 3;
+        } else if ((index = indexOf(segments, "repos")) != -1) {
+            // Server /rest/api/1.0/projects/{project}/repos/{repo}/{resource}
+            if (indexOf(segments, "mirroring") != -1) {
+                return "mirrors";
+            }
+            if (segments.length <= index + 1) {
+                return "repositories";
+            }
+            resource = index + 2;
+        } else if (indexOf(segments, "mirroring") != -1) {
+            return "mirrors";
+        } else if (indexOf(segments, "workspaces") != -1 || indexOf(segments, "projects") != -1) {
+            return segments[segments.length - 1].startsWith("avatar") ? "avatar" : "team";
+        }
+        if (resource == -1) {
+            return OTHER;
+        }
+        if (segments.length <= resource) {
+            return "repository";
+        }
+
+        String name = segments[resource];
+        switch (name) {
+            case "refs":
+                // Cloud /refs/branches or /refs/tags
+                return segments.length > resource + 1 ? segments[resource + 1] : name;
+            case "pull-requests":
+                name = "pullrequests";
+                break;
+            case "browse", "src", "raw", "files":
+                return "browse";
+            case "hooks", "configurations":
+                return "webhooks";
+            case "commits":
+                if (segments.length == resource + 1) {
+                    return "commits";
+                }
+                name = "commit";
+                break;
+            default:
+                break;
+        }
+        if (segments.length > resource + 2) {
+            return name + "/" + segments[resource + 2];
+        }
+        return name;
+    }
+
+    private static int indexOf(String[] segments, String segment) {
+        for (int i = 0; i < segments.length; i++) {
+            if (segment.equals(segments[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Records the time spent in a scan phase.
+     *
+     * @param phase the phase name
+     * @param nanos the elapsed time
+     */
+    public void recordPhase(@NonNull String phase, long nanos) {
+        phases.merge(phase, nanos, Long::sum);
+    }
+
+    /**
+     * Returns the total number of API calls recorded.
+     *
+     * @return the number of calls
+     */
+    public int getCalls() {
+        return operations.values().stream().mapToInt(o -> o.calls).sum();
+    }
+
+    @NonNull
+    private OperationStatistics operation(@NonNull String operation) {
+        return operations.computeIfAbsent(operation, k -> new OperationStatistics());
+    }
+
+    /**
+     * Prints a summary table of the collected statistics.
+     *
+     * @param logger where to print the summary
+     */
+    public void printSummary(@NonNull PrintStream logger) {
+        if (operations.isEmpty() && phases.isEmpty() && deduplicated.isEmpty()) {
+            return;
+        }
+        logger.println();
+        logger.println("Bitbucket API calls summary:");
+        logger.format("  %-24s %7s %7s %12s %10s %8s %8s%n", "operation", "calls", "errors", "bytes", "total ms", "p95 ms", "retries");
+        int calls = 0;
+        long bytes = 0;
+        long nanos = 0;
+        for (Map.Entry<String, OperationStatistics> entry : operations.entrySet()) {
+            OperationStatistics op = entry.getValue();
+            logger.format("  %-24s %7d %7d %12d %10d %8d %8d%n", entry.getKey(), op.calls, op.errors, op.bytes,
+                    toMillis(op.totalNanos()), toMillis(op.percentile(95)), op.retries);
+            calls += op.calls;
+            bytes += op.bytes;
+            nanos += op.totalNanos();
+        }
+        logger.format("  %-24s %7d %7s %12d %10d%n", "total", calls, "", bytes, toMillis(nanos));
+        if (!cacheHits.isEmpty()) {
+            StringBuilder hits = new StringBuilder("  cache hits:");
+            cacheHits.forEach((cache, count) -> hits.append(' ').append(cache).append('=').append(count));
+            logger.println(hits);
+        }
+        if (!deduplicated.isEmpty()) {
+            StringBuilder shared = new StringBuilder("  deduplicated:");
+            deduplicated.forEach((operation, count) -> shared.append(' ').append(operation).append('=').append(count));
+            logger.println(shared);
+        }
+        if (!phases.isEmpty()) {
+            StringBuilder timing = new StringBuilder("  phases:");
+            phases.forEach((phase, time) -> timing.append(' ').append(phase).append('=').append(toMillis(time)).append("ms"));
+            logger.println(timing);
+        }
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * Unbinds this collector from the current thread.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            if (CURRENT.get() == this) {
+                if (parent != null) {
+                    CURRENT.set(parent);
+                } else {
+                    CURRENT.remove();
+                    CURRENT_OPERATION.remove();
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ENGLISH, "BitbucketApiStatistics[calls=%d, operations=%s]", getCalls(), operations.keySet());
+    }
+
+    private static final class OperationStatistics {
+        private int calls;
+        private int errors;
+        private int retries;
+        private long bytes;
+        private long[] latencies = new long[16];
+
+        void addCall(int statusCode, long nanos, long length) {
+            if (calls == latencies.length) {
+                latencies = Arrays.copyOf(latencies, calls * 2);
+            }
+            latencies[calls++] = nanos;
+            bytes += length;
+            if (statusCode < 200 || statusCode >= 400) {
+                errors++;
+            }
+        }
+
+        long totalNanos() {
+            long total = 0;
+            for (int i = 0; i < calls; i++) {
+                total += latencies[i];
+            }
+            return total;
+        }
+
+        long percentile(int percentile) {
+            if (calls == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, calls);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100d * calls) - 1;
+            return sorted[Math.max(0, index)];
+        }
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.client;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.util.SystemProperties;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpStatus;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Stops sending requests to a Bitbucket endpoint that does not respond.
+ * <p>
+ * The outcome of the last calls is kept in a sliding window. When the
+ * failure rate in the window exceeds the threshold the circuit opens and
+ * requests fail immediately, instead of waiting for connection and socket
+ * timeouts. Once the open duration is elapsed a single probe request is let
+ * through (half open state), its outcome closes or opens again the circuit.
+ * <p>
+ * Only the outages of the server are failures: I/O errors and HTTP 502, 503
+ * or 504 responses. Any other response, even an error, proves that the
+ * server is alive.
+ *
+ * @since 937.0.0
+ */
+@Restricted(NoExternalUse.class)
+public final class BitbucketCircuitBreaker {
+
+    /**
+     * The state of the circuit.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(BitbucketCircuitBreaker.class.getName());
+
+    private static final String PROPERTY_PREFIX = BitbucketCircuitBreaker.class.getName();
+    private static final boolean ENABLED = SystemProperties.getBoolean(PROPERTY_PREFIX + ".enabled", true);
+    private static final int WINDOW_SIZE = SystemProperties.getInteger(PROPERTY_PREFIX + ".windowSize", 20);
+    private static final int FAILURE_RATE_THRESHOLD = SystemProperties.getInteger(PROPERTY_PREFIX + ".failureRateThreshold", 50);
+    private static final int OPEN_DURATION_SECONDS = SystemProperties.getInteger(PROPERTY_PREFIX + ".openDuration", 30);
+
+    private static final Map<String, BitbucketCircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    private final String host;
+    private final int windowSize;
+    private final int failureRateThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier clock;
+
+    private final boolean[] outcomes;
+    private int calls;
+    private int failures;
+    private int next;
+    private volatile State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInFlight;
+    private long probeStartedAt;
+
+    /* For test purpose */
+    BitbucketCircuitBreaker(@NonNull String host, int windowSize, int failureRateThreshold, long openDuration,
+                            @NonNull TimeUnit unit, @NonNull LongSupplier clock) {
+        this.host = host;
+        this.windowSize = Math.max(1, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = unit.toNanos(openDuration);
+        this.clock = clock;
+        this.outcomes = new boolean[this.windowSize];
+    }
+
+    /**
+     * Returns the circuit breaker of the given endpoint host.
+     *
+     * @param host the endpoint host
+     * @return the shared circuit breaker
+     */
+    @NonNull
+    public static BitbucketCircuitBreaker get(@NonNull HttpHost host) {
+        return BREAKERS.computeIfAbsent(keyOf(host), key -> new BitbucketCircuitBreaker(key,
+                WINDOW_SIZE, FAILURE_RATE_THRESHOLD, OPEN_DURATION_SECONDS, TimeUnit.SECONDS, System::nanoTime));
+    }
+
+    /**
+     * Returns the circuit breaker of the given host if it is a Bitbucket
+     * endpoint that has already been called.
+     *
+     * @param host the host
+     * @return the circuit breaker or {@code null}
+     */
+    @CheckForNull
+    static BitbucketCircuitBreaker lookup(@NonNull HttpHost host) {
+        return BREAKERS.get(keyOf(host));
+    }
+
+    /*
+     * The HTTP client routes have an explicit port, the endpoint hosts may not.
+     */
+    @NonNull
+    private static String keyOf(@NonNull HttpHost host) {
+        int port = host.getPort();
+        if (port < 0) {
+            port = "https".equalsIgnoreCase(host.getSchemeName()) ? 443 : 80;
+        }
+        return host.getHostName() + ":" + port;
+    }
+
+    /**
+     * Checks that a request can be sent.
+     *
+     * @throws CircuitOpenException if the circuit is open
+     */
+    public void acquirePermission() throws CircuitOpenException {
+        if (!ENABLED || state == State.CLOSED) {
+            return;
+        }
+        doAcquirePermission();
+    }
+
+    private synchronized void doAcquirePermission() throws CircuitOpenException {
+        if (state == State.CLOSED) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (state == State.OPEN && now - openedAt >= openDurationNanos) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        // a probe that never completes (thread interrupted) must not keep the circuit half open
+        if (state == State.HALF_OPEN && (!probeInFlight || now - probeStartedAt >= openDurationNanos)) {
+            probeInFlight = true;
+            probeStartedAt = now;
+            return;
+        }
+        long retryIn = Math.max(0, openDurationNanos - (now - openedAt));
+        throw new CircuitOpenException("Bitbucket endpoint " + host + " is not available, requests are suspended for "
+                + TimeUnit.NANOSECONDS.toSeconds(retryIn) + " seconds");
+    }
+
+    /**
+     * Records the outcome of a request.
+     *
+     * @param statusCode the HTTP status code or {@code -1} if no response was received
+     */
+    public synchronized void record(int statusCode) {
+        boolean failure = isFailure(statusCode);
+        switch (state) {
+            case HALF_OPEN:
+                probeInFlight = false;
+                if (failure) {
+                    open();
+                } else {
+                    LOGGER.log(Level.INFO, "Bitbucket endpoint {0} is available again", host);
+                    reset();
+                }
+                break;
+            case OPEN:
+                // a request sent before the circuit was opened
+                break;
+            default:
+                if (calls == windowSize && outcomes[next]) {
+                    failures--;
+                }
+                outcomes[next] = failure;
+                next = (next + 1) % windowSize;
+                calls = Math.min(calls + 1, windowSize);
+                if (failure) {
+                    failures++;
+                }
+                // do not wait for a full window when the endpoint is down since a while
+                if (calls >= Math.max(1, windowSize / 2) && failures * 100 >= failureRateThreshold * calls) {
+                    LOGGER.log(Level.WARNING, "Bitbucket endpoint {0} failed {1} of the last {2} requests, requests are suspended for {3} seconds",
+                            new Object[] {host, failures, calls, TimeUnit.NANOSECONDS.toSeconds(openDurationNanos)});
+                    open();
+                }
+                break;
+        }
+    }
+
+    /**
+     * Records a failed attempt that the HTTP client would retry, so that the
+     * retries with back off of an endpoint that is down count in the window.
+     *
+     * @param statusCode the HTTP status code or {@code -1} if no response was received
+     * @return {@code false} if the circuit is now open and the request must not be retried
+     */
+    public boolean recordRetry(int statusCode) {
+        record(statusCode);
+        return !ENABLED || getState() == State.CLOSED;
+    }
+
+    /**
+     * Tells if the outcome of a request shows an outage of the server.
+     *
+     * @param statusCode the HTTP status code or {@code -1} if no response was received
+     * @return {@code true} for I/O errors and HTTP 502, 503 or 504
+     */
+    public static boolean isFailure(int statusCode) {
+        return statusCode < 0
+                || statusCode == HttpStatus.SC_BAD_GATEWAY
+                || statusCode == HttpStatus.SC_SERVICE_UNAVAILABLE
+                || statusCode == HttpStatus.SC_GATEWAY_TIMEOUT;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        calls = 0;
+        failures = 0;
+        next = 0;
+    }
+
+    /**
+     * Returns the current state of the circuit.
+     *
+     * @return the state
+     */
+    @NonNull
+    public synchronized State getState() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openDurationNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * Returns a description of the circuit state for humans.
+     *
+     * @return the description
+     */
+    @NonNull
+    public synchronized String getStatus() {
+        switch (getState()) {
+            case OPEN:
+                long retryIn = openDurationNanos - (clock.getAsLong() - openedAt);
+                return "Unavailable, requests are suspended for " + TimeUnit.NANOSECONDS.toSeconds(retryIn) + " seconds";
+            case HALF_OPEN:
+                return "Unavailable, probing if the endpoint is back";
+            default:
+                return "Available, " + failures + " failures in the last " + calls + " requests";
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BitbucketCircuitBreaker[" + host + ", " + getState() + "]";
+    }
+
+    /**
+     * Thrown when a request is not sent because the circuit is open.
+     */
+    public static class CircuitOpenException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public CircuitOpenException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.client;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.util.SystemProperties;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Client side token bucket that limits the rate of requests sent to a
+ * Bitbucket endpoint with some credentials.
+ * <p>
+ * The limiter does nothing until the server signals that we are close to or
+ * over its rate limit, with the {@code X-RateLimit-*} headers (Bitbucket
+ * Cloud) or with an HTTP 429 response (Bitbucket Cloud and Data Center).
+ * From then on requests are throttled. The rate halves on each rejected
+ * request and slowly grows back while the server accepts requests, until
+ * the limiter is disabled again.
+ * <p>
+ * While throttled, part of the bucket is reserved to the calls with an
+ * higher {@link Priority}, so that background scans are delayed first and
+ * interactive and webhook-driven calls keep going.
+ *
+ * @since 937.0.0
+ */
+@Restricted(NoExternalUse.class)
+public final class BitbucketRateLimiter {
+
+    /**
+     * The priority of the calls made by a thread.
+     */
+    public enum Priority {
+        /**
+         * A user is waiting for the answer (form validation, build status, ...).
+         */
+        INTERACTIVE(0),
+        /**
+         * Triggered by a webhook event.
+         */
+        EVENT(0.2),
+        /**
+         * Branch indexing or organisation scan.
+         */
+        BACKGROUND(0.5);
+
+        /**
+         * The fraction of the bucket that can not be used by calls of this priority.
+         */
+        private final double reserve;
+
+        Priority(double reserve) {
+            this.reserve = reserve;
+        }
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(BitbucketRateLimiter.class.getName());
+
+    private static final boolean ENABLED = SystemProperties.getBoolean(BitbucketRateLimiter.class.getName() + ".enabled", true);
+    /** Requests per second when the server first rejects a request. */
+    private static final double INITIAL_RATE = 5;
+    private static final double MIN_RATE = 0.1;
+    /** Above this rate the limiter is disabled. */
+    private static final double MAX_RATE = 50;
+    private static final double INCREASE_FACTOR = 1.02;
+    private static final long BURST_SECONDS = 10;
+    private static final long MAX_PAUSE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private static final Map<String, BitbucketRateLimiter> LIMITERS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Priority> PRIORITY = new ThreadLocal<>();
+
+    private final String key;
+    private volatile boolean limited;
+    private double rate;
+    private double tokens;
+    private long lastRefill;
+    private long pausedUntil;
+
+    private BitbucketRateLimiter(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Returns the limiter of the given endpoint and credentials.
+     *
+     * @param host the endpoint host
+     * @param credentialsId the credentials identifier, {@code null} for anonymous calls
+     * @return the shared limiter
+     */
+    @NonNull
+    public static BitbucketRateLimiter get(@NonNull String host, @CheckForNull String credentialsId) {
+        String key = host + "::" + (credentialsId != null ? credentialsId : "anonymous");
+        return LIMITERS.computeIfAbsent(key, BitbucketRateLimiter::new);
+    }
+
+    /**
+     * Sets the priority of the calls made by the current thread until the
+     * returned scope is closed.
+     *
+     * @param priority the calls priority
+     * @return the scope to close to restore the previous priority
+     */
+    @NonNull
+    public static PriorityScope withPriority(@NonNull Priority priority) {
+        Priority previous = PRIORITY.get();
+        PRIORITY.set(priority);
+        return new PriorityScope(previous);
+    }
+
+    @NonNull
+    static Priority currentPriority() {
+        Priority priority = PRIORITY.get();
+        return priority != null ? priority : Priority.INTERACTIVE;
+    }
+
+    /**
+     * Returns if requests are currently throttled.
+     *
+     * @return {@code true} if the limiter is active
+     */
+    public boolean isLimited() {
+        return limited;
+    }
+
+    /**
+     * Waits until the current thread is allowed to send a request.
+     *
+     * @throws InterruptedIOException if the thread is interrupted while waiting
+     */
+    public void acquire() throws InterruptedIOException {
+        if (!limited) {
+            return;
+        }
+        Priority priority = currentPriority();
+        try {
+            long waitNanos;
+            while ((waitNanos = tryAcquire(priority, System.nanoTime())) > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for Bitbucket rate limit");
+        }
+    }
+
+    /**
+     * Takes a permit if available.
+     *
+     * @return {@code 0} if a permit was taken, the time to wait otherwise
+     */
+    synchronized long tryAcquire(@NonNull Priority priority, long now) {
+        if (!limited) {
+            return 0;
+        }
+        if (now - pausedUntil < 0) {
+            return pausedUntil - now;
+        }
+        refill(now);
+        double required = 1 + priority.reserve * (capacity() - 1);
+        if (tokens >= required) {
+            tokens--;
+            return 0;
+        }
+        return Math.max(1, (long) ((required - tokens) / rate * TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    /**
+     * Adjusts the rate according to the response received from the server.
+     *
+     * @param response the server response
+     */
+    public void update(@NonNull HttpResponse response) {
+        update(response, System.nanoTime());
+    }
+
+    synchronized void update(@NonNull HttpResponse response, long now) {
+        if (!ENABLED) {
+            return;
+        }
+        if (response.getCode() == HttpStatus.SC_TOO_MANY_REQUESTS) {
+            double newRate = limited ? Math.max(MIN_RATE, rate / 2) : INITIAL_RATE;
+            limit(newRate, now);
+            long retryAfter = retryAfterNanos(response);
+            if (retryAfter > 0) {
+                pausedUntil = now + Math.min(retryAfter, MAX_PAUSE_NANOS);
+            }
+            // the bucket starts to fill again once the pause is over
+            tokens = 0;
+            lastRefill = Math.max(now, pausedUntil);
+            LOGGER.log(Level.FINE, "Rate limit exceeded for {0}, throttled to {1} requests per second", new Object[] {key, rate});
+            return;
+        }
+
+        Long remaining = longHeader(response, "X-RateLimit-Remaining");
+        Long reset = longHeader(response, "X-RateLimit-Reset");
+        Long limit = longHeader(response, "X-RateLimit-Limit");
+        Header nearLimit = response.getFirstHeader("X-RateLimit-NearLimit");
+        if (remaining != null && reset != null) {
+            // spread the remaining requests until the window resets
+            long seconds = Math.max(1, reset - TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+            if (seconds > TimeUnit.DAYS.toSeconds(1)) {
+                // not an epoch, number of seconds
+                seconds = Math.max(1, reset);
+            }
+            double target = (double) remaining / seconds;
+            if (target < MAX_RATE) {
+                limit(Math.max(MIN_RATE, target), now);
+                return;
+            }
+        } else if (nearLimit != null && Boolean.parseBoolean(nearLimit.getValue()) && limit != null) {
+            // limit is expressed in requests per hour
+            double target = (double) limit / TimeUnit.HOURS.toSeconds(1);
+            if (!limited || target < rate) {
+                limit(Math.max(MIN_RATE, target), now);
+            }
+            return;
+        }
+
+        if (limited && response.getCode() < HttpStatus.SC_BAD_REQUEST) {
+            rate *= INCREASE_FACTOR;
+            if (rate > MAX_RATE) {
+                LOGGER.log(Level.FINE, "Rate limit no more throttled for {0}", key);
+                limited = false;
+            }
+        }
+    }
+
+    private void limit(double newRate, long now) {
+        if (!limited) {
+            tokens = newRate * BURST_SECONDS;
+            lastRefill = now;
+            pausedUntil = now;
+        } else {
+            refill(now);
+        }
+        rate = newRate;
+        tokens = Math.min(tokens, capacity());
+        limited = true;
+    }
+
+    private double capacity() {
+        return Math.max(1, rate * BURST_SECONDS);
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefill;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity(), tokens + rate * elapsed / TimeUnit.SECONDS.toNanos(1));
+            lastRefill = now;
+        }
+    }
+
+    private static long retryAfterNanos(HttpResponse response) {
+        Long seconds = longHeader(response, HttpHeaders.RETRY_AFTER);
+        return seconds != null ? TimeUnit.SECONDS.toNanos(seconds) : 0;
+    }
+
+    @CheckForNull
+    private static Long longHeader(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        if (header != null) {
+            try {
+                return Long.parseLong(header.getValue().trim());
+            } catch (NumberFormatException e) {
+                // ignore malformed values
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "BitbucketRateLimiter[" + key + (limited ? ", " + rate + " req/s" : ", not limited") + "]";
+    }
+
+    /**
+     * Restores the previous priority of the thread when closed.
+     */
+    public static final class PriorityScope implements AutoCloseable {
+        private final Priority previous;
+
+        private PriorityScope(@CheckForNull Priority previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous != null) {
+                PRIORITY.set(previous);
+            } else {
+                PRIORITY.remove();
+            }
+        }
+    }
+}
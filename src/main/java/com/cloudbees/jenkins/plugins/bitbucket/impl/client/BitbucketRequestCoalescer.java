@@ -0,0 +1,178 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.client;
+
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketRequestException;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import jenkins.util.SystemProperties;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Shares the result of a GET request with all the threads that ask for the
+ * same resource with the same credentials while the request is in flight.
+ * <p>
+ * Only the first caller sends the request, the others wait for its response
+ * content, or its failure, instead of sending an identical request. Nothing
+ * is kept once the request completes, this is not a cache. The callers that
+ * wait get their own copy of a failure, and send the request themselves if
+ * the first caller was interrupted.
+ *
+ * @since 937.0.0
+ */
+@Restricted(NoExternalUse.class)
+public final class BitbucketRequestCoalescer {
+
+    private static final boolean ENABLED = SystemProperties.getBoolean(BitbucketRequestCoalescer.class.getName() + ".enabled", true);
+
+    private static final BitbucketRequestCoalescer INSTANCE = new BitbucketRequestCoalescer();
+
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong deduplicated = new AtomicLong();
+
+    /* For test purpose */
+    BitbucketRequestCoalescer() {
+    }
+
+    @NonNull
+    public static BitbucketRequestCoalescer get() {
+        return INSTANCE;
+    }
+
+    /**
+     * A request that returns the response content.
+     */
+    @FunctionalInterface
+    public interface Request {
+        String execute() throws IOException;
+    }
+
+    /**
+     * Executes the given request unless an identical one is already in
+     * flight, in which case waits for its outcome.
+     *
+     * @param key identifies the request, must include the URL, the secret of
+     *        the credentials and the priority of the caller
+     * @param request the request to execute
+     * @param onDeduplicated called when the request is not sent because an
+     *        identical one is in flight
+     * @return the response content
+     * @throws IOException if the request failed
+     */
+    public String execute(@NonNull String key, @NonNull Request request, @NonNull Runnable onDeduplicated) throws IOException {
+        if (!ENABLED) {
+            return request.execute();
+        }
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<String> leader;
+        while ((leader = inFlight.putIfAbsent(key, future)) != null) {
+            String content = await(leader, onDeduplicated);
+            if (content != null) {
+                return content;
+            }
+            // the first caller was interrupted, not this one
+            inFlight.remove(key, leader);
+        }
+        try {
+            String content = request.execute();
+            future.complete(content);
+            return content;
+        } catch (IOException | RuntimeException | Error e) {
+            // the callers that wait were not interrupted, they send the request again
+            future.completeExceptionally(Thread.currentThread().isInterrupted() ? new LeaderInterruptedException(e) : e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /*
+     * Returns null when the request must be sent again.
+     */
+    @CheckForNull
+    private String await(CompletableFuture<String> leader, Runnable onDeduplicated) throws IOException {
+        String content;
+        try {
+            content = leader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an identical request");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof LeaderInterruptedException) {
+                return null;
+            }
+            deduplicated.incrementAndGet();
+            onDeduplicated.run();
+            throw copyOf(cause);
+        }
+        deduplicated.incrementAndGet();
+        onDeduplicated.run();
+        return content;
+    }
+
+    /*
+     * The exception of the first caller is not thrown again from other
+     * threads, its stack trace and suppressed exceptions belong to it.
+     */
+    @NonNull
+    private static IOException copyOf(@NonNull Throwable cause) {
+        if (cause instanceof FileNotFoundException) {
+            FileNotFoundException copy = new FileNotFoundException(cause.getMessage());
+            copy.initCause(cause);
+            return copy;
+        }
+        if (cause instanceof BitbucketRequestException e) {
+            return new BitbucketRequestException(e.getHttpCode(), e.getMessage(), e);
+        }
+        return new IOException(cause.getMessage(), cause);
+    }
+
+    private static final class LeaderInterruptedException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        LeaderInterruptedException(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * Returns how many requests have not been sent because an identical
+     * request was in flight.
+     *
+     * @return the number of deduplicated requests
+     */
+    public long getDeduplicated() {
+        return deduplicated.get();
+    }
+}
@@ -23,6 +23,8 @@
  */
 package com.cloudbees.jenkins.plugins.bitbucket.impl.client;
 
+import com.cloudbees.jenkins.plugins.bitbucket.impl.metrics.BitbucketMetrics;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.net.ConnectException;
@@ -33,6 +35,8 @@ import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import javax.net.ssl.SSLException;
 import org.apache.hc.client5.http.impl.DefaultHttpRequestRetryStrategy;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.client5.http.routing.RouteInfo;
 import org.apache.hc.client5.http.utils.DateUtils;
 import org.apache.hc.core5.annotation.Contract;
 import org.apache.hc.core5.annotation.ThreadingBehavior;
@@ -40,6 +44,7 @@ import org.apache.hc.core5.concurrent.CancellableDependency;
 import org.apache.hc.core5.http.ConnectionClosedException;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.http.HttpRequest;
 import org.apache.hc.core5.http.HttpResponse;
 import org.apache.hc.core5.http.HttpStatus;
@@ -121,9 +126,48 @@ public class ExponentialBackoffRetryStrategy extends DefaultHttpRequestRetryStra
     @Override
     public boolean retryRequest(HttpResponse response, int executionCount, HttpContext context) {
         int statusCode = response.getCode();
-        return getRetryInterval(executionCount) < maxExpiryInMillis
+        if (statusCode == HttpStatus.SC_TOO_MANY_REQUESTS) {
+            BitbucketMetrics.get().apiRateLimited(endpointOf(context));
+        }
+        boolean retry = getRetryInterval(executionCount) < maxExpiryInMillis
                 && (statusCode == HttpStatus.SC_TOO_MANY_REQUESTS
-                || statusCode == HttpStatus.SC_SERVICE_UNAVAILABLE);
+                || statusCode == HttpStatus.SC_SERVICE_UNAVAILABLE)
+                && isCircuitClosed(statusCode, context);
+        if (retry) {
+            BitbucketApiStatistics.recordRetry();
+            BitbucketMetrics.get().apiRetry(endpointOf(context));
+        }
+        return retry;
+    }
+
+    private static String endpointOf(HttpContext context) {
+        HttpHost host = targetOf(context);
+        return host != null ? host.toHostString() : "unknown";
+    }
+
+    @CheckForNull
+    private static HttpHost targetOf(HttpContext context) {
+        if (context instanceof HttpClientContext clientContext) {
+            RouteInfo route = clientContext.getHttpRoute();
+            if (route != null) {
+                return route.getTargetHost();
+            }
+        }
+        return null;
+    }
+
+    /*
+     * The failed attempts are recorded when they are retried, otherwise the
+     * circuit breaker would see a single failure once all retries are done,
+     * up to an hour later. The last attempt is recorded by the caller.
+     */
+    private static boolean isCircuitClosed(int statusCode, HttpContext context) {
+        if (!BitbucketCircuitBreaker.isFailure(statusCode)) {
+            return true;
+        }
+        HttpHost host = targetOf(context);
+        BitbucketCircuitBreaker circuitBreaker = host != null ? BitbucketCircuitBreaker.lookup(host) : null;
+        return circuitBreaker == null || circuitBreaker.recordRetry(statusCode);
     }
 
     private long getRetryInterval(int failedAttempts) {
@@ -151,7 +195,12 @@ public class ExponentialBackoffRetryStrategy extends DefaultHttpRequestRetryStra
         }
 
         // Retry if the request is considered idempotent
-        return handleAsIdempotent(request);
+        boolean retry = handleAsIdempotent(request) && isCircuitClosed(-1, context);
+        if (retry) {
+            BitbucketApiStatistics.recordRetry();
+            BitbucketMetrics.get().apiRetry(endpointOf(context));
+        }
+        return retry;
     }
 
     @Override
@@ -26,7 +26,6 @@ package com.cloudbees.jenkins.plugins.bitbucket.impl.credentials;
 
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketException;
-import com.cloudbees.jenkins.plugins.bitbucket.client.Cache;
 import com.cloudbees.plugins.credentials.CredentialsScope;
 import com.cloudbees.plugins.credentials.common.StandardUsernameCredentials;
 import com.cloudbees.plugins.credentials.common.StandardUsernamePasswordCredentials;
@@ -49,7 +48,11 @@ import org.apache.hc.core5.http.HttpRequest;
 
 public class BitbucketOAuthAuthenticator implements BitbucketAuthenticator {
     private static final String OAUTH2_CACHE_TIMEOUT_PROPERTY_NAME = "bitbucket.oauth2.cache.timeout";
-    private static final Cache<String, OAuth2AccessToken> cacheToken = new Cache<>(SystemProperties.getInteger(OAUTH2_CACHE_TIMEOUT_PROPERTY_NAME, 300), TimeUnit.SECONDS);
+    private static final String OAUTH2_REFRESH_MARGIN_PROPERTY_NAME = "bitbucket.oauth2.refresh.margin";
+    private static final OAuth2TokenManager tokenManager = new OAuth2TokenManager(
+            SystemProperties.getInteger(OAUTH2_CACHE_TIMEOUT_PROPERTY_NAME, 300),
+            SystemProperties.getInteger(OAUTH2_REFRESH_MARGIN_PROPERTY_NAME, 60),
+            TimeUnit.SECONDS);
 
     private final String credentialsId;
     private final String username;
@@ -70,7 +73,7 @@ public class BitbucketOAuthAuthenticator implements BitbucketAuthenticator {
         try {
             String plainSecret = Secret.toString(password);
             String cacheKey = DigestUtils.md2Hex(StringUtils.join(new String[] { credentialsId, username, plainSecret }, '/'));
-            return cacheToken.get(cacheKey, () -> {
+            return tokenManager.getToken(cacheKey, () -> {
                 try (SetContextClassLoader cl = new SetContextClassLoader(this.getClass());
                     OAuth20Service service = new ServiceBuilder(username)
                         .apiSecret(plainSecret)
@@ -0,0 +1,184 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.credentials;
+
+import com.cloudbees.jenkins.plugins.bitbucket.impl.metrics.BitbucketMetrics;
+import com.github.scribejava.core.model.OAuth2AccessToken;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the OAuth2 access tokens obtained for each set of client credentials.
+ * <p>
+ * Tokens are kept for the lifetime returned by the authorisation server in
+ * {@code expires_in}. Once a token enters the refresh window before its
+ * expiry, the next caller triggers a refresh in background and keeps using
+ * the current token, that is always served without locking. Only the first
+ * request for some credentials, or a request done after the token has
+ * expired, waits for the token endpoint.
+ */
+final class OAuth2TokenManager {
+    private static final Logger LOGGER = Logger.getLogger(OAuth2TokenManager.class.getName());
+
+    private static final long RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final Map<String, TokenEntry> entries = new ConcurrentHashMap<>();
+    private final long defaultLifetimeNanos;
+    private final long refreshMarginNanos;
+    private final Executor executor;
+    private final LongSupplier clock;
+
+    /**
+     * Constructor.
+     *
+     * @param defaultLifetime the lifetime of tokens returned without {@code expires_in}
+     * @param refreshMargin how long before the expiry the token is refreshed
+     * @param unit the unit of the given durations
+     */
+    OAuth2TokenManager(long defaultLifetime, long refreshMargin, @NonNull TimeUnit unit) {
+        this(defaultLifetime, refreshMargin, unit,
+                Executors.newCachedThreadPool(new NamingThreadFactory(new DaemonThreadFactory(), OAuth2TokenManager.class.getName())),
+                System::nanoTime);
+    }
+
+    /* For test purpose */
+    OAuth2TokenManager(long defaultLifetime, long refreshMargin, @NonNull TimeUnit unit,
+                       @NonNull Executor executor, @NonNull LongSupplier clock) {
+        this.defaultLifetimeNanos = unit.toNanos(defaultLifetime);
+        this.refreshMarginNanos = unit.toNanos(refreshMargin);
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns a valid access token for the given key, requesting a new one
+     * with the given fetcher only if there is not any valid token.
+     *
+     * @param key identifies the client credentials
+     * @param fetcher requests a new token to the authorisation server
+     * @return the access token
+     * @throws ExecutionException if a new token was required and the fetcher has failed
+     */
+    @NonNull
+    OAuth2AccessToken getToken(@NonNull String key, @NonNull Callable<OAuth2AccessToken> fetcher) throws ExecutionException {
+        TokenEntry entry = entries.computeIfAbsent(key, k -> new TokenEntry());
+        Token token = entry.token;
+        long now = clock.getAsLong();
+        if (token != null && !token.isExpired(now)) {
+            if (token.isRefreshDue(now) && entry.refreshing.compareAndSet(false, true)) {
+                try {
+                    executor.execute(() -> refresh(entry, fetcher));
+                } catch (RejectedExecutionException e) {
+                    entry.refreshing.set(false);
+                }
+            }
+            return token.value;
+        }
+
+        synchronized (entry) {
+            now = clock.getAsLong();
+            token = entry.token;
+            if (token == null || token.isExpired(now)) {
+                // forget tokens of credentials no more in use
+                long time = now;
+                entries.values().removeIf(e -> e != entry && e.token != null && e.token.isExpired(time));
+                token = fetch(fetcher);
+                entry.token = token;
+            }
+            return token.value;
+        }
+    }
+
+    private void refresh(@NonNull TokenEntry entry, @NonNull Callable<OAuth2AccessToken> fetcher) {
+        try {
+            entry.token = fetch(fetcher);
+        } catch (ExecutionException e) {
+            LOGGER.log(Level.WARNING, "Failed to refresh the OAuth2 access token, the current one is used until it expires", e);
+            Token current = entry.token;
+            if (current != null) {
+                // retry later instead of at next request
+                entry.token = new Token(current.value, clock.getAsLong() + RETRY_DELAY_NANOS, current.expireAt);
+            }
+        } finally {
+            entry.refreshing.set(false);
+        }
+    }
+
+    @NonNull
+    private Token fetch(@NonNull Callable<OAuth2AccessToken> fetcher) throws ExecutionException {
+        long start = clock.getAsLong();
+        boolean success = false;
+        try {
+            OAuth2AccessToken value = fetcher.call();
+            success = true;
+            Integer expiresIn = value.getExpiresIn();
+            long lifetime = expiresIn != null && expiresIn > 0 ? TimeUnit.SECONDS.toNanos(expiresIn) : defaultLifetimeNanos;
+            long margin = Math.min(refreshMarginNanos, lifetime / 2);
+            // the lifetime starts when the token was requested
+            return new Token(value, start + lifetime - margin, start + lifetime);
+        } catch (Exception e) {
+            throw new ExecutionException("Cannot obtain an OAuth2 access token", e);
+        } finally {
+            BitbucketMetrics.get().oauthTokenRefresh(clock.getAsLong() - start, success);
+        }
+    }
+
+    private static final class TokenEntry {
+        private volatile Token token;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+    }
+
+    private static final class Token {
+        private final OAuth2AccessToken value;
+        private final long refreshAt;
+        private final long expireAt;
+
+        Token(OAuth2AccessToken value, long refreshAt, long expireAt) {
+            this.value = value;
+            this.refreshAt = refreshAt;
+            this.expireAt = expireAt;
+        }
+
+        boolean isRefreshDue(long now) {
+            return now - refreshAt >= 0;
+        }
+
+        boolean isExpired(long now) {
+            return now - expireAt >= 0;
+        }
+    }
+}
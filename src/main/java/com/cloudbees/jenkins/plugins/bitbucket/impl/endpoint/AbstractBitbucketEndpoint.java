@@ -26,6 +26,8 @@ package com.cloudbees.jenkins.plugins.bitbucket.impl.endpoint;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
 import com.cloudbees.jenkins.plugins.bitbucket.api.endpoint.BitbucketEndpoint;
 import com.cloudbees.jenkins.plugins.bitbucket.api.endpoint.BitbucketEndpointDescriptor;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.client.BitbucketCircuitBreaker;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketApiUtils;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketCredentialsUtils;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.URLUtils;
 import com.cloudbees.plugins.credentials.common.StandardCredentials;
@@ -36,8 +38,11 @@ import hudson.Util;
 import jenkins.authentication.tokens.api.AuthenticationTokens;
 import jenkins.model.Jenkins;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.hc.core5.http.HttpHost;
 import org.jenkinsci.plugins.displayurlapi.DisplayURLProvider;
 import org.jenkinsci.plugins.plaincredentials.StringCredentials;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 import org.kohsuke.stapler.DataBoundSetter;
 
 import static hudson.Util.fixEmptyAndTrim;
@@ -265,6 +270,28 @@ public abstract class AbstractBitbucketEndpoint implements BitbucketEndpoint {
         return AuthenticationTokens.convert(BitbucketAuthenticator.authenticationContext(getServerURL()), credentials());
     }
 
+    /**
+     * Returns the host that serves the REST API of this endpoint.
+     *
+     * @return the API host
+     */
+    @NonNull
+    protected HttpHost getApiHost() {
+        return BitbucketApiUtils.toHttpHost(getServerURL());
+    }
+
+    /**
+     * Returns the availability of the REST API as seen by the circuit breaker
+     * of this endpoint.
+     *
+     * @return a description of the circuit breaker state
+     */
+    @Restricted(NoExternalUse.class)
+    @NonNull
+    public String getApiStatus() {
+        return BitbucketCircuitBreaker.get(getApiHost()).getStatus();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -34,6 +34,7 @@ import hudson.Extension;
 import hudson.util.FormValidation;
 import java.util.List;
 import jenkins.model.Jenkins;
+import org.apache.hc.core5.http.HttpHost;
 import org.jenkinsci.plugins.plaincredentials.StringCredentials;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.verb.POST;
@@ -126,6 +127,15 @@ public class BitbucketCloudEndpoint extends AbstractBitbucketEndpoint {
         return Messages.BitbucketCloudEndpoint_displayName();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    protected HttpHost getApiHost() {
+        return BitbucketCloudApiClient.API_HOST;
+    }
+
     /**
      * {@inheritDoc}
      */
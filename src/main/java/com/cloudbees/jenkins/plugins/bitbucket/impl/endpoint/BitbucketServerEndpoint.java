@@ -29,6 +29,7 @@ import com.cloudbees.jenkins.plugins.bitbucket.api.endpoint.EndpointType;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.URLUtils;
 import com.cloudbees.jenkins.plugins.bitbucket.server.BitbucketServerVersion;
 import com.cloudbees.jenkins.plugins.bitbucket.server.BitbucketServerWebhookImplementation;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.BitbucketServerAPIClient;
 import com.cloudbees.plugins.credentials.common.StandardCredentials;
 import com.damnhandy.uri.template.UriTemplate;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
@@ -41,6 +42,7 @@ import hudson.util.FormValidation;
 import hudson.util.ListBoxModel;
 import java.net.MalformedURLException;
 import java.net.URL;
+import jenkins.model.Jenkins;
 import jenkins.scm.api.SCMName;
 import org.apache.commons.lang3.StringUtils;
 import org.jenkinsci.plugins.plaincredentials.StringCredentials;
@@ -89,6 +91,19 @@ public class BitbucketServerEndpoint extends AbstractBitbucketEndpoint {
                 .orElse(BitbucketServerVersion.VERSION_7);
     }
 
+    /**
+     * Tells if the read-only requests of the sources that clone from a mirror
+     * are sent to that mirror.
+     *
+     * @param serverURL the URL of the endpoint
+     * @return {@code true} if the endpoint reads from mirrors
+     */
+    public static boolean isReadFromMirrors(String serverURL) {
+        return BitbucketEndpointProvider.lookupEndpoint(serverURL, BitbucketServerEndpoint.class)
+                .map(BitbucketServerEndpoint::isReadFromMirrors)
+                .orElse(false);
+    }
+
     /**
      * Optional name to use to describe the end-point.
      */
@@ -109,6 +124,12 @@ public class BitbucketServerEndpoint extends AbstractBitbucketEndpoint {
      */
     private BitbucketServerVersion serverVersion = BitbucketServerVersion.VERSION_7;
 
+    /**
+     * Whether sources that clone from a mirror also read branches, tags and
+     * files from that mirror.
+     */
+    private boolean readFromMirrors;
+
     /**
      * Default constructor.
      * @param serverURL
@@ -170,6 +191,15 @@ public class BitbucketServerEndpoint extends AbstractBitbucketEndpoint {
         }
     }
 
+    public boolean isReadFromMirrors() {
+        return readFromMirrors;
+    }
+
+    @DataBoundSetter
+    public void setReadFromMirrors(boolean readFromMirrors) {
+        this.readFromMirrors = readFromMirrors;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -266,6 +296,24 @@ public class BitbucketServerEndpoint extends AbstractBitbucketEndpoint {
             return Messages.BitbucketServerEndpoint_displayName();
         }
 
+        @Restricted(NoExternalUse.class) // stapler
+        public FormValidation doShowStats() {
+            Jenkins.get().checkPermission(Jenkins.MANAGE);
+            StringBuilder builder = new StringBuilder();
+            for (String stat : BitbucketServerAPIClient.stats()) {
+                builder.append(stat).append("<br>");
+            }
+            return FormValidation.okWithMarkup(builder.toString());
+        }
+
+        @Restricted(NoExternalUse.class) // stapler
+        @RequirePOST
+        public FormValidation doClear() {
+            Jenkins.get().checkPermission(Jenkins.MANAGE);
+            BitbucketServerAPIClient.clearCaches();
+            return FormValidation.ok("Caches cleared");
+        }
+
         @Restricted(NoExternalUse.class)
         public ListBoxModel doFillWebhookImplementationItems() {
             ListBoxModel items = new ListBoxModel();
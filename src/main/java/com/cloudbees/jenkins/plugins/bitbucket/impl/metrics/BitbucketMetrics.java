@@ -0,0 +1,173 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.metrics;
+
+import com.cloudbees.jenkins.plugins.bitbucket.hooks.HookEventType;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.ExtensionList;
+import hudson.ExtensionPoint;
+import jenkins.model.Jenkins;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Records metrics about the plugin hot paths: REST API calls, retries,
+ * caches, webhooks, scans and build status notifications.
+ * <p>
+ * The default implementation does nothing, metrics are published only when
+ * an implementation is registered as extension, for example when the Jenkins
+ * metrics plugin is installed.
+ *
+ * @since 937.0.0
+ */
+@Restricted(NoExternalUse.class)
+public abstract class BitbucketMetrics implements ExtensionPoint {
+
+    private static final BitbucketMetrics NOOP = new BitbucketMetrics() {
+    };
+
+    /**
+     * Returns the metrics recorder to use.
+     *
+     * @return the first registered implementation or one that does nothing
+     */
+    @NonNull
+    public static BitbucketMetrics get() {
+        if (Jenkins.getInstanceOrNull() == null) {
+            return NOOP;
+        }
+        ExtensionList<BitbucketMetrics> all = ExtensionList.lookup(BitbucketMetrics.class);
+        return all.isEmpty() ? NOOP : all.get(0);
+    }
+
+    /**
+     * Records a REST API call.
+     *
+     * @param endpoint the target host
+     * @param operation the logical operation (branches, pullrequests, ...)
+     * @param statusCode the HTTP status code or {@code -1} if no response was received
+     * @param nanos the time elapsed to obtain the response
+     */
+    public void apiCall(@NonNull String endpoint, @NonNull String operation, int statusCode, long nanos) {
+    }
+
+    /**
+     * Records a REST API call not sent because an identical call was in flight.
+     *
+     * @param endpoint the target host
+     * @param operation the logical operation (branches, pullrequests, ...)
+     */
+    public void apiCallDeduplicated(@NonNull String endpoint, @NonNull String operation) {
+    }
+
+    /**
+     * Records a retry of a REST API call.
+     *
+     * @param endpoint the target host
+     */
+    public void apiRetry(@NonNull String endpoint) {
+    }
+
+    /**
+     * Records a REST API call rejected because of rate limit (HTTP 429).
+     *
+     * @param endpoint the target host
+     */
+    public void apiRateLimited(@NonNull String endpoint) {
+    }
+
+    /**
+     * Records a request of a new OAuth2 access token.
+     *
+     * @param nanos the time elapsed to obtain the token
+     * @param success {@code false} if the token could not be obtained
+     */
+    public void oauthTokenRefresh(long nanos, boolean success) {
+    }
+
+    /**
+     * Records a hit in the given cache.
+     *
+     * @param cache the cache name
+     */
+    public void cacheHit(@NonNull String cache) {
+    }
+
+    /**
+     * Records a miss in the given cache.
+     *
+     * @param cache the cache name
+     */
+    public void cacheMiss(@NonNull String cache) {
+    }
+
+    /**
+     * Records an entry evicted from the given cache because it is expired or
+     * the cache is full.
+     *
+     * @param cache the cache name
+     */
+    public void cacheEviction(@NonNull String cache) {
+    }
+
+    /**
+     * Records the time spent to receive and verify an incoming webhook.
+     *
+     * @param type the hook event type
+     * @param nanos the elapsed time
+     */
+    public void webhookReceived(@NonNull HookEventType type, long nanos) {
+    }
+
+    /**
+     * Records the time spent by the hook processor to handle an incoming
+     * webhook.
+     *
+     * @param type the hook event type
+     * @param nanos the elapsed time
+     * @param success {@code false} if the processor has failed
+     */
+    public void webhookProcessed(@NonNull HookEventType type, long nanos, boolean success) {
+    }
+
+    /**
+     * Records the duration of a source scan.
+     *
+     * @param source the source identifier (server, owner and repository)
+     * @param nanos the elapsed time
+     * @param success {@code false} if the scan has failed
+     */
+    public void scan(@NonNull String source, long nanos, boolean success) {
+    }
+
+    /**
+     * Records a build status notification sent to Bitbucket.
+     *
+     * @param state the notified build state
+     * @param success {@code false} if Bitbucket has rejected the notification
+     */
+    public void buildStatusPosted(@NonNull String state, boolean success) {
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.metrics;
+
+import com.cloudbees.jenkins.plugins.bitbucket.hooks.HookEventType;
+import com.codahale.metrics.MetricRegistry;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import jenkins.metrics.api.Metrics;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Publishes the plugin metrics in the registry of the Jenkins metrics
+ * plugin. Loaded only when that optional plugin is installed.
+ * <p>
+ * Metrics are named {@code bitbucket.<area>.<qualifiers>}, for example
+ * {@code bitbucket.api.api_bitbucket_org.branches.200}.
+ *
+ * @since 937.0.0
+ */
+@Restricted(NoExternalUse.class)
+@Extension(optional = true)
+public class MetricsPluginBitbucketMetrics extends BitbucketMetrics {
+
+    private static final String PREFIX = "bitbucket";
+
+    @Override
+    public void apiCall(@NonNull String endpoint, @NonNull String operation, int statusCode, long nanos) {
+        String status = statusCode < 0 ? "error" : String.valueOf(statusCode);
+        timer(nanos, "api", sanitize(endpoint), sanitize(operation), status);
+    }
+
+    @Override
+    public void apiCallDeduplicated(@NonNull String endpoint, @NonNull String operation) {
+        count("api", sanitize(endpoint), sanitize(operation), "deduplicated");
+    }
+
+    @Override
+    public void apiRetry(@NonNull String endpoint) {
+        count("api", sanitize(endpoint), "retries");
+    }
+
+    @Override
+    public void apiRateLimited(@NonNull String endpoint) {
+        count("api", sanitize(endpoint), "rate_limited");
+    }
+
+    @Override
+    public void oauthTokenRefresh(long nanos, boolean success) {
+        timer(nanos, "oauth2", "refresh");
+        if (!success) {
+            count("oauth2", "refresh", "failures");
+        }
+    }
+
+    @Override
+    public void cacheHit(@NonNull String cache) {
+        count("cache", sanitize(cache), "hits");
+    }
+
+    @Override
+    public void cacheMiss(@NonNull String cache) {
+        count("cache", sanitize(cache), "misses");
+    }
+
+    @Override
+    public void cacheEviction(@NonNull String cache) {
+        count("cache", sanitize(cache), "evictions");
+    }
+
+    @Override
+    public void webhookReceived(@NonNull HookEventType type, long nanos) {
+        timer(nanos, "webhook", sanitize(type.name()), "receive");
+    }
+
+    @Override
+    public void webhookProcessed(@NonNull HookEventType type, long nanos, boolean success) {
+        timer(nanos, "webhook", sanitize(type.name()), "process");
+        if (!success) {
+            count("webhook", sanitize(type.name()), "failures");
+        }
+    }
+
+    @Override
+    public void scan(@NonNull String source, long nanos, boolean success) {
+        timer(nanos, "scan", sanitize(source), success ? "success" : "failure");
+    }
+
+    @Override
+    public void buildStatusPosted(@NonNull String state, boolean success) {
+        count("buildstatus", sanitize(state), success ? "success" : "failure");
+    }
+
+    private static void timer(long nanos, String... names) {
+        Metrics.metricRegistry().timer(MetricRegistry.name(PREFIX, names)).update(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static void count(String... names) {
+        Metrics.metricRegistry().counter(MetricRegistry.name(PREFIX, names)).inc();
+    }
+
+    /*
+     * Dots are the separator of metric names, any other character not
+     * supported by the most common reporters is replaced by an underscore.
+     */
+    static String sanitize(String name) {
+        return name.toLowerCase(Locale.ENGLISH).replaceAll("[^a-z0-9_-]", "_");
+    }
+
+}
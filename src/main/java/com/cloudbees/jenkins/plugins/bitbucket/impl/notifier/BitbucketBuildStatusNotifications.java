@@ -32,6 +32,7 @@ import com.cloudbees.jenkins.plugins.bitbucket.PullRequestSCMHead;
 import com.cloudbees.jenkins.plugins.bitbucket.PullRequestSCMRevision;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApi;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketBuildStatus;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.metrics.BitbucketMetrics;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketApiUtils;
 import com.cloudbees.jenkins.plugins.bitbucket.trait.BranchDiscoveryTrait.ExcludeOriginPRBranchesSCMHeadFilter;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
@@ -186,7 +187,13 @@ public final class BitbucketBuildStatusNotifications {
             buildStatus.setBuildNumber(build.getNumber());
             buildStatus.setParent(notificationParentKey);
             // TODO testResults should be provided by an extension point that integrates JUnit or anything else plugin
-            notifier.notifyBuildStatus(buildStatus);
+            boolean posted = false;
+            try {
+                notifier.notifyBuildStatus(buildStatus);
+                posted = true;
+            } finally {
+                BitbucketMetrics.get().buildStatusPosted(state.name(), posted);
+            }
             if (result != null) {
                 listener.getLogger().println("[Bitbucket] Build result notified");
             }
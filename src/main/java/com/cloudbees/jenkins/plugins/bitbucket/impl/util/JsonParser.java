@@ -62,6 +62,23 @@ public final class JsonParser {
         return mapper.readValue(data, type);
     }
 
+    /**
+     * Binds the value at the current token of a parser created by
+     * {@link #createParser(String)}, the parser is left on the last token of
+     * the value.
+     */
+    public static <T> T toJava(com.fasterxml.jackson.core.JsonParser parser, Class<T> type) throws IOException {
+        return mapper.readValue(parser, type);
+    }
+
+    /**
+     * Creates a streaming parser that shares the configuration of this
+     * parser, for callers that only need a few fields of a large document.
+     */
+    public static com.fasterxml.jackson.core.JsonParser createParser(String data) throws IOException {
+        return mapper.createParser(data);
+    }
+
     public static String toString(Object value) throws IOException {
         return mapper.writeValueAsString(value);
     }
@@ -24,16 +24,27 @@
 package com.cloudbees.jenkins.plugins.bitbucket.impl.util;
 
 import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.lang3.StringUtils;
 
 public final class URLUtils {
 
+    private static final int MAX_NORMALIZED_URLS = 1000;
+
+    /**
+     * The normalized form of the URLs seen so far, the same few endpoint URLs
+     * are normalized on each event and on each client creation.
+     */
+    private static final Map<String, String> NORMALIZED_URLS = new ConcurrentHashMap<>();
+
     private URLUtils() {
     }
 
@@ -62,6 +73,20 @@ public final class URLUtils {
         if (StringUtils.isBlank(serverURL)) {
             return null;
         }
+        String normalizedURL = NORMALIZED_URLS.get(serverURL);
+        if (normalizedURL == null) {
+            if (NORMALIZED_URLS.size() >= MAX_NORMALIZED_URLS) {
+                // URLs coming from the outside, do not let them grow the cache without limit
+                NORMALIZED_URLS.clear();
+            }
+            normalizedURL = doNormalizeURL(serverURL);
+            NORMALIZED_URLS.put(serverURL, normalizedURL);
+        }
+        return normalizedURL;
+    }
+
+    @NonNull
+    private static String doNormalizeURL(@NonNull String serverURL) {
         try {
             URI uri = new URI(serverURL).normalize();
             String scheme = uri.getScheme();
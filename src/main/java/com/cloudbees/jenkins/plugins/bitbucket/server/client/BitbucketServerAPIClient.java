@@ -26,6 +26,7 @@ package com.cloudbees.jenkins.plugins.bitbucket.server.client;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApi;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketBuildStatus;
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketChange;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketCommit;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketMirrorServer;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketMirroredRepository;
@@ -36,6 +37,7 @@ import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketRequestException;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketTeam;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketWebHook;
 import com.cloudbees.jenkins.plugins.bitbucket.api.endpoint.BitbucketEndpointProvider;
+import com.cloudbees.jenkins.plugins.bitbucket.client.Cache;
 import com.cloudbees.jenkins.plugins.bitbucket.client.repository.UserRoleInRepository;
 import com.cloudbees.jenkins.plugins.bitbucket.filesystem.BitbucketSCMFile;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.client.AbstractBitbucketApi;
@@ -50,6 +52,7 @@ import com.cloudbees.jenkins.plugins.bitbucket.server.BitbucketServerWebhookImpl
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.branch.BitbucketServerBranch;
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.branch.BitbucketServerBranches;
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.branch.BitbucketServerBuildStatus;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.branch.BitbucketServerChange;
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.branch.BitbucketServerCommit;
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.pullrequest.BitbucketServerPullRequest;
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.pullrequest.BitbucketServerPullRequestCanMerge;
@@ -78,15 +81,22 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.logging.Level;
+import java.util.regex.Pattern;
 import javax.imageio.ImageIO;
 import jenkins.scm.api.SCMFile;
 import jenkins.scm.api.SCMFile.Type;
 import jenkins.scm.impl.avatars.AvatarImage;
+import jenkins.util.SystemProperties;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -97,6 +107,7 @@ import org.apache.hc.core5.http.HttpStatus;
 import org.apache.hc.core5.http.message.BasicNameValuePair;
 
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.HOURS;
 import static org.apache.commons.lang3.StringUtils.abbreviate;
 import static org.apache.commons.lang3.StringUtils.substring;
 
@@ -122,10 +133,13 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
     private static final String API_PULL_REQUEST_MERGE_PATH = API_REPOSITORY_PATH + "/pull-requests/{id}/merge";
     private static final String API_PULL_REQUEST_CHANGES_PATH = API_REPOSITORY_PATH + "/pull-requests/{id}/changes{?start,limit}";
     private static final String API_BROWSE_PATH = API_REPOSITORY_PATH + "/browse{/path*}{?at}";
+    private static final String API_ARCHIVE_PATH = API_REPOSITORY_PATH + "/archive{?at,format,path}";
+    private static final String API_FILES_PATH = API_REPOSITORY_PATH + "/files{/path*}{?at,start,limit}";
     private static final String API_PROJECT_PATH = API_BASE_PATH + "/projects/{owner}";
     private static final String AVATAR_PATH = API_BASE_PATH + "/projects/{owner}/avatar.png";
     private static final String API_WEBHOOKS_PATH = API_BASE_PATH + "/projects/{owner}/repos/{repo}/webhooks{/id}{?start,limit}";
     private static final String API_COMMITS_PATH = API_REPOSITORY_PATH + "/commits{?since,until,merges,start,limit}";
+    private static final String API_COMPARE_CHANGES_PATH = API_REPOSITORY_PATH + "/compare/changes{?from,to,start,limit}";
     private static final String API_COMMIT_PATH = API_REPOSITORY_PATH + "/commits{/hash}";
     private static final String API_COMMIT_COMMENT_PATH = API_REPOSITORY_PATH + "/commits{/hash}/comments";
     private static final String API_COMMIT_STATUS_PATH = API_BASE_PATH + "/projects/{owner}/repos/{repo}/commits/{hash}/builds";
@@ -138,6 +152,17 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
     private static final String API_MIRRORS_FOR_REPO_PATH = "/rest/mirroring/1.0/repos/{id}/mirrors";
     private static final String API_MIRRORS_PATH = "/rest/mirroring/1.0/mirrorServers";
     private static final Integer DEFAULT_PAGE_LIMIT = 200;
+    /**
+     * The number of pages of the files endpoint read to list a subtree, a
+     * larger subtree is browsed one directory at a time.
+     */
+    private static final int MAX_TREE_PAGES = SystemProperties.getInteger(BitbucketServerAPIClient.class.getName() + ".maxTreePages", 5);
+    private static final Pattern COMMIT_HASH = Pattern.compile("[0-9a-fA-F]{40}");
+    /**
+     * Commits never change, they are shared by the clients of all the
+     * repositories and kept by URL.
+     */
+    private static final Cache<String, BitbucketServerCommit> cachedCommits = new Cache<>("commits", 24, HOURS, 1000);
 
     private static final HttpClientConnectionManager connectionManager = connectionManagerBuilder()
             .setMaxConnPerRoute(20)
@@ -160,6 +185,23 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
     private final String baseURL;
     private final BitbucketServerWebhookImplementation webhookImplementation;
     private final CloseableHttpClient client;
+    /**
+     * The client of the mirror that serves the read-only requests, if any.
+     */
+    @CheckForNull
+    private BitbucketServerAPIClient readMirror;
+    @CheckForNull
+    private String readMirrorId;
+
+    public static List<String> stats() {
+        List<String> stats = new ArrayList<>();
+        stats.add("Commits: " + cachedCommits.stats().toString());
+        return stats;
+    }
+
+    public static void clearCaches() {
+        cachedCommits.evictAll();
+    }
 
     public BitbucketServerAPIClient(@NonNull String baseURL, @NonNull String owner, @CheckForNull String repositoryName,
                                     @CheckForNull BitbucketAuthenticator authenticator, boolean userCentric) {
@@ -181,6 +223,22 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
         this.client = setupClientBuilder().build();
     }
 
+    /**
+     * Sends the requests for the branches, the tags and the repository
+     * content to a mirror. They are sent to this server when the mirror has
+     * not reported a synchronisation since the last push or when the mirror
+     * fails to answer or misses the requested resource. A resource missing
+     * on a mirror that reported a synchronisation since the last push is not
+     * requested again to this server.
+     *
+     * @param mirrorURL the base URL of the mirror
+     * @param mirrorId the identifier of the mirror
+     */
+    public void setReadMirror(@NonNull String mirrorURL, @NonNull String mirrorId) {
+        this.readMirror = new BitbucketServerAPIClient(mirrorURL, owner, repositoryName, getAuthenticator(), userCentric, webhookImplementation);
+        this.readMirrorId = mirrorId;
+    }
+
     @Override
     protected boolean isSupportedAuthenticator(@CheckForNull BitbucketAuthenticator authenticator) {
         return authenticator == null
@@ -553,7 +611,7 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
     @Override
     @NonNull
     public List<BitbucketServerBranch> getTags() throws IOException {
-        return getServerBranches(API_TAGS_PATH);
+        return withCommitClosures(read(client -> client.getServerBranches(API_TAGS_PATH)));
     }
 
     /**
@@ -570,7 +628,7 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
     @Override
     @NonNull
     public List<BitbucketServerBranch> getBranches() throws IOException {
-        return getServerBranches(API_BRANCHES_PATH);
+        return withCommitClosures(read(client -> client.getServerBranches(API_BRANCHES_PATH)));
     }
 
     private List<BitbucketServerBranch> getServerBranches(String apiPath) throws IOException {
@@ -579,7 +637,11 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
                 .set("owner", getUserCentricOwner())
                 .set("repo", repositoryName);
 
-        List<BitbucketServerBranch> branches = getPagedRequest(template, BitbucketServerBranch.class);
+        return getPagedRequest(template, BitbucketServerBranch.class);
+    }
+
+    private List<BitbucketServerBranch> withCommitClosures(List<BitbucketServerBranch> branches) {
+        // commits are resolved by this client, even when the branches come from a mirror
         for (final BitbucketServerBranch branch : branches) {
             if (branch != null) {
                 branch.setCommitClosure(new CommitClosure(branch.getRawNode()));
@@ -616,7 +678,20 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
                 .set("repo", repositoryName)
                 .set("hash", hash)
                 .expand();
-        return getRequestAs(url, BitbucketServerCommit.class);
+        if (!COMMIT_HASH.matcher(hash).matches()) {
+            // a reference could move
+            return getRequestAs(url, BitbucketServerCommit.class);
+        }
+        try {
+            return cachedCommits.get(url, () -> getRequestAs(url, BitbucketServerCommit.class));
+        } catch (ExecutionException e) {
+            BitbucketRequestException bre = BitbucketApiUtils.unwrap(e);
+            if (bre != null) {
+                throw bre;
+            } else {
+                throw new IOException(e);
+            }
+        }
     }
 
     /** {@inheritDoc} */
@@ -842,6 +917,12 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
     }
 
     private <V> List<V> getPagedRequest(UriTemplate template, Class<V> resultType) throws IOException {
+        List<V> resources = new ArrayList<>();
+        visitPages(template, resultType, resources::addAll);
+        return resources;
+    }
+
+    private <V> void visitPages(UriTemplate template, Class<V> resultType, PageVisitor<? super V> visitor) throws IOException {
         ParameterizedType parameterizedType = new ParameterizedType() {
 
             @Override
@@ -869,11 +950,10 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
                 }
             };
 
-            List<V> resources = new ArrayList<>();
-
             PagedApiResponse<V> page;
             Integer pageNumber = 0;
             Integer limit = DEFAULT_PAGE_LIMIT;
+            boolean next;
             do {
                 url = template //
                         .set("start", pageNumber) //
@@ -881,13 +961,11 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
                         .expand();
                 String response = getRequest(url);
                 page = JsonParser.toJava(response, type);
-                resources.addAll(page.getValues());
+                next = visitor.visit(page.getValues());
 
                 limit = page.getLimit();
                 pageNumber = page.getNextPageStart();
-            } while (!page.isLastPage());
-
-            return resources;
+            } while (next && !page.isLastPage());
         } catch (JacksonException e) {
             throw new IOException("I/O error when parsing response from URL: " + url, e);
         }
@@ -924,6 +1002,34 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
         }
     }
 
+    private <V> V read(MirrorRead<V> request) throws IOException {
+        BitbucketServerAPIClient mirror = readMirror;
+        String mirrorId = readMirrorId;
+        if (mirror != null && mirrorId != null) {
+            if (BitbucketServerMirrorCache.get().isSynchronized(baseURL, owner, repositoryName, mirrorId)) {
+                try {
+                    return request.apply(mirror);
+                } catch (FileNotFoundException e) {
+                    // only a mirror that reported a synchronisation after the last push has the same content
+                    if (BitbucketServerMirrorCache.get().isKnownSynchronized(baseURL, owner, repositoryName, mirrorId)) {
+                        throw e;
+                    }
+                    logger.log(Level.FINE, e, () -> "The mirror " + mirror.baseURL + " could miss the requested commit of " + owner + "/" + repositoryName + ", falling back to " + baseURL);
+                } catch (IOException e) {
+                    logger.log(Level.FINE, e, () -> "Failed to read " + owner + "/" + repositoryName + " from the mirror " + mirror.baseURL + ", falling back to " + baseURL);
+                }
+            } else {
+                logger.log(Level.FINE, () -> "The mirror " + mirror.baseURL + " has not synchronised " + owner + "/" + repositoryName + " yet, reading from " + baseURL);
+            }
+        }
+        return request.apply(this);
+    }
+
+    @FunctionalInterface
+    private interface MirrorRead<V> {
+        V apply(BitbucketServerAPIClient client) throws IOException;
+    }
+
     private BufferedImage getImageRequest(String path) throws IOException {
         try (InputStream inputStream = getRequestAsInputStream(path)) {
             int length = MAX_AVATAR_LENGTH;
@@ -943,6 +1049,17 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
         return client;
     }
 
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            if (readMirror != null) {
+                readMirror.close();
+            }
+        }
+    }
+
     @NonNull
     @Override
     protected HttpHost getHost() {
@@ -952,6 +1069,15 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
     @Override
     public Iterable<SCMFile> getDirectoryContent(BitbucketSCMFile directory) throws IOException {
         List<SCMFile> files = new ArrayList<>();
+        // revision is set to null as fetched values from server API do not give us revision hash
+        // Later on hash is not needed anyways when file content is fetched from server API
+        read(client -> client.browseDirectory(directory))
+                .forEach((name, type) -> files.add(new BitbucketSCMFile(directory, name, type, null)));
+        return files;
+    }
+
+    private Map<String, SCMFile.Type> browseDirectory(BitbucketSCMFile directory) throws IOException {
+        Map<String, SCMFile.Type> children = new LinkedHashMap<>();
         int start=0;
         String branchOrHash = directory.getHash().contains("+") ? directory.getRef() : directory.getHash();
         UriTemplate template = UriTemplate
@@ -967,20 +1093,22 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
         Map<String, Object> content = JsonParser.toJava(response, new TypeReference<Map<String, Object>>() {});
         Map page = (Map) content.get("children");
         List<Map> values = (List<Map>) page.get("values");
-        collectFileAndDirectories(directory, values, files);
+        collectFileAndDirectories(values, children);
         while (!(boolean)page.get("isLastPage")){
-            start += (int) content.get("size");
+            start = (int) page.get("nextPageStart");
             url = template
                     .set("start", start)
                     .expand();
             response = getRequest(url);
             content = JsonParser.toJava(response, new TypeReference<Map<String, Object>>() {});
             page = (Map) content.get("children");
+            values = (List<Map>) page.get("values");
+            collectFileAndDirectories(values, children);
         }
-        return files;
+        return children;
     }
 
-    private void collectFileAndDirectories(BitbucketSCMFile parent, List<Map> values, List<SCMFile> files) {
+    private void collectFileAndDirectories(List<Map> values, Map<String, SCMFile.Type> children) {
         for(Map file:values) {
             String type = (String) file.get("type");
             List<String> components = (List<String>) ((Map)file.get("path")).get("components");
@@ -991,15 +1119,17 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
                 fileType = SCMFile.Type.DIRECTORY;
             }
             if (!components.isEmpty() && fileType != null) {
-                // revision is set to null as fetched values from server API do not give us revision hash
-                // Later on hash is not needed anyways when file content is fetched from server API
-                files.add(new BitbucketSCMFile(parent, components.get(0), fileType, null));
+                children.put(components.get(0), fileType);
             }
         }
     }
 
     @Override
     public InputStream getFileContent(BitbucketSCMFile file) throws IOException {
+        return read(client -> client.browseFile(file));
+    }
+
+    private InputStream browseFile(BitbucketSCMFile file) throws IOException {
         List<String> lines = new ArrayList<>();
         int start=0;
         String branchOrHash = file.getHash().contains("+") ? file.getRef() : file.getHash();
@@ -1026,6 +1156,71 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
         return IOUtils.toInputStream(StringUtils.join(lines,'\n'), StandardCharsets.UTF_8);
     }
 
+    @NonNull
+    @Override
+    public InputStream getArchive(@NonNull String hash, @CheckForNull String path) throws IOException {
+        return read(client -> client.downloadArchive(hash, path));
+    }
+
+    @CheckForNull
+    @Override
+    public Map<String, SCMFile.Type> getTree(@NonNull BitbucketSCMFile directory, int depth) throws IOException {
+        // the browse endpoint lists the children only, where the files
+        // endpoint would page through the whole subtree
+        return read(client -> depth == 1 ? client.browseDirectory(directory) : client.listFiles(directory, depth));
+    }
+
+    /*
+     * The files endpoint lists all the files under the directory, whatever
+     * the depth, directories are deduced from the path of the files. The
+     * listing is given up after MAX_TREE_PAGES pages, the caller then
+     * browses the directories it walks.
+     */
+    @CheckForNull
+    private Map<String, SCMFile.Type> listFiles(@NonNull BitbucketSCMFile directory, int depth) throws IOException {
+        String branchOrHash = directory.getHash().contains("+") ? directory.getRef() : directory.getHash();
+        UriTemplate template = UriTemplate.fromTemplate(this.baseURL + API_FILES_PATH)
+                .set("owner", getUserCentricOwner())
+                .set("repo", repositoryName)
+                .set("path", directory.getPath().split(Operator.PATH.getSeparator()))
+                .set("at", branchOrHash);
+        List<String> paths = new ArrayList<>();
+        AtomicInteger pages = new AtomicInteger();
+        AtomicBoolean truncated = new AtomicBoolean();
+        visitPages(template, String.class, values -> {
+            if (pages.incrementAndGet() > MAX_TREE_PAGES) {
+                truncated.set(true);
+                return false;
+            }
+            paths.addAll(values);
+            return true;
+        });
+        if (truncated.get()) {
+            logger.log(Level.FINE, "Too many files under {0} to list them at once", directory.getPath());
+            return null;
+        }
+        Map<String, SCMFile.Type> tree = new TreeMap<>();
+        for (String path : paths) {
+            String[] names = path.split("/");
+            for (int level = 1; level <= Math.min(names.length, depth); level++) {
+                String subPath = String.join("/", Arrays.copyOfRange(names, 0, level));
+                tree.put(subPath, level == names.length ? SCMFile.Type.REGULAR_FILE : SCMFile.Type.DIRECTORY);
+            }
+        }
+        return tree;
+    }
+
+    private InputStream downloadArchive(@NonNull String hash, @CheckForNull String path) throws IOException {
+        String url = UriTemplate.fromTemplate(this.baseURL + API_ARCHIVE_PATH)
+                .set("owner", getUserCentricOwner())
+                .set("repo", repositoryName)
+                .set("at", hash)
+                .set("format", "zip")
+                .set("path", path)
+                .expand();
+        return getRequestAsInputStream(url);
+    }
+
     private Map<String,Object> collectLines(String response, final List<String> lines) throws IOException {
         Map<String,Object> content = JsonParser.toJava(response, new TypeReference<Map<String,Object>>(){});
         List<Map<String, String>> lineMap = (List<Map<String, String>>) content.get("lines");
@@ -1075,12 +1270,32 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
     @NonNull
     @Override
     public List<BitbucketServerCommit> getCommits(String fromCommit, String toCommit) throws IOException {
-        UriTemplate uriTemplate = UriTemplate.fromTemplate(this.baseURL + API_COMMITS_PATH)
+        return getPagedRequest(commitsTemplate(fromCommit, toCommit), BitbucketServerCommit.class);
+    }
+
+    @Override
+    public void getCommits(@CheckForNull String fromCommit, @NonNull String toCommit, @NonNull PageVisitor<BitbucketCommit> visitor) throws IOException {
+        visitPages(commitsTemplate(fromCommit, toCommit), BitbucketServerCommit.class, visitor);
+    }
+
+    private UriTemplate commitsTemplate(@CheckForNull String fromCommit, @NonNull String toCommit) {
+        return UriTemplate.fromTemplate(this.baseURL + API_COMMITS_PATH)
                 .set("owner", getUserCentricOwner())
                 .set("repo", repositoryName)
                 .set("since", fromCommit)
                 .set("until", toCommit);
-        return getPagedRequest(uriTemplate, BitbucketServerCommit.class);
+    }
+
+    @Override
+    public boolean getChanges(@NonNull String fromCommit, @NonNull String toCommit, @NonNull PageVisitor<BitbucketChange> visitor) throws IOException {
+        UriTemplate uriTemplate = UriTemplate.fromTemplate(this.baseURL + API_COMPARE_CHANGES_PATH)
+                .set("owner", getUserCentricOwner())
+                .set("repo", repositoryName)
+                // compare the changes of the source with the target
+                .set("from", toCommit)
+                .set("to", fromCommit);
+        visitPages(uriTemplate, BitbucketServerChange.class, visitor);
+        return true;
     }
 
 }
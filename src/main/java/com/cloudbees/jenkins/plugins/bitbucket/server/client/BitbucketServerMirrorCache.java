@@ -0,0 +1,311 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.server.client;
+
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketHref;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.util.SystemProperties;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Keeps the clone links of mirrored repositories, shared by all the sources
+ * of an endpoint.
+ * <p>
+ * Resolving the clone links of a mirror takes three requests to the primary
+ * server, whose answers are the same for every job that builds the
+ * repository. Links are kept for {@value #DEFAULT_DURATION} seconds by
+ * default. In the second half of that duration the next caller triggers a
+ * refresh in background and keeps using the current links. Entries are
+ * dropped when the mirror reports a synchronisation of the repository.
+ * <p>
+ * It also tells whether a mirror has caught up with the last push received
+ * from the primary server, a mirror that did not report a synchronisation
+ * since is considered stale for the same duration.
+ */
+@Restricted(NoExternalUse.class)
+public final class BitbucketServerMirrorCache {
+    private static final Logger LOGGER = Logger.getLogger(BitbucketServerMirrorCache.class.getName());
+
+    static final String DURATION_PROPERTY_NAME = BitbucketServerMirrorCache.class.getName() + ".duration";
+    static final int DEFAULT_DURATION = 1800;
+
+    private static final BitbucketServerMirrorCache INSTANCE = new BitbucketServerMirrorCache(
+            SystemProperties.getInteger(DURATION_PROPERTY_NAME, DEFAULT_DURATION), TimeUnit.SECONDS,
+            Executors.newCachedThreadPool(new NamingThreadFactory(new DaemonThreadFactory(), BitbucketServerMirrorCache.class.getName())),
+            System::nanoTime);
+
+    /**
+     * Identifies the clone links of a repository on a mirror, as seen with
+     * some credentials. Credentials ids are not unique across folders, the
+     * credentials are identified as by
+     * {@link com.cloudbees.jenkins.plugins.bitbucket.impl.client.AbstractBitbucketApi#getCredentialsIdentity()}.
+     */
+    public record Key(@NonNull String serverURL,
+                      @NonNull String projectKey,
+                      @NonNull String repositorySlug,
+                      @NonNull String mirrorId,
+                      @NonNull String credentialsIdentity) {
+
+        public Key {
+            projectKey = projectKey.toLowerCase(Locale.ENGLISH);
+            repositorySlug = repositorySlug.toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Long> pushes = new ConcurrentHashMap<>();
+    private final Map<String, Long> synchronizations = new ConcurrentHashMap<>();
+    private final long durationNanos;
+    private final Executor executor;
+    private final LongSupplier clock;
+
+    /* For test purpose */
+    BitbucketServerMirrorCache(long duration, @NonNull TimeUnit unit, @NonNull Executor executor, @NonNull LongSupplier clock) {
+        this.durationNanos = unit.toNanos(duration);
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    @NonNull
+    public static BitbucketServerMirrorCache get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the clone links for the given key, resolving them with the
+     * given loader only if there are no valid links.
+     *
+     * @param key identifies the mirrored repository
+     * @param loader resolves the clone links on the primary server
+     * @return the clone links
+     * @throws ExecutionException if the links had to be resolved and the loader has failed
+     */
+    @NonNull
+    public List<BitbucketHref> getCloneLinks(@NonNull Key key, @NonNull Callable<List<BitbucketHref>> loader) throws ExecutionException {
+        Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+        Links links = entry.links;
+        long now = clock.getAsLong();
+        if (links != null && !links.isExpired(now)) {
+            if (links.isRefreshDue(now) && entry.refreshing.compareAndSet(false, true)) {
+                try {
+                    executor.execute(() -> refresh(key, entry, loader));
+                } catch (RejectedExecutionException e) {
+                    entry.refreshing.set(false);
+                }
+            }
+            return links.value;
+        }
+
+        synchronized (entry) {
+            now = clock.getAsLong();
+            links = entry.links;
+            if (links == null || links.isExpired(now)) {
+                long time = now;
+                entries.values().removeIf(e -> e != entry && e.links != null && e.links.isExpired(time));
+                try {
+                    links = load(loader);
+                } catch (ExecutionException e) {
+                    if (entry.links == null) {
+                        // do not keep an empty entry for every failing repository
+                        entries.remove(key, entry);
+                    }
+                    throw e;
+                }
+                entry.links = links;
+            }
+            return links.value;
+        }
+    }
+
+    /**
+     * Forgets the clone links of a repository on a mirror, any mirror if
+     * {@code mirrorId} is {@code null}.
+     *
+     * @param serverURL the primary server
+     * @param projectKey the project of the repository
+     * @param repositorySlug the repository
+     * @param mirrorId the mirror or {@code null}
+     */
+    public void invalidate(@NonNull String serverURL, @NonNull String projectKey, @NonNull String repositorySlug, @CheckForNull String mirrorId) {
+        entries.keySet().removeIf(key -> key.serverURL().equals(serverURL)
+                && key.projectKey().equalsIgnoreCase(projectKey)
+                && key.repositorySlug().equalsIgnoreCase(repositorySlug)
+                && (mirrorId == null || key.mirrorId().equals(mirrorId)));
+    }
+
+    /**
+     * Records a push on the primary server, the mirrors are stale until
+     * they report a synchronisation of the repository.
+     *
+     * @param serverURL the primary server
+     * @param projectKey the project of the repository
+     * @param repositorySlug the repository
+     */
+    public void repositoryPushed(@NonNull String serverURL, @NonNull String projectKey, @NonNull String repositorySlug) {
+        long now = clock.getAsLong();
+        pushes.values().removeIf(time -> now - time >= durationNanos);
+        synchronizations.values().removeIf(time -> now - time >= durationNanos);
+        pushes.put(repositoryId(serverURL, projectKey, repositorySlug), now);
+    }
+
+    /**
+     * Records the synchronisation of a repository on a mirror and forgets
+     * its clone links.
+     *
+     * @param serverURL the primary server
+     * @param projectKey the project of the repository
+     * @param repositorySlug the repository
+     * @param mirrorId the mirror
+     */
+    public void repositorySynchronized(@NonNull String serverURL, @NonNull String projectKey, @NonNull String repositorySlug, @NonNull String mirrorId) {
+        invalidate(serverURL, projectKey, repositorySlug, mirrorId);
+        synchronizations.put(repositoryId(serverURL, projectKey, repositorySlug) + '#' + mirrorId, clock.getAsLong());
+    }
+
+    /**
+     * Tells if a mirror has synchronised the repository since the last push
+     * received from the primary server.
+     *
+     * @param serverURL the primary server
+     * @param projectKey the project of the repository
+     * @param repositorySlug the repository
+     * @param mirrorId the mirror
+     * @return {@code false} if the mirror could miss the last push
+     */
+    public boolean isSynchronized(@NonNull String serverURL, @NonNull String projectKey, @NonNull String repositorySlug, @NonNull String mirrorId) {
+        String id = repositoryId(serverURL, projectKey, repositorySlug);
+        Long pushedAt = pushes.get(id);
+        if (pushedAt == null || clock.getAsLong() - pushedAt >= durationNanos) {
+            return true;
+        }
+        Long synchronizedAt = synchronizations.get(id + '#' + mirrorId);
+        return synchronizedAt != null && synchronizedAt - pushedAt >= 0;
+    }
+
+    /**
+     * Tells if a mirror has reported a synchronisation of the repository
+     * after the last push received from the primary server. Unlike
+     * {@link #isSynchronized(String, String, String, String)} a repository
+     * without any recorded event is not known to be synchronised, pushes are
+     * not recorded without the native push webhook.
+     *
+     * @param serverURL the primary server
+     * @param projectKey the project of the repository
+     * @param repositorySlug the repository
+     * @param mirrorId the mirror
+     * @return {@code true} only if a synchronisation has been recorded since the last push
+     */
+    public boolean isKnownSynchronized(@NonNull String serverURL, @NonNull String projectKey, @NonNull String repositorySlug, @NonNull String mirrorId) {
+        String id = repositoryId(serverURL, projectKey, repositorySlug);
+        Long synchronizedAt = synchronizations.get(id + '#' + mirrorId);
+        if (synchronizedAt == null || clock.getAsLong() - synchronizedAt >= durationNanos) {
+            return false;
+        }
+        Long pushedAt = pushes.get(id);
+        return pushedAt == null || synchronizedAt - pushedAt >= 0;
+    }
+
+    /* For test purpose */
+    void clear() {
+        entries.clear();
+        pushes.clear();
+        synchronizations.clear();
+    }
+
+    /* For test purpose */
+    int size() {
+        return entries.size();
+    }
+
+    @NonNull
+    private static String repositoryId(@NonNull String serverURL, @NonNull String projectKey, @NonNull String repositorySlug) {
+        return serverURL + '#' + projectKey.toLowerCase(Locale.ENGLISH) + '/' + repositorySlug.toLowerCase(Locale.ENGLISH);
+    }
+
+    private void refresh(@NonNull Key key, @NonNull Entry entry, @NonNull Callable<List<BitbucketHref>> loader) {
+        try {
+            Links links = load(loader);
+            if (entries.get(key) == entry) {
+                entry.links = links;
+            }
+        } catch (ExecutionException e) {
+            LOGGER.log(Level.FINE, e, () -> "Failed to refresh the mirror clone links of " + key + ", the current ones are used until they expire");
+        } finally {
+            entry.refreshing.set(false);
+        }
+    }
+
+    @NonNull
+    private Links load(@NonNull Callable<List<BitbucketHref>> loader) throws ExecutionException {
+        long start = clock.getAsLong();
+        try {
+            return new Links(List.copyOf(loader.call()), start + durationNanos / 2, start + durationNanos);
+        } catch (Exception e) {
+            throw new ExecutionException("Cannot resolve the mirror clone links", e);
+        }
+    }
+
+    private static final class Entry {
+        private volatile Links links;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+    }
+
+    private static final class Links {
+        private final List<BitbucketHref> value;
+        private final long refreshAt;
+        private final long expireAt;
+
+        Links(List<BitbucketHref> value, long refreshAt, long expireAt) {
+            this.value = value;
+            this.refreshAt = refreshAt;
+            this.expireAt = expireAt;
+        }
+
+        boolean isRefreshDue(long now) {
+            return now - refreshAt >= 0;
+        }
+
+        boolean isExpired(long now) {
+            return now - expireAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.server.client.branch;
+
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketChange;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.Map;
+
+/**
+ * Represents a file changed between two commits given by Bitbucket Server.
+ */
+public class BitbucketServerChange implements BitbucketChange {
+    private final ChangeType changeType;
+    private final String oldPath;
+    private final String newPath;
+    private final String oldContentId;
+    private final String newContentId;
+
+    @JsonCreator
+    public BitbucketServerChange(@NonNull @JsonProperty("type") String type,
+                                 @Nullable @JsonProperty("path") Map<String, Object> path,
+                                 @Nullable @JsonProperty("srcPath") Map<String, Object> srcPath,
+                                 @Nullable @JsonProperty("fromContentId") String fromContentId,
+                                 @Nullable @JsonProperty("contentId") String contentId) {
+        this.oldContentId = fromContentId;
+        this.newContentId = contentId;
+        String pathValue = path != null ? (String) path.get("toString") : null;
+        String srcPathValue = srcPath != null ? (String) srcPath.get("toString") : null;
+        switch (type) {
+            case "ADD", "COPY" -> {
+                this.changeType = ChangeType.ADDED;
+                this.oldPath = null;
+                this.newPath = pathValue;
+            }
+            case "DELETE" -> {
+                this.changeType = ChangeType.REMOVED;
+                this.oldPath = pathValue;
+                this.newPath = null;
+            }
+            case "MOVE" -> {
+                this.changeType = ChangeType.RENAMED;
+                this.oldPath = srcPathValue;
+                this.newPath = pathValue;
+            }
+            default -> {
+                this.changeType = ChangeType.MODIFIED;
+                this.oldPath = pathValue;
+                this.newPath = pathValue;
+            }
+        }
+    }
+
+    @NonNull
+    @Override
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    @CheckForNull
+    @Override
+    public String getOldPath() {
+        return oldPath;
+    }
+
+    @CheckForNull
+    @Override
+    public String getNewPath() {
+        return newPath;
+    }
+
+    @CheckForNull
+    @Override
+    public String getOldContentId() {
+        return oldContentId;
+    }
+
+    @CheckForNull
+    @Override
+    public String getNewContentId() {
+        return newContentId;
+    }
+}
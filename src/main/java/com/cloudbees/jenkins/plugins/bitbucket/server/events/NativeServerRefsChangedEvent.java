@@ -25,6 +25,7 @@ package com.cloudbees.jenkins.plugins.bitbucket.server.events;
 
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.branch.BitbucketServerCommit;
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.repository.BitbucketServerRepository;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -39,12 +40,24 @@ public class NativeServerRefsChangedEvent {
         return repository;
     }
 
+    public void setRepository(BitbucketServerRepository repository) {
+        this.repository = repository;
+    }
+
     public List<NativeServerChange> getChanges() {
         return changes == null ? Collections.<NativeServerChange> emptyList() : Collections.unmodifiableList(changes);
     }
 
+    public void setChanges(List<NativeServerChange> changes) {
+        this.changes = changes != null ? new ArrayList<>(changes) : null;
+    }
+
     public BitbucketServerCommit getToCommit() {
         return toCommit;
     }
 
+    public void setToCommit(BitbucketServerCommit toCommit) {
+        this.toCommit = toCommit;
+    }
+
 }
@@ -84,12 +84,11 @@ public class DiscardOldBranchTrait extends SCMSourceTrait {
                     branchName = prHead.getBranchName();
                 }
 
-                for (BitbucketBranch branch : bbRequest.getBranches()) {
-                    if (branchName.equals(branch.getName())) {
-                        LocalDate commitDate = asLocalDate(branch.getDateMillis());
-                        LocalDate expiryDate = LocalDate.now().minusDays(keepForDays);
-                        return commitDate.isBefore(expiryDate);
-                    }
+                BitbucketBranch branch = bbRequest.getBranch(branchName);
+                if (branch != null) {
+                    LocalDate commitDate = asLocalDate(branch.getDateMillis());
+                    LocalDate expiryDate = LocalDate.now().minusDays(keepForDays);
+                    return commitDate.isBefore(expiryDate);
                 }
             }
             return false;
@@ -71,6 +71,8 @@ import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -292,6 +294,33 @@ public class BitbucketSCMSourceBuildTest {
         );
     }
 
+    @Test
+    void build_reuses_repository_metadata_and_closes_clients() throws Exception {
+        StandardUsernameCredentials userPassCredentials = registerUserCredentials();
+
+        WorkflowMultiBranchProject owner = rule.createProject(WorkflowMultiBranchProject.class, "testMultibranch");
+        BitbucketSCMSource scmSource = new BitbucketSCMSource(CLOUD_REPO_OWNER, REPO_NAME);
+        scmSource.setServerUrl("http://localhost:7990/bitbucket");
+        scmSource.setOwner(owner);
+        scmSource.setCredentialsId(userPassCredentials.getId());
+        scmSource.setTraits(List.of(new BranchDiscoveryTrait(1)));
+
+        BitbucketRepository repository = mock(BitbucketRepository.class);
+        when(repository.getCloneLinks()).thenReturn(List.of(new BitbucketHref("http", sampleRepo.toString())));
+        BitbucketApi client = mock(BitbucketApi.class);
+        BitbucketMockApiFactory.add(scmSource.getServerUrl(), client);
+        when(client.getRepository()).thenReturn(repository);
+
+        BranchSCMHead head = new BranchSCMHead(BRANCH_NAME);
+        AbstractGitSCMSource.SCMRevisionImpl revision = new AbstractGitSCMSource.SCMRevisionImpl(head, "1dbb02d4c1b99f1e84459c6947e3caa53cadfad1");
+        scmSource.build(head, revision);
+        scmSource.build(head, revision);
+
+        // clone links and project key of both builds come from a single fetch
+        verify(client, times(1)).getRepository();
+        verify(client, times(3)).close();
+    }
+
     private StandardUsernameCredentials registerSSHCredentials() throws IOException {
         StandardUsernameCredentials sshCredentials = new BasicSSHUserPrivateKey(CredentialsScope.GLOBAL, "user-key", "user",
             new BasicSSHUserPrivateKey.DirectEntryPrivateKeySource(PRIVATE_KEY), null, null);
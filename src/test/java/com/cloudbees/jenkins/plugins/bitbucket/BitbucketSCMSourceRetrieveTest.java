@@ -51,6 +51,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import jenkins.scm.api.SCMHead;
 import jenkins.scm.api.SCMHeadEvent;
@@ -74,6 +75,7 @@ import org.mockito.quality.Strictness;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -181,6 +183,47 @@ class BitbucketSCMSourceRetrieveTest {
         verifyExpectedClientApiCalls(instance, client);
     }
 
+    @Test
+    void forkClientIsSharedByThePullRequestsOfTheFork_cloud() throws Exception {
+        BitbucketSCMSource instance = load("retrieve_prs_test_cloud");
+        BitbucketCloudApiClient client = BitbucketClientMockUtils.getAPIClientMock(true, false);
+        when(client.getBranches()).thenReturn(Collections.emptyList());
+        BitbucketCloudApiClient forkClient = mock(BitbucketCloudApiClient.class);
+        AtomicInteger forkClients = new AtomicInteger();
+        BitbucketMockApiFactory.add(BitbucketCloudEndpoint.SERVER_URL, (authenticator, owner, projectKey, repositoryName) -> {
+            if ("fork".equals(owner)) {
+                forkClients.incrementAndGet();
+                return forkClient;
+            }
+            return client;
+        });
+
+        when(repository.getFullName()).thenReturn(CLOUD_REPO_OWNER + '/' + REPO_NAME);
+        BitbucketRepository forkRepository = mock(BitbucketRepository.class);
+        when(forkRepository.getFullName()).thenReturn("fork/" + REPO_NAME);
+        when(forkRepository.getOwnerName()).thenReturn("fork");
+        when(forkRepository.getRepositoryName()).thenReturn(REPO_NAME);
+        when(prSource.getRepository()).thenReturn(forkRepository);
+
+        BitbucketPullRequest pullRequest2 = mock(BitbucketPullRequest.class);
+        when(pullRequest2.getSource()).thenReturn(prSource);
+        when(pullRequest2.getDestination()).thenReturn(prDestination);
+        when(pullRequest2.getId()).thenReturn("2");
+        when(client.getPullRequestById(PR_ID)).thenReturn(pullRequest);
+        when(client.getPullRequestById(2)).thenReturn(pullRequest2);
+
+        SCMHeadEvent<?> event = new HeadEvent(List.of(pullRequest, pullRequest2));
+        TaskListener taskListener = BitbucketClientMockUtils.getTaskListenerMock();
+        SCMHeadObserver.Collector headObserver = new SCMHeadObserver.Collector();
+        when(criteria.isHead(Mockito.any(), Mockito.same(taskListener))).thenReturn(true);
+
+        instance.retrieve(criteria, headObserver, event, taskListener);
+
+        assertThat(headObserver.result().keySet()).extracting(SCMHead::getName).containsExactlyInAnyOrder("PR-1", "PR-2");
+        assertThat(forkClients).hasValue(1);
+        verify(forkClient, times(1)).close();
+    }
+
     /**
      * Given a BitbucketSCMSource, call the retrieve(SCMSourceCriteria, SCMHeadObserver, SCMHeadEvent, TaskListener)
      * method with an event having a PR and verify the expected client API calls
@@ -0,0 +1,86 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket;
+
+import java.io.File;
+import java.util.Set;
+import jenkins.scm.api.metadata.ContributorMetadataAction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PullRequestMetadataStoreTest {
+
+    @TempDir
+    private File rootDir;
+
+    @Test
+    void test_metadata_survives_reload() {
+        PullRequestMetadataStore store = PullRequestMetadataStore.load(rootDir, "source/id");
+        store.getTitles().put("1", "Fix the build");
+        store.getContributors().put("1", new ContributorMetadataAction("amuniz", "Antonio Muniz", "amuniz@example.com"));
+        store.save();
+
+        PullRequestMetadataStore reloaded = PullRequestMetadataStore.load(rootDir, "source/id");
+        assertThat(reloaded.getTitles()).containsExactlyEntriesOf(store.getTitles());
+        assertThat(reloaded.getContributors().get("1"))
+            .usingRecursiveComparison()
+            .isEqualTo(new ContributorMetadataAction("amuniz", "Antonio Muniz", "amuniz@example.com"));
+        assertThat(PullRequestMetadataStore.load(rootDir, "another source").getTitles()).isEmpty();
+    }
+
+    @Test
+    void test_save_only_writes_changes() {
+        PullRequestMetadataStore store = PullRequestMetadataStore.load(rootDir, "source");
+        store.save();
+        assertThat(new File(rootDir, "bitbucket-pull-requests")).doesNotExist();
+
+        store.getTitles().put("1", "Fix the build");
+        store.getTitles().put("2", "Add a feature");
+        store.save();
+        File file = new File(rootDir, "bitbucket-pull-requests/source.xml");
+        assertThat(file).exists();
+
+        assertThat(file.setLastModified(0)).isTrue();
+        store.save();
+        assertThat(file.lastModified()).isZero();
+
+        store.getTitles().keySet().retainAll(Set.of("2"));
+        store.save();
+        assertThat(PullRequestMetadataStore.load(rootDir, "source").getTitles()).containsOnlyKeys("2");
+
+        store.getTitles().clear();
+        store.save();
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    void test_without_owner_directory_stays_in_memory() {
+        PullRequestMetadataStore store = PullRequestMetadataStore.load(null, "source");
+        store.getTitles().put("1", "Fix the build");
+        store.save();
+        assertThat(store.getTitles()).containsOnlyKeys("1");
+    }
+}
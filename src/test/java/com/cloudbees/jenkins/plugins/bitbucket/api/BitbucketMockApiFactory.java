@@ -35,14 +35,28 @@ import java.util.Objects;
 @Extension
 public class BitbucketMockApiFactory extends BitbucketApiFactory {
     private static final String NULL = "\u0000\u0000\u0000\u0000";
-    private final Map<String, BitbucketApi> mocks = new HashMap<>();
+    private final Map<String, ApiProvider> mocks = new HashMap<>();
+
+    /**
+     * Creates a client for each request, for the tests that need clients
+     * bound to the owner and repository or that survive being closed.
+     */
+    @FunctionalInterface
+    public interface ApiProvider {
+        BitbucketApi create(@Nullable BitbucketAuthenticator authenticator, @NonNull String owner,
+                            @CheckForNull String projectKey, @CheckForNull String repository);
+    }
 
     public static void clear() {
         instance().mocks.clear();
     }
 
     public static void add(String serverUrl, BitbucketApi api) {
-        instance().mocks.put(Objects.toString(serverUrl, NULL), api);
+        add(serverUrl, (authenticator, owner, projectKey, repository) -> api);
+    }
+
+    public static void add(String serverUrl, ApiProvider provider) {
+        instance().mocks.put(Objects.toString(serverUrl, NULL), provider);
     }
 
     public static void remove(String serverUrl) {
@@ -63,6 +77,6 @@ public class BitbucketMockApiFactory extends BitbucketApiFactory {
     @Override
     protected BitbucketApi create(@Nullable String serverUrl, @Nullable BitbucketAuthenticator authenticator,
                                   @NonNull String owner, @CheckForNull String projectKey, @CheckForNull String repository) {
-        return mocks.get(Objects.toString(serverUrl, NULL));
+        return mocks.get(Objects.toString(serverUrl, NULL)).create(authenticator, owner, projectKey, repository);
     }
 }
@@ -0,0 +1,168 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.benchmark;
+
+import com.cloudbees.jenkins.plugins.bitbucket.client.BitbucketCloudPage;
+import com.cloudbees.jenkins.plugins.bitbucket.client.branch.BitbucketCloudBranch;
+import com.cloudbees.jenkins.plugins.bitbucket.client.pullrequest.BitbucketCloudPullRequest;
+import com.cloudbees.jenkins.plugins.bitbucket.client.repository.BitbucketCloudRepository;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.JsonParser;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.PagedApiResponse;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.branch.BitbucketServerBranch;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.pullrequest.BitbucketServerPullRequest;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.repository.BitbucketServerRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Synthetic pages built from the recorded payloads of the integration tests.
+ * <p>
+ * The entries of the recorded page are repeated, with unique identifiers and
+ * names, until the page reaches the requested size.
+ */
+final class BenchmarkPayloads {
+
+    private static final String RESOURCE_ROOTPATH = "/com/cloudbees/jenkins/plugins/bitbucket/";
+
+    enum Payload {
+        CLOUD_BRANCHES(true, "client/payload/2.0-repositories-amuniz-test-repos-refs-branches_pagelen_100.json",
+                new TypeReference<BitbucketCloudPage<BitbucketCloudBranch>>() {}),
+        CLOUD_PULL_REQUESTS(true, "client/payload/2.0-repositories-amuniz-test-repos-pullrequests_pagelen_50.json",
+                new TypeReference<BitbucketCloudPage<BitbucketCloudPullRequest>>() {}),
+        CLOUD_REPOSITORIES(true, "client/payload/2.0-repositories-amuniz-test-repos.json",
+                new TypeReference<BitbucketCloudPage<BitbucketCloudRepository>>() {}),
+        SERVER_BRANCHES(false, "server/payload/1.0-projects-amuniz-repos-test-repos-branches_start_0_limit_200.json",
+                new TypeReference<PagedApiResponse<BitbucketServerBranch>>() {}),
+        SERVER_PULL_REQUESTS(false, "server/payload/1.0-projects-amuniz-repos-test-repos-pull-requests_start_0_limit_200.json",
+                new TypeReference<PagedApiResponse<BitbucketServerPullRequest>>() {}),
+        SERVER_REPOSITORIES(false, "server/payload/1.0-projects-amuniz-repos_start_0_limit_200.json",
+                new TypeReference<PagedApiResponse<BitbucketServerRepository>>() {});
+
+        private final boolean cloud;
+        private final String resource;
+        private final TypeReference<?> pageType;
+
+        Payload(boolean cloud, String resource, TypeReference<?> pageType) {
+            this.cloud = cloud;
+            this.resource = resource;
+            this.pageType = pageType;
+        }
+
+        TypeReference<?> pageType() {
+            return pageType;
+        }
+
+        /**
+         * Returns a single page with all the entries.
+         */
+        String page(int entries) throws IOException {
+            return pages(entries, entries).get(0);
+        }
+
+        /**
+         * Returns the pages of the given size that contain all the entries,
+         * linked together like the Bitbucket API does.
+         */
+        List<String> pages(int entries, int pageSize) throws IOException {
+            List<JsonNode> templates = templates();
+            List<String> pages = new ArrayList<>();
+            for (int start = 0; start < entries; start += pageSize) {
+                int end = Math.min(entries, start + pageSize);
+                ObjectNode page = JsonNodeFactory.instance.objectNode();
+                ArrayNode values = page.putArray("values");
+                for (int i = start; i < end; i++) {
+                    values.add(entry(templates.get(i % templates.size()), i));
+                }
+                int pageNumber = start / pageSize;
+                if (cloud) {
+                    page.put("pagelen", pageSize);
+                    page.put("page", pageNumber + 1);
+                    page.put("size", entries);
+                    if (end < entries) {
+                        page.put("next", "https://api.bitbucket.org/2.0/benchmark?page=" + (pageNumber + 2));
+                    }
+                } else {
+                    page.put("size", end - start);
+                    page.put("limit", pageSize);
+                    page.put("start", start);
+                    page.put("isLastPage", end >= entries);
+                    if (end < entries) {
+                        page.put("nextPageStart", end);
+                    }
+                }
+                pages.add(JsonParser.toString(page));
+            }
+            return pages;
+        }
+
+        private List<JsonNode> templates() throws IOException {
+            try (InputStream json = BenchmarkPayloads.class.getResourceAsStream(RESOURCE_ROOTPATH + resource)) {
+                if (json == null) {
+                    throw new FileNotFoundException("Payload " + resource + " could not be found");
+                }
+                JsonNode payload = JsonParser.toJson(IOUtils.toString(json, StandardCharsets.UTF_8));
+                List<JsonNode> templates = new ArrayList<>();
+                if (payload.has("values")) {
+                    payload.get("values").forEach(templates::add);
+                } else {
+                    templates.add(payload);
+                }
+                return templates;
+            }
+        }
+    }
+
+    private BenchmarkPayloads() {
+    }
+
+    /*
+     * Makes the attributes used as keys unique, as in a real repository.
+     */
+    private static JsonNode entry(JsonNode template, int index) {
+        ObjectNode entry = template.deepCopy();
+        JsonNode id = entry.get("id");
+        if (id != null && id.isNumber()) {
+            entry.put("id", index);
+        } else if (id != null && id.isTextual()) {
+            entry.put("id", id.asText() + "-" + index);
+        }
+        for (String key : new String[] {"name", "displayId", "slug", "title", "full_name"}) {
+            JsonNode value = entry.get(key);
+            if (value != null && value.isTextual()) {
+                entry.put(key, value.asText() + "-" + index);
+            }
+        }
+        return entry;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the JMH benchmarks of this package with the GC profiler and compares
+ * the results with the stored baseline.
+ * <p>
+ * Run with {@code mvn test -Dbenchmark -Dtest=BenchmarkRunner}. A benchmark
+ * fails when its throughput is lower, or its allocation per operation is
+ * higher, than the baseline by more than {@code benchmark.tolerance} (20% by
+ * default). The results of the run are written in {@code target/jmh}, with
+ * a baseline candidate to replace the stored one when a change is expected.
+ * Throughput depends on the hardware, record the baseline on the machine
+ * where the benchmarks run.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = ".*")
+class BenchmarkRunner {
+
+    private static final String BASELINE = "baseline.properties";
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    @Test
+    void run_benchmarks() throws Exception {
+        Path reportDir = Path.of("target", "jmh");
+        Files.createDirectories(reportDir);
+        Options options = new OptionsBuilder()
+                .include(getClass().getPackageName() + "\\." + System.getProperty("benchmark.include", ".*Benchmark"))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(reportDir.resolve("results.json").toString())
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+        assertThat(results).isNotEmpty();
+
+        double tolerance = Double.parseDouble(System.getProperty("benchmark.tolerance", "0.2"));
+        Properties baseline = loadBaseline();
+        Properties candidate = new Properties();
+        List<String> regressions = new ArrayList<>();
+        for (RunResult result : results) {
+            String key = keyOf(result.getParams());
+
+            double score = result.getPrimaryResult().getScore();
+            candidate.setProperty(key + ".score", format(score));
+            String expectedScore = baseline.getProperty(key + ".score");
+            if (expectedScore != null && score < Double.parseDouble(expectedScore) * (1 - tolerance)) {
+                regressions.add(key + " throughput " + format(score) + " ops/s, baseline " + expectedScore);
+            }
+
+            Double allocation = allocationOf(result);
+            if (allocation != null) {
+                candidate.setProperty(key + ".alloc", format(allocation));
+                String expectedAllocation = baseline.getProperty(key + ".alloc");
+                if (expectedAllocation != null && allocation > Double.parseDouble(expectedAllocation) * (1 + tolerance)) {
+                    regressions.add(key + " allocation " + format(allocation) + " B/op, baseline " + expectedAllocation);
+                }
+            }
+        }
+        try (Writer writer = Files.newBufferedWriter(reportDir.resolve(BASELINE), StandardCharsets.ISO_8859_1)) {
+            candidate.store(writer, "Candidate baseline, copy to src/test/resources/" + getClass().getPackageName().replace('.', '/') + "/" + BASELINE);
+        }
+
+        assertThat(regressions).describedAs("Benchmarks regressed compared to the baseline").isEmpty();
+    }
+
+    private static Properties loadBaseline() throws IOException {
+        Properties baseline = new Properties();
+        try (InputStream is = BenchmarkRunner.class.getResourceAsStream(BASELINE)) {
+            if (is != null) {
+                baseline.load(is);
+            }
+        }
+        return baseline;
+    }
+
+    /*
+     * For example JsonParserBenchmark.toJava.10000.CLOUD_BRANCHES
+     */
+    private static String keyOf(BenchmarkParams params) {
+        String benchmark = params.getBenchmark();
+        StringBuilder key = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1));
+        for (String param : new TreeSet<>(params.getParamsKeys())) {
+            key.append('.').append(params.getParam(param));
+        }
+        return key.toString();
+    }
+
+    private static Double allocationOf(RunResult result) {
+        for (Map.Entry<String, Result> secondary : result.getSecondaryResults().entrySet()) {
+            // the profiler prefixes the name with a middle dot in older JMH versions
+            if (secondary.getKey().endsWith(ALLOCATION)) {
+                return secondary.getValue().getScore();
+            }
+        }
+        return null;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+}
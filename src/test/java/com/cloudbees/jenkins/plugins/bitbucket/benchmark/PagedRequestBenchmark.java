@@ -0,0 +1,132 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.benchmark;
+
+import com.cloudbees.jenkins.plugins.bitbucket.benchmark.BenchmarkPayloads.Payload;
+import com.cloudbees.jenkins.plugins.bitbucket.client.BitbucketCloudApiClient;
+import com.cloudbees.jenkins.plugins.bitbucket.server.BitbucketServerWebhookImplementation;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.BitbucketServerAPIClient;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the paging of the Bitbucket Cloud and Server clients, the pages
+ * are served from memory so that only the client side work is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PagedRequestBenchmark {
+
+    // the page sizes requested by the clients
+    private static final int CLOUD_PAGE_LENGTH = 100;
+    private static final int SERVER_PAGE_LIMIT = 200;
+
+    @Param({"100", "10000"})
+    public int entries;
+
+    private CloudClient cloud;
+    private ServerClient server;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        cloud = new CloudClient(Payload.CLOUD_BRANCHES.pages(entries, CLOUD_PAGE_LENGTH));
+        server = new ServerClient(Payload.SERVER_BRANCHES.pages(entries, SERVER_PAGE_LIMIT));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        cloud.close();
+        server.close();
+    }
+
+    @Benchmark
+    public Object cloudGetPagedRequest() throws IOException {
+        return cloud.getBranches();
+    }
+
+    @Benchmark
+    public Object serverGetPagedRequest() throws IOException {
+        return server.getBranches();
+    }
+
+    private static String page(List<String> pages, String url, Pattern index, int offset, int divisor) throws IOException {
+        Matcher matcher = index.matcher(url);
+        int page = matcher.find() ? (Integer.parseInt(matcher.group(1)) - offset) / divisor : 0;
+        if (page < 0 || page >= pages.size()) {
+            throw new FileNotFoundException(url);
+        }
+        return pages.get(page);
+    }
+
+    private static class CloudClient extends BitbucketCloudApiClient {
+        private static final Pattern PAGE = Pattern.compile("[?&]page=(\\d+)");
+        private final List<String> pages;
+
+        CloudClient(List<String> pages) {
+            super(false, 0, 0, "amuniz", null, "test-repos", null);
+            this.pages = pages;
+        }
+
+        @Override
+        protected String getRequest(String path) throws IOException {
+            return page(pages, path, PAGE, 1, 1);
+        }
+    }
+
+    private static class ServerClient extends BitbucketServerAPIClient {
+        private static final Pattern START = Pattern.compile("[?&]start=(\\d+)");
+        private final List<String> pages;
+
+        ServerClient(List<String> pages) {
+            super("https://bitbucket.example.com", "amuniz", "test-repos", null, false, BitbucketServerWebhookImplementation.PLUGIN);
+            this.pages = pages;
+        }
+
+        @Override
+        protected String getRequest(String path) throws IOException {
+            return page(pages, path, START, 0, SERVER_PAGE_LIMIT);
+        }
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.benchmark;
+
+import com.cloudbees.jenkins.plugins.bitbucket.BitbucketSCMNavigator;
+import com.cloudbees.jenkins.plugins.bitbucket.BitbucketSCMSource;
+import com.cloudbees.jenkins.plugins.bitbucket.MockMultiBranchProjectImpl;
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketMockApiFactory;
+import com.cloudbees.jenkins.plugins.bitbucket.client.BitbucketCloudApiClient;
+import com.cloudbees.jenkins.plugins.bitbucket.endpoints.BitbucketEndpointConfiguration;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.endpoint.BitbucketCloudEndpoint;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.endpoint.BitbucketServerEndpoint;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketApiUtils;
+import com.cloudbees.jenkins.plugins.bitbucket.trait.BranchDiscoveryTrait;
+import com.cloudbees.jenkins.plugins.bitbucket.trait.ForkPullRequestDiscoveryTrait;
+import com.cloudbees.jenkins.plugins.bitbucket.trait.OriginPullRequestDiscoveryTrait;
+import com.cloudbees.jenkins.plugins.bitbucket.trait.TagDiscoveryTrait;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.TaskListener;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import jenkins.scm.api.SCMHeadObserver;
+import jenkins.scm.api.SCMSource;
+import jenkins.scm.api.SCMSourceCriteria;
+import jenkins.scm.api.SCMSourceObserver;
+import jenkins.scm.api.SCMSourceOwner;
+import jenkins.scm.api.mixin.ChangeRequestCheckoutStrategy;
+import jenkins.scm.api.trait.SCMSourceTrait;
+import jenkins.scm.api.trait.SCMTrait;
+import org.apache.hc.core5.http.HttpHost;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.junit.jupiter.MockServerExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockserver.model.HttpRequest.request;
+
+/**
+ * Indexes the synthetic repositories of {@link SyntheticBitbucket} with the
+ * Bitbucket Server and Cloud clients, for a single repository and for all
+ * the repositories of the owner, and reports for each scan the wall time,
+ * the HTTP requests per discovered head, the bytes received and the heap
+ * allocated by the scanning thread.
+ * <p>
+ * Run with {@code mvn test -Dbenchmark -Dtest=ScanBenchmark}. The data and
+ * the latency of the API are set with the {@code benchmark.scan.*} system
+ * properties of {@link SyntheticBitbucket.Settings}, the number of measured
+ * scans with {@code benchmark.scan.iterations}. The averages are printed
+ * with the requests by operation and written in
+ * {@code target/benchmark/scan.properties}.
+ */
+@WithJenkins
+@ExtendWith(MockServerExtension.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = ".*")
+class ScanBenchmark {
+
+    private static final String OWNER = "bench";
+    private static final int WARMUP = Integer.getInteger("benchmark.scan.warmup", 1);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.scan.iterations", 3);
+    private static final SCMSourceCriteria JENKINSFILE_CRITERIA =
+            (probe, listener) -> probe.stat(SyntheticBitbucket.JENKINSFILE).exists();
+
+    private static JenkinsRule rule;
+    private static SyntheticBitbucket bitbucket;
+    private static MockMultiBranchProjectImpl project;
+    private static final Properties REPORT = new Properties();
+
+    @FunctionalInterface
+    private interface Scan {
+        /*
+         * Returns the number of heads discovered.
+         */
+        int run() throws Exception;
+    }
+
+    @BeforeAll
+    static void init(JenkinsRule r) throws Exception {
+        rule = r;
+        bitbucket = new SyntheticBitbucket(new SyntheticBitbucket.Settings());
+        project = rule.jenkins.createProject(MockMultiBranchProjectImpl.class, "benchmark");
+        System.out.println("Scan benchmark of " + bitbucket.settings());
+    }
+
+    @AfterAll
+    static void writeReport() throws IOException {
+        Path reportDir = Path.of("target", "benchmark");
+        Files.createDirectories(reportDir);
+        try (Writer writer = Files.newBufferedWriter(reportDir.resolve("scan.properties"), StandardCharsets.ISO_8859_1)) {
+            REPORT.store(writer, bitbucket.settings().toString());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        BitbucketMockApiFactory.remove(BitbucketCloudEndpoint.SERVER_URL);
+    }
+
+    @Test
+    void server_repository(ClientAndServer mockServer) throws Exception {
+        String serverUrl = mockServer(mockServer);
+        BitbucketEndpointConfiguration.get()
+                .addEndpoint(new BitbucketServerEndpoint("benchmark", serverUrl, false, null, false, null));
+
+        BitbucketSCMSource source = source(OWNER.toUpperCase(Locale.ROOT), SyntheticBitbucket.repositoryName(0));
+        source.setServerUrl(serverUrl);
+        measure("server.repository", () -> fetch(source));
+    }
+
+    @Test
+    void server_project(ClientAndServer mockServer) throws Exception {
+        String serverUrl = mockServer(mockServer);
+        BitbucketEndpointConfiguration.get()
+                .addEndpoint(new BitbucketServerEndpoint("benchmark", serverUrl, false, null, false, null));
+
+        BitbucketSCMNavigator navigator = new BitbucketSCMNavigator(OWNER.toUpperCase(Locale.ROOT));
+        navigator.setServerUrl(serverUrl);
+        navigator.setTraits(new ArrayList<SCMTrait<? extends SCMTrait<?>>>(traits()));
+        measure("server.project", () -> visit(navigator));
+    }
+
+    @Test
+    void cloud_repository(ClientAndServer mockServer) throws Exception {
+        String serverUrl = mockServer(mockServer);
+        BitbucketMockApiFactory.add(BitbucketCloudEndpoint.SERVER_URL, (authenticator, owner, projectKey, repository) ->
+                new LocalCloudApiClient(serverUrl, owner, projectKey, repository, authenticator));
+
+        BitbucketSCMSource source = source(OWNER, SyntheticBitbucket.repositoryName(0));
+        measure("cloud.repository", () -> fetch(source));
+    }
+
+    @Test
+    void cloud_workspace(ClientAndServer mockServer) throws Exception {
+        String serverUrl = mockServer(mockServer);
+        BitbucketMockApiFactory.add(BitbucketCloudEndpoint.SERVER_URL, (authenticator, owner, projectKey, repository) ->
+                new LocalCloudApiClient(serverUrl, owner, projectKey, repository, authenticator));
+
+        BitbucketSCMNavigator navigator = new BitbucketSCMNavigator(OWNER);
+        navigator.setTraits(new ArrayList<SCMTrait<? extends SCMTrait<?>>>(traits()));
+        measure("cloud.workspace", () -> visit(navigator));
+    }
+
+    private static String mockServer(ClientAndServer mockServer) {
+        mockServer.reset();
+        mockServer.when(request()).respond(bitbucket);
+        return "http://localhost:" + mockServer.getPort();
+    }
+
+    private static List<SCMSourceTrait> traits() {
+        return List.of(
+                new BranchDiscoveryTrait(true, true),
+                new OriginPullRequestDiscoveryTrait(EnumSet.of(ChangeRequestCheckoutStrategy.HEAD)),
+                new ForkPullRequestDiscoveryTrait(EnumSet.of(ChangeRequestCheckoutStrategy.HEAD),
+                        new ForkPullRequestDiscoveryTrait.TrustEveryone()),
+                new TagDiscoveryTrait());
+    }
+
+    private static BitbucketSCMSource source(String owner, String repository) {
+        BitbucketSCMSource source = new BitbucketSCMSource(owner, repository);
+        source.setTraits(traits());
+        source.setOwner(project);
+        return source;
+    }
+
+    private static int fetch(SCMSource source) throws IOException, InterruptedException {
+        SCMHeadObserver.Collector collector = SCMHeadObserver.collect();
+        source.fetch(JENKINSFILE_CRITERIA, collector, null, TaskListener.NULL);
+        return collector.result().size();
+    }
+
+    /*
+     * Discovers the repositories of the owner and indexes each of them, as an
+     * organization folder does.
+     */
+    private static int visit(BitbucketSCMNavigator navigator) throws IOException, InterruptedException {
+        SourceCollector observer = new SourceCollector(project);
+        navigator.visitSources(observer);
+        int heads = 0;
+        for (SCMSource source : observer.sources) {
+            source.setOwner(project);
+            heads += fetch(source);
+        }
+        return heads;
+    }
+
+    private static void measure(String name, Scan scan) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            scan.run();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long wall = 0;
+        long allocated = 0;
+        long requests = 0;
+        long bytes = 0;
+        long heads = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            bitbucket.reset();
+            long allocatedStart = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            heads += scan.run();
+            wall += System.nanoTime() - start;
+            allocated += threads.getCurrentThreadAllocatedBytes() - allocatedStart;
+            requests += bitbucket.requests();
+            bytes += bitbucket.bytes();
+        }
+        assertThat(heads).describedAs("Heads discovered by %s", name).isPositive();
+
+        REPORT.setProperty(name + ".heads", String.valueOf(heads / ITERATIONS));
+        REPORT.setProperty(name + ".wall.ms", String.valueOf(wall / ITERATIONS / 1_000_000));
+        REPORT.setProperty(name + ".requests", String.valueOf(requests / ITERATIONS));
+        REPORT.setProperty(name + ".requestsPerHead", String.format(Locale.ROOT, "%.2f", (double) requests / heads));
+        REPORT.setProperty(name + ".bytes", String.valueOf(bytes / ITERATIONS));
+        REPORT.setProperty(name + ".allocated", String.valueOf(allocated / ITERATIONS));
+
+        StringBuilder summary = new StringBuilder(String.format(Locale.ROOT,
+                "%s: %d heads in %d ms, %d requests (%.2f per head), %d KiB received, %d MiB allocated%n",
+                name, heads / ITERATIONS, wall / ITERATIONS / 1_000_000, requests / ITERATIONS, (double) requests / heads,
+                bytes / ITERATIONS / 1024, allocated / ITERATIONS / (1024 * 1024)));
+        // the requests of the last scan
+        for (Map.Entry<String, Long> operation : bitbucket.operations().entrySet()) {
+            summary.append(String.format(Locale.ROOT, "  %6d %s%n", operation.getValue(), operation.getKey()));
+        }
+        System.out.print(summary);
+    }
+
+    /*
+     * Sends the requests of the Cloud client to the mock server.
+     */
+    private static class LocalCloudApiClient extends BitbucketCloudApiClient {
+        private final String serverUrl;
+        private final HttpHost host;
+
+        LocalCloudApiClient(String serverUrl, String owner, String projectKey, String repository, BitbucketAuthenticator authenticator) {
+            super(false, 0, 0, owner, projectKey, repository, authenticator);
+            this.serverUrl = serverUrl;
+            this.host = BitbucketApiUtils.toHttpHost(serverUrl);
+        }
+
+        private String local(String url) {
+            return url.startsWith(SyntheticBitbucket.CLOUD_API_URL)
+                    ? serverUrl + url.substring(SyntheticBitbucket.CLOUD_API_URL.length())
+                    : url;
+        }
+
+        @NonNull
+        @Override
+        protected HttpHost getHost() {
+            // also called by the constructor of the super class
+            return host != null ? host : super.getHost();
+        }
+
+        @Override
+        protected String getRequest(String path) throws IOException {
+            return super.getRequest(local(path));
+        }
+
+        @Override
+        protected InputStream getRequestAsInputStream(String path) throws IOException {
+            return super.getRequestAsInputStream(local(path));
+        }
+
+        @Override
+        protected int headRequestStatus(String path) throws IOException {
+            return super.headRequestStatus(local(path));
+        }
+
+        @Override
+        protected String postRequest(String path, String content) throws IOException {
+            return super.postRequest(local(path), content);
+        }
+
+        @Override
+        protected String putRequest(String path, String content) throws IOException {
+            return super.putRequest(local(path), content);
+        }
+
+        @Override
+        protected String deleteRequest(String path) throws IOException {
+            return super.deleteRequest(local(path));
+        }
+    }
+
+    private static class SourceCollector extends SCMSourceObserver {
+        private final SCMSourceOwner context;
+        private final List<SCMSource> sources = new ArrayList<>();
+
+        SourceCollector(SCMSourceOwner context) {
+            this.context = context;
+        }
+
+        @NonNull
+        @Override
+        public SCMSourceOwner getContext() {
+            return context;
+        }
+
+        @NonNull
+        @Override
+        public TaskListener getListener() {
+            return TaskListener.NULL;
+        }
+
+        @NonNull
+        @Override
+        public ProjectObserver observe(@NonNull String projectName) {
+            return new ProjectObserver() {
+                @Override
+                public void addSource(@NonNull SCMSource source) {
+                    sources.add(source);
+                }
+
+                @Override
+                public void addAttribute(@NonNull String key, Object value) {
+                }
+
+                @Override
+                public void complete() {
+                }
+            };
+        }
+
+        @Override
+        public void addAttribute(@NonNull String key, Object value) {
+        }
+    }
+}
@@ -0,0 +1,585 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.benchmark;
+
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.regex.Pattern;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.mockserver.mock.action.ExpectationResponseCallback;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.model.HttpResponse;
+
+import static org.mockserver.model.HttpResponse.response;
+
+/**
+ * A Bitbucket Server and Cloud REST API served by MockServer, with synthetic
+ * repositories built from the recorded payloads of the integration tests.
+ * <p>
+ * All the repositories of an owner have the same shape, a {@code main}
+ * branch plus the configured number of branches, tags and pull requests, part
+ * of the pull requests come from forks. Commit hashes derive from the ref
+ * names and the presence of the Jenkinsfile from the commit hash, so every
+ * run with the same settings scans the same data.
+ * <p>
+ * Every response is delayed by the configured latency and counted, by
+ * operation, together with the size of its body.
+ */
+final class SyntheticBitbucket implements ExpectationResponseCallback {
+
+    static final String CLOUD_API_URL = "https://api.bitbucket.org";
+    static final String MAIN_BRANCH = "main";
+    static final String JENKINSFILE = "Jenkinsfile";
+
+    private static final String RESOURCE_ROOTPATH = "/com/cloudbees/jenkins/plugins/bitbucket/";
+    private static final String SERVER_API_PATH = "/rest/api/1.0/";
+    private static final String CLOUD_API_PATH = "/2.0/";
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{40}");
+    // rewrite the variable parts of a request path to group requests by operation
+    private static final Map<Pattern, String> OPERATIONS = new LinkedHashMap<>();
+    static {
+        OPERATIONS.put(Pattern.compile("/(src|browse)/.*"), "/$1/{path}");
+        OPERATIONS.put(Pattern.compile("/refs/(branches|tags)/.+"), "/refs/$1/{name}");
+        OPERATIONS.put(Pattern.compile("/tags/.+"), "/tags/{name}");
+        OPERATIONS.put(Pattern.compile("/repositories/[^/]+/[^/]+"), "/repositories/{owner}/{repo}");
+        OPERATIONS.put(Pattern.compile("/repositories/[^/]+$"), "/repositories/{owner}");
+        OPERATIONS.put(Pattern.compile("/workspaces/[^/]+"), "/workspaces/{owner}");
+        OPERATIONS.put(Pattern.compile("/projects/[^/]+"), "/projects/{owner}");
+        OPERATIONS.put(Pattern.compile("/repos/[^/]+"), "/repos/{repo}");
+        OPERATIONS.put(Pattern.compile("/[0-9a-f]{40}"), "/{hash}");
+        OPERATIONS.put(Pattern.compile("/\\d+(?=/|$)"), "/{id}");
+    }
+
+    /**
+     * The shape of the generated data, read from the
+     * {@code benchmark.scan.*} system properties.
+     */
+    static final class Settings {
+        final int repositories = Integer.getInteger("benchmark.scan.repositories", 10);
+        final int branches = Integer.getInteger("benchmark.scan.branches", 100);
+        final int pullRequests = Integer.getInteger("benchmark.scan.pullRequests", 50);
+        final int tags = Integer.getInteger("benchmark.scan.tags", 20);
+        // percentage of the pull requests that come from a fork
+        final int forks = Integer.getInteger("benchmark.scan.forks", 20);
+        // percentage of the commits that contain a Jenkinsfile
+        final int jenkinsfile = Integer.getInteger("benchmark.scan.jenkinsfile", 80);
+        // milliseconds added to every response
+        final long latency = Long.getLong("benchmark.scan.latency", 20);
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "repositories=%d branches=%d pullRequests=%d tags=%d forks=%d%% jenkinsfile=%d%% latency=%dms",
+                    repositories, branches, pullRequests, tags, forks, jenkinsfile, latency);
+        }
+    }
+
+    private final Settings settings;
+    private final ConcurrentMap<String, JsonNode> templates = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> operations = new ConcurrentHashMap<>();
+
+    SyntheticBitbucket(Settings settings) {
+        this.settings = settings;
+    }
+
+    Settings settings() {
+        return settings;
+    }
+
+    static String repositoryName(int index) {
+        return "repository-" + index;
+    }
+
+    void reset() {
+        requests.reset();
+        bytes.reset();
+        operations.clear();
+    }
+
+    long requests() {
+        return requests.sum();
+    }
+
+    long bytes() {
+        return bytes.sum();
+    }
+
+    /**
+     * Returns the number of requests by operation, for example
+     * {@code HEAD /2.0/repositories/{owner}/{repo}/src/{path} 200}.
+     */
+    Map<String, Long> operations() {
+        Map<String, Long> result = new TreeMap<>();
+        operations.forEach((operation, count) -> result.put(operation, count.sum()));
+        return result;
+    }
+
+    @Override
+    public HttpResponse handle(HttpRequest request) throws Exception {
+        String method = request.getMethod().getValue();
+        String path = request.getPath().getValue();
+        HttpResponse response;
+        if (path.startsWith(SERVER_API_PATH)) {
+            response = server(method, path.substring(SERVER_API_PATH.length()).split("/"), request);
+        } else if (path.startsWith(CLOUD_API_PATH)) {
+            response = cloud(method, path.substring(CLOUD_API_PATH.length()).split("/"), request);
+        } else {
+            response = status(404);
+        }
+
+        String operation = path;
+        for (Map.Entry<Pattern, String> rewrite : OPERATIONS.entrySet()) {
+            operation = rewrite.getKey().matcher(operation).replaceAll(rewrite.getValue());
+        }
+        requests.increment();
+        operations.computeIfAbsent(method + " " + operation + " " + response.getStatusCode(), k -> new LongAdder()).increment();
+        String body = response.getBodyAsString();
+        if (body != null) {
+            bytes.add(body.getBytes(StandardCharsets.UTF_8).length);
+        }
+        return response.withDelay(TimeUnit.MILLISECONDS, settings.latency);
+    }
+
+    /*
+     * Routes the path relative to /rest/api/1.0, for example
+     * projects/{key}/repos/{slug}/branches.
+     */
+    private HttpResponse server(String method, String[] path, HttpRequest request) {
+        if (path.length < 2 || !"projects".equals(path[0])) {
+            return status(404);
+        }
+        String key = path[1];
+        if (path.length == 2) {
+            return json(template("server/payload/1.0-projects-amuniz.json", key, null));
+        }
+        if (!"repos".equals(path[2])) {
+            return status(404);
+        }
+        if (path.length == 3) {
+            return json(serverPage(request, settings.repositories, i -> template("server/payload/1.0-projects-amuniz-repos-test-repos.json", key, repositoryName(i))));
+        }
+        String slug = path[3];
+        if (path.length == 4) {
+            return json(template("server/payload/1.0-projects-amuniz-repos-test-repos.json", key, slug));
+        }
+        String resource = path[4];
+        String rest = URLDecoder.decode(String.join("/", Arrays.copyOfRange(path, 5, path.length)), StandardCharsets.UTF_8);
+        switch (resource) {
+            case "branches":
+                if ("default".equals(rest)) {
+                    return json(serverRef(key, slug, MAIN_BRANCH, false));
+                }
+                String filter = request.getFirstQueryStringParameter("filterText");
+                List<String> branches = branchNames().stream()
+                        .filter(name -> StringUtils.isEmpty(filter) || name.contains(filter))
+                        .toList();
+                return json(serverPage(request, branches.size(), i -> serverRef(key, slug, branches.get(i), false)));
+            case "tags":
+                if (!rest.isEmpty()) {
+                    return tagNames().contains(rest) ? json(serverRef(key, slug, rest, true)) : status(404);
+                }
+                return json(serverPage(request, settings.tags, i -> serverRef(key, slug, tagNames().get(i), true)));
+            case "pull-requests":
+                if (rest.isEmpty()) {
+                    return json(serverPage(request, settings.pullRequests, i -> serverPullRequest(key, slug, i + 1)));
+                }
+                String[] pull = rest.split("/");
+                int id = Integer.parseInt(pull[0]);
+                if (id < 1 || id > settings.pullRequests) {
+                    return status(404);
+                }
+                if (pull.length == 1) {
+                    return json(serverPullRequest(key, slug, id));
+                } else if ("merge".equals(pull[1])) {
+                    ObjectNode merge = JsonNodeFactory.instance.objectNode();
+                    merge.put("canMerge", true);
+                    merge.put("conflicted", false);
+                    merge.put("outcome", "CLEAN");
+                    merge.putArray("vetoes");
+                    return json(merge);
+                } else if ("changes".equals(pull[1])) {
+                    return json(serverPage(request, 0, null));
+                }
+                return status(404);
+            case "commits":
+                ObjectNode commit = template("server/payload/1.0-projects-amuniz-repos-test-repos-commits-046d9a3c1532acf4cf08fe93235c00e4d673c1d2.json", key, slug);
+                commit.put("id", rest);
+                commit.put("displayId", rest.substring(0, Math.min(11, rest.length())));
+                return json(commit);
+            case "browse":
+                if (!hasJenkinsfile(slug, rest, request.getFirstQueryStringParameter("at"))) {
+                    return status(404);
+                } else if ("HEAD".equals(method)) {
+                    return status(200);
+                }
+                ObjectNode content = JsonNodeFactory.instance.objectNode();
+                content.putArray("lines").addObject().put("text", "pipeline {}");
+                content.put("start", 0);
+                content.put("size", 1);
+                content.put("isLastPage", true);
+                return json(content);
+            case "webhooks":
+                return json(serverPage(request, 0, null));
+            default:
+                return status(404);
+        }
+    }
+
+    /*
+     * Routes the path relative to /2.0, for example
+     * repositories/{owner}/{slug}/refs/branches.
+     */
+    private HttpResponse cloud(String method, String[] path, HttpRequest request) {
+        // without a workspace the owner is scanned as a user
+        if (path.length < 2 || !"repositories".equals(path[0])) {
+            return status(404);
+        }
+        String owner = path[1];
+        if (path.length == 2) {
+            return json(cloudPage(request, settings.repositories, i -> template("client/payload/2.0-repositories-amuniz-test-repos.json", owner, repositoryName(i))));
+        }
+        String slug = path[2];
+        if (path.length == 3) {
+            return json(project(template("client/payload/2.0-repositories-amuniz-test-repos.json", owner, slug), request));
+        }
+        String resource = path[3];
+        String rest = URLDecoder.decode(String.join("/", Arrays.copyOfRange(path, 4, path.length)), StandardCharsets.UTF_8);
+        switch (resource) {
+            case "refs":
+                boolean tag = rest.startsWith("tags");
+                String name = StringUtils.substringAfter(rest, "/");
+                List<String> names = tag ? tagNames() : branchNames();
+                if (!name.isEmpty()) {
+                    return names.contains(name) ? json(cloudRef(owner, slug, name, tag)) : status(404);
+                }
+                return json(cloudPage(request, names.size(), i -> cloudRef(owner, slug, names.get(i), tag)));
+            case "pullrequests":
+                if (rest.isEmpty()) {
+                    return json(cloudPage(request, settings.pullRequests, i -> cloudPullRequest(owner, slug, i + 1)));
+                }
+                String[] pull = rest.split("/");
+                int id = Integer.parseInt(pull[0]);
+                if (id < 1 || id > settings.pullRequests) {
+                    return status(404);
+                }
+                if (pull.length == 1) {
+                    return json(project(cloudPullRequest(owner, slug, id), request));
+                } else if ("commits".equals(pull[1])) {
+                    String hash = cloudPullRequest(owner, slug, id).get("source").get("commit").get("hash").asText();
+                    return json(cloudPage(request, 1, i -> cloudCommit(owner, slug, hash)));
+                }
+                return status(404);
+            case "commit":
+                return json(cloudCommit(owner, slug, rest));
+            case "src":
+                String ref = StringUtils.substringBefore(rest, "/");
+                String file = StringUtils.substringAfter(rest, "/");
+                if (!hasJenkinsfile(slug, file, ref)) {
+                    return status(404);
+                } else if ("HEAD".equals(method)) {
+                    return status(200);
+                } else if ("meta".equals(request.getFirstQueryStringParameter("format"))) {
+                    ObjectNode meta = JsonNodeFactory.instance.objectNode();
+                    meta.put("path", file);
+                    meta.put("type", "commit_file");
+                    meta.putObject("commit").put("hash", hash(slug, ref));
+                    return json(meta);
+                }
+                return response().withStatusCode(200).withBody("pipeline {}");
+            case "hooks":
+                return json(cloudPage(request, 0, null));
+            default:
+                return status(404);
+        }
+    }
+
+    private List<String> branchNames() {
+        List<String> names = new ArrayList<>();
+        names.add(MAIN_BRANCH);
+        for (int i = 1; i < settings.branches; i++) {
+            names.add("feature/branch-" + i);
+        }
+        return names;
+    }
+
+    private List<String> tagNames() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < settings.tags; i++) {
+            names.add("v1.0." + i);
+        }
+        return names;
+    }
+
+    private boolean isFork(int id) {
+        return (id - 1) % 100 < settings.forks;
+    }
+
+    /*
+     * The origin branch of a pull request, those from forks have a branch with
+     * the same name in the fork.
+     */
+    private String pullRequestBranch(int id) {
+        return settings.branches > 1 ? "feature/branch-" + (1 + (id - 1) % (settings.branches - 1)) : MAIN_BRANCH;
+    }
+
+    private ObjectNode serverRef(String key, String slug, String name, boolean tag) {
+        ObjectNode ref = template(tag
+                ? "server/payload/1.0-projects-amuniz-repos-test-repos-tags-v0.0.0.json"
+                : "server/payload/1.0-projects-amuniz-repos-test-repos-branches_filterText_main_start_0_limit_200.json", key, slug);
+        if (ref.has("values")) {
+            ref = (ObjectNode) ref.get("values").get(0);
+        }
+        String hash = hash(slug, name);
+        ref.put("id", (tag ? "refs/tags/" : "refs/heads/") + name);
+        ref.put("displayId", name);
+        ref.put("latestCommit", hash);
+        ref.put("latestChangeset", hash);
+        if (ref.has("hash")) {
+            ref.put("hash", hash);
+        }
+        if (!tag) {
+            ref.put("isDefault", MAIN_BRANCH.equals(name));
+        }
+        return ref;
+    }
+
+    private ObjectNode serverPullRequest(String key, String slug, int id) {
+        ObjectNode pull = (ObjectNode) template("server/payload/1.0-projects-amuniz-repos-test-repos-pull-requests_start_0_limit_200.json", key, slug)
+                .get("values").get(0);
+        String branch = pullRequestBranch(id);
+        pull.put("id", id);
+        pull.put("title", "Pull request " + id);
+        ObjectNode to = (ObjectNode) pull.get("toRef");
+        to.put("id", "refs/heads/" + MAIN_BRANCH);
+        to.put("displayId", MAIN_BRANCH);
+        to.put("latestCommit", hash(slug, MAIN_BRANCH));
+        ObjectNode from = (ObjectNode) pull.get("fromRef");
+        from.put("id", "refs/heads/" + branch);
+        from.put("displayId", branch);
+        if (isFork(id)) {
+            String fork = "~FORKER" + id;
+            from.put("latestCommit", hash(fork + "/" + slug, branch));
+            ObjectNode repository = (ObjectNode) from.get("repository");
+            repository.put("slug", slug);
+            repository.put("name", slug);
+            ((ObjectNode) repository.get("project")).put("key", fork);
+        } else {
+            from.put("latestCommit", hash(slug, branch));
+            from.set("repository", to.get("repository").deepCopy());
+        }
+        return pull;
+    }
+
+    private ObjectNode cloudRef(String owner, String slug, String name, boolean tag) {
+        ObjectNode ref = template(tag
+                ? "client/payload/2.0-repositories-amuniz-test-repos-refs-tags-v0.0.0.json"
+                : "client/payload/2.0-repositories-amuniz-test-repos-refs-branches-main.json", owner, slug);
+        ref.put("name", name);
+        ((ObjectNode) ref.get("target")).put("hash", hash(slug, name));
+        return ref;
+    }
+
+    private ObjectNode cloudPullRequest(String owner, String slug, int id) {
+        ObjectNode pull = template("client/payload/2.0-repositories-amuniz-test-repos-pullrequests-1.json", owner, slug);
+        String branch = pullRequestBranch(id);
+        pull.put("id", id);
+        pull.put("title", "Pull request " + id);
+        ObjectNode destination = (ObjectNode) pull.get("destination");
+        ((ObjectNode) destination.get("branch")).put("name", MAIN_BRANCH);
+        ((ObjectNode) destination.get("commit")).put("hash", hash(slug, MAIN_BRANCH));
+        ObjectNode source = (ObjectNode) pull.get("source");
+        ((ObjectNode) source.get("branch")).put("name", branch);
+        String sourceOwner = isFork(id) ? "forker-" + id : owner;
+        ((ObjectNode) source.get("commit")).put("hash", hash(isFork(id) ? sourceOwner + "/" + slug : slug, branch));
+        ObjectNode repository = (ObjectNode) source.get("repository");
+        repository.put("name", slug);
+        repository.put("full_name", sourceOwner + "/" + slug);
+        return pull;
+    }
+
+    private ObjectNode cloudCommit(String owner, String slug, String hash) {
+        ObjectNode commit = template("client/payload/2.0-repositories-amuniz-test-repos-commit-046d9a3c1532acf4cf08fe93235c00e4d673c1d2.json", owner, slug);
+        commit.put("hash", hash);
+        return commit;
+    }
+
+    private boolean hasJenkinsfile(String slug, String path, String ref) {
+        if (!JENKINSFILE.equals(path) || StringUtils.isEmpty(ref)) {
+            return false;
+        }
+        String hash = HASH.matcher(ref).matches() ? ref : hash(slug, StringUtils.removeStart(ref, "refs/heads/"));
+        return Integer.parseInt(hash.substring(0, 4), 16) % 100 < settings.jenkinsfile;
+    }
+
+    private static String hash(String repository, String ref) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            return HexFormat.of().formatHex(digest.digest((repository + ":" + ref).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /*
+     * Returns a copy of the recorded payload with the owner and repository
+     * of the recording replaced by the given ones.
+     */
+    private ObjectNode template(String resource, String owner, String repository) {
+        return (ObjectNode) templates.computeIfAbsent(resource + "|" + owner + "|" + repository, k -> {
+            try (InputStream json = SyntheticBitbucket.class.getResourceAsStream(RESOURCE_ROOTPATH + resource)) {
+                if (json == null) {
+                    throw new IllegalArgumentException("Payload " + resource + " could not be found");
+                }
+                String payload = IOUtils.toString(json, StandardCharsets.UTF_8)
+                        .replace("AMUNIZ", owner.toUpperCase(Locale.ROOT))
+                        .replace("amuniz", owner);
+                if (repository != null) {
+                    payload = payload.replace("test-repos", repository);
+                }
+                return JsonParser.toJson(payload);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).deepCopy();
+    }
+
+    private static ObjectNode serverPage(HttpRequest request, int size, IntFunction<JsonNode> entry) {
+        int start = NumberUtils.toInt(request.getFirstQueryStringParameter("start"), 0);
+        int limit = NumberUtils.toInt(request.getFirstQueryStringParameter("limit"), 25);
+        int end = Math.min(size, start + limit);
+        ObjectNode page = JsonNodeFactory.instance.objectNode();
+        ArrayNode values = page.putArray("values");
+        for (int i = start; i < end; i++) {
+            values.add(entry.apply(i));
+        }
+        page.put("size", values.size());
+        page.put("limit", limit);
+        page.put("start", start);
+        page.put("isLastPage", end >= size);
+        if (end < size) {
+            page.put("nextPageStart", end);
+        }
+        return page;
+    }
+
+    private static JsonNode cloudPage(HttpRequest request, int size, IntFunction<JsonNode> entry) {
+        int number = NumberUtils.toInt(request.getFirstQueryStringParameter("page"), 1);
+        int length = NumberUtils.toInt(request.getFirstQueryStringParameter("pagelen"), 10);
+        int end = Math.min(size, number * length);
+        ObjectNode page = JsonNodeFactory.instance.objectNode();
+        page.put("pagelen", length);
+        page.put("page", number);
+        page.put("size", size);
+        if (end < size) {
+            StringBuilder next = new StringBuilder(CLOUD_API_URL).append(request.getPath().getValue())
+                    .append("?page=").append(number + 1);
+            for (String parameter : new String[] {"role", "pagelen", "q", "fields"}) {
+                String value = request.getFirstQueryStringParameter(parameter);
+                if (StringUtils.isNotEmpty(value)) {
+                    next.append('&').append(parameter).append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+                }
+            }
+            page.put("next", next.toString());
+        }
+        ArrayNode values = page.putArray("values");
+        for (int i = (number - 1) * length; i < end; i++) {
+            values.add(entry.apply(i));
+        }
+        return project(page, request);
+    }
+
+    /*
+     * Applies the sparse fieldset of the request, like Bitbucket Cloud does.
+     */
+    private static JsonNode project(JsonNode node, HttpRequest request) {
+        String fields = request.getFirstQueryStringParameter("fields");
+        return StringUtils.isEmpty(fields) ? node : project(node, Arrays.asList(fields.split(",")));
+    }
+
+    private static JsonNode project(JsonNode node, List<String> fields) {
+        if (node.isArray()) {
+            ArrayNode result = JsonNodeFactory.instance.arrayNode();
+            node.forEach(element -> result.add(project(element, fields)));
+            return result;
+        } else if (!node.isObject()) {
+            return node;
+        }
+        Map<String, List<String>> children = new LinkedHashMap<>();
+        for (String field : fields) {
+            children.computeIfAbsent(StringUtils.substringBefore(field, "."), k -> new ArrayList<>())
+                    .add(StringUtils.substringAfter(field, "."));
+        }
+        ObjectNode result = JsonNodeFactory.instance.objectNode();
+        children.forEach((name, nested) -> {
+            JsonNode child = node.get(name);
+            if (child != null) {
+                result.set(name, nested.contains("") ? child : project(child, nested));
+            }
+        });
+        return result;
+    }
+
+    private static HttpResponse json(JsonNode node) {
+        try {
+            return response()
+                    .withStatusCode(200)
+                    .withHeader("Content-Type", "application/json;charset=UTF-8")
+                    .withBody(JsonParser.toString(node));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static HttpResponse status(int code) {
+        return response().withStatusCode(code);
+    }
+}
@@ -41,11 +41,14 @@ import com.cloudbees.jenkins.plugins.bitbucket.test.util.BitbucketTestUtil;
 import hudson.ProxyConfiguration;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.classic.methods.HttpPut;
 import org.apache.hc.core5.http.HttpRequest;
@@ -134,6 +137,22 @@ class BitbucketCloudApiClientTest {
                 assertThat(put.getRequestUri()).isEqualTo("https://api.bitbucket.org/2.0/repositories/amuniz/test-repos/hooks/%7B202cf34e-7ccf-44b7-ba6b-8827a14d5324%7D"));
     }
 
+    @Test
+    void verify_pull_requests_are_requested_with_sparse_fields() throws Exception {
+        BitbucketCloudApiClient client = (BitbucketCloudApiClient) BitbucketIntegrationClientFactory.getApiMockClient(BitbucketCloudEndpoint.SERVER_URL);
+        client.addPullRequestFields(List.of("state"));
+        assertThat(client.getPullRequests()).isNotEmpty();
+
+        HttpRequest request = BitbucketTestUtil.extractRequest(client);
+        assertThat(request).isNotNull();
+        String fields = URLDecoder.decode(StringUtils.substringAfter(request.getRequestUri(), "fields="), StandardCharsets.UTF_8);
+        assertThat(fields.split(",")).contains("next",
+                "values.id",
+                "values.source.commit.hash",
+                "values.destination.branch.name",
+                "values.state");
+    }
+
     @Test
     void test_supported_auth() throws Exception {
         try (BitbucketApi client = new BitbucketCloudApiClient(false, 0, 0, null, null, null, mock(BitbucketUsernamePasswordAuthenticator.class))) {}
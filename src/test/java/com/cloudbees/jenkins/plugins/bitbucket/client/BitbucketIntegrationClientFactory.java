@@ -215,6 +215,8 @@ public class BitbucketIntegrationClientFactory {
                         if (path.startsWith("/")) {
                             path = path.replaceFirst("/", "");
                         }
+                        // sparse field projections are not part of the payload file name
+                        path = path.replaceFirst("[?&]fields=[^&]*$", "");
                         String payloadPath = path.replace('/', '-').replaceAll("[=%&?]", "_");
                         payloadPath = PAYLOAD_RESOURCE_ROOTPATH + payloadPath + ".json";
 
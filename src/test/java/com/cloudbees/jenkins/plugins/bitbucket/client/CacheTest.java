@@ -28,6 +28,7 @@ import java.util.concurrent.TimeUnit;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -80,4 +81,27 @@ public class CacheTest {
         cache.get("another key", callable);
         assertEquals(10, cache.size());
     }
+
+    @Test
+    public void ensure_put_and_evict_works() throws Exception {
+        final Cache<String, Long> cache = new Cache<>(5, TimeUnit.HOURS);
+        assertNull(cache.getIfPresent("a key"));
+
+        cache.put("a key", 1L);
+        cache.put("another key", 2L);
+        assertEquals(Long.valueOf(1L), cache.getIfPresent("a key"));
+
+        cache.evict(key -> key.startsWith("a "));
+        assertNull(cache.getIfPresent("a key"));
+        assertEquals(Long.valueOf(2L), cache.getIfPresent("another key"));
+    }
+
+    @Test
+    public void ensure_expiration_works_without_loader() throws Exception {
+        final Cache<String, Long> cache = new Cache<>(1, TimeUnit.NANOSECONDS);
+        cache.put("a key", 1L);
+        Thread.sleep(200);
+        assertNull(cache.getIfPresent("a key"));
+        assertEquals(0, cache.size());
+    }
 }
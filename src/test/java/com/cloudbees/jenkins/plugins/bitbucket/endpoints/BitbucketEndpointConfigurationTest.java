@@ -479,6 +479,26 @@ class BitbucketEndpointConfigurationTest {
         assertThat(BitbucketEndpointProvider.lookupEndpoint("http://invalid.port.test:65536/bitbucket/")).isEmpty();
     }
 
+    @Test
+    void given__instanceWithServer__when__changingEndpoints__then__lookupFollowsChanges() {
+        BitbucketEndpointConfiguration instance = BitbucketEndpointConfiguration.get();
+        instance.setEndpoints(List.of(new BitbucketServerEndpoint("Example Inc", "https://bitbucket.example.com/", true, "first")));
+        assertThat(BitbucketEndpointProvider.lookupEndpoint("https://bitbucket.example.com")).isPresent();
+        assertThat(BitbucketEndpointProvider.lookupEndpoint("http://example.org:8080/bitbucket")).isEmpty();
+
+        assertThat(instance.addEndpoint(new BitbucketServerEndpoint("Example Org", "http://example.org:8080/bitbucket/", true, "second"))).isTrue();
+        assertThat(BitbucketEndpointProvider.lookupEndpoint("http://example.org:8080/bitbucket")).isPresent()
+            .hasValueSatisfying(endpoint -> assertThat(endpoint.getCredentialsId()).isEqualTo("second"));
+
+        instance.updateEndpoint(new BitbucketServerEndpoint("Example Org", "http://example.org:8080/bitbucket/", true, "third"));
+        assertThat(BitbucketEndpointProvider.lookupEndpoint("http://example.org:8080/bitbucket")).isPresent()
+            .hasValueSatisfying(endpoint -> assertThat(endpoint.getCredentialsId()).isEqualTo("third"));
+
+        assertThat(instance.removeEndpoint("https://BITBUCKET.EXAMPLE.COM:443/")).isTrue();
+        assertThat(BitbucketEndpointProvider.lookupEndpoint("https://bitbucket.example.com")).isEmpty();
+        assertThat(BitbucketEndpointProvider.lookupEndpoint("http://example.org:8080/bitbucket")).isPresent();
+    }
+
     @Test
     void given__instanceWithCloudAndServers__when__populatingDropBox__then__endpointsListed() {
         BitbucketEndpointConfiguration instance = new BitbucketEndpointConfiguration();
@@ -0,0 +1,215 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.filesystem;
+
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApi;
+import com.cloudbees.jenkins.plugins.bitbucket.client.ClosingConnectionInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import jenkins.scm.api.SCMFile.Type;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BitbucketArchiveTest {
+
+    private static final String HASH = "046d9a3c1532acf4cf08fe93235c00e4d673c1d2";
+
+    private BitbucketApi api;
+    private BitbucketSCMFile root;
+    private BitbucketArchive sut;
+
+    @BeforeEach
+    void setup() throws Exception {
+        api = mock(BitbucketApi.class);
+        when(api.getOwner()).thenReturn("amuniz");
+        when(api.getRepositoryName()).thenReturn("test-repos");
+        when(api.getArchive(anyString(), any())).thenAnswer(invocation -> zip(
+                "Jenkinsfile", "node {}",
+                "vars/build.groovy", "def call() {}",
+                "vars/deploy.groovy", "def call(env) {}",
+                "resources/org/example/config.json", "{}"));
+        root = new BitbucketSCMFile(api, "master", HASH);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (sut != null) {
+            sut.close();
+        }
+    }
+
+    private static InputStream zip(String... entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (int i = 0; i < entries.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(entries[i]));
+                zip.write(entries[i + 1].getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+
+    private BitbucketSCMFile file(String path) {
+        BitbucketSCMFile file = root;
+        for (String name : path.split("/")) {
+            file = new BitbucketSCMFile(file, name, null, HASH);
+        }
+        return file;
+    }
+
+    private static String read(InputStream content) throws IOException {
+        try (content) {
+            return IOUtils.toString(content, StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void only_checkouts_at_a_commit_use_an_archive() {
+        assertThat(BitbucketArchive.create(api, HASH)).isNotNull();
+        assertThat(BitbucketArchive.create(api, "master")).isNull();
+        assertThat(BitbucketArchive.create(api, null)).isNull();
+    }
+
+    @Test
+    void files_are_requested_one_by_one_below_threshold() throws Exception {
+        sut = new BitbucketArchive(api, HASH, 3, 1024 * 1024);
+
+        assertThat(sut.type(file("Jenkinsfile"))).isNull();
+        assertThat(sut.content(file("Jenkinsfile"))).isNull();
+        assertThat(sut.type(file("vars/build.groovy"))).isNull();
+
+        verify(api, never()).getArchive(anyString(), any());
+    }
+
+    @Test
+    void archive_is_downloaded_once_above_threshold() throws Exception {
+        sut = new BitbucketArchive(api, HASH, 2, 1024 * 1024);
+
+        sut.type(file("Jenkinsfile"));
+        sut.type(file("vars/build.groovy"));
+        assertThat(sut.type(file("resources"))).isEqualTo(Type.DIRECTORY);
+        assertThat(sut.type(file("vars/build.groovy"))).isEqualTo(Type.REGULAR_FILE);
+        assertThat(read(sut.content(file("Jenkinsfile")))).isEqualTo("node {}");
+
+        verify(api, times(1)).getArchive(HASH, null);
+    }
+
+    @Test
+    void archive_is_narrowed_to_the_requested_directory() throws Exception {
+        sut = new BitbucketArchive(api, HASH, 2, 1024 * 1024);
+
+        sut.type(file("vars/build.groovy"));
+        sut.type(file("vars/deploy.groovy"));
+        assertThat(read(sut.content(file("vars/deploy.groovy")))).isEqualTo("def call(env) {}");
+        // outside of the downloaded path
+        assertThat(sut.type(file("Jenkinsfile"))).isNull();
+        assertThat(sut.content(file("Jenkinsfile"))).isNull();
+
+        verify(api, times(1)).getArchive(HASH, "vars");
+    }
+
+    @Test
+    void files_missing_from_archive_are_requested() throws Exception {
+        // export-ignore files are left out of the archive
+        sut = new BitbucketArchive(api, HASH, 1, 1024 * 1024);
+
+        sut.type(file("Jenkinsfile"));
+        sut.type(file("vars/build.groovy"));
+        assertThat(sut.type(file("Jenkinsfile"))).isEqualTo(Type.REGULAR_FILE);
+        assertThat(sut.type(file(".ci/Jenkinsfile"))).isNull();
+        assertThat(sut.type(file("vars/missing.groovy"))).isNull();
+        assertThat(sut.content(file("vars/missing.groovy"))).isNull();
+    }
+
+    @Test
+    void content_is_requested_when_archive_has_substitutions() throws Exception {
+        when(api.getArchive(anyString(), any())).thenAnswer(invocation -> zip(
+                ".gitattributes", "version.txt export-subst",
+                "Jenkinsfile", "node {}",
+                "version.txt", "$Format:%H$"));
+        sut = new BitbucketArchive(api, HASH, 1, 1024 * 1024);
+
+        sut.type(file("Jenkinsfile"));
+        sut.type(file("version.txt"));
+        assertThat(sut.type(file("version.txt"))).isEqualTo(Type.REGULAR_FILE);
+        assertThat(sut.content(file("version.txt"))).isNull();
+        assertThat(sut.content(file("Jenkinsfile"))).isNull();
+    }
+
+    @Test
+    void archive_announced_too_big_is_not_downloaded() throws Exception {
+        ClosingConnectionInputStream response = mock(ClosingConnectionInputStream.class);
+        when(response.getContentLength()).thenReturn(17L);
+        when(api.getArchive(anyString(), any())).thenReturn(response);
+        sut = new BitbucketArchive(api, HASH, 1, 16);
+
+        assertThat(sut.type(file("Jenkinsfile"))).isNull();
+        assertThat(sut.type(file("vars/build.groovy"))).isNull();
+
+        verify(response).abort();
+        verify(response, never()).read(any(byte[].class));
+        verify(api, times(1)).getArchive(HASH, null);
+    }
+
+    @Test
+    void files_are_requested_one_by_one_when_archive_is_not_supported() throws Exception {
+        when(api.getArchive(anyString(), isNull())).thenReturn(null);
+        sut = new BitbucketArchive(api, HASH, 1, 1024 * 1024);
+
+        assertThat(sut.type(file("Jenkinsfile"))).isNull();
+        assertThat(sut.type(file("vars/build.groovy"))).isNull();
+        assertThat(sut.type(file("vars/deploy.groovy"))).isNull();
+
+        verify(api, times(1)).getArchive(HASH, null);
+    }
+
+    @Test
+    void files_are_requested_one_by_one_when_archive_is_too_big() throws Exception {
+        sut = new BitbucketArchive(api, HASH, 1, 16);
+
+        assertThat(sut.type(file("Jenkinsfile"))).isNull();
+        assertThat(sut.type(file("vars/build.groovy"))).isNull();
+        assertThat(sut.content(file("Jenkinsfile"))).isNull();
+
+        verify(api, times(1)).getArchive(HASH, null);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.filesystem;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BitbucketFileContentCacheTest {
+
+    private static final String SERVER_URL = "https://bitbucket.example.com";
+    private static final String HASH1 = "046d9a3c1532acf4cf08fe93235c00e4d673c1d2";
+    private static final String HASH2 = "118cc36527dd376b94de5b0e6424b1dfbd4717ff";
+
+    @TempDir
+    private Path directory;
+    private AtomicInteger requests;
+
+    @BeforeEach
+    void setup() {
+        requests = new AtomicInteger();
+    }
+
+    private BitbucketFileContentCache.ContentLoader content(String text) {
+        return () -> {
+            requests.incrementAndGet();
+            return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static String read(InputStream content) throws IOException {
+        try (content) {
+            return IOUtils.toString(content, StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void only_commit_hashes_are_cacheable() {
+        assertThat(BitbucketFileContentCache.isCacheable(HASH1)).isTrue();
+        assertThat(BitbucketFileContentCache.isCacheable(HASH1.toUpperCase(Locale.ENGLISH))).isTrue();
+        assertThat(BitbucketFileContentCache.isCacheable("master")).isFalse();
+        assertThat(BitbucketFileContentCache.isCacheable("046d9a3")).isFalse();
+        assertThat(BitbucketFileContentCache.isCacheable(HASH1 + "+" + HASH2)).isFalse();
+        assertThat(BitbucketFileContentCache.isCacheable(null)).isFalse();
+    }
+
+    @Test
+    void file_at_commit_is_read_once() throws Exception {
+        BitbucketFileContentCache sut = new BitbucketFileContentCache(directory, 1024 * 1024);
+
+        assertThat(read(sut.getContent(SERVER_URL, "amuniz/test-repos", HASH1, "Jenkinsfile", content("node {}")))).isEqualTo("node {}");
+        assertThat(read(sut.getContent(SERVER_URL, "amuniz/test-repos", HASH1, "Jenkinsfile", content("changed")))).isEqualTo("node {}");
+        assertThat(requests).hasValue(1);
+
+        assertThat(read(sut.getContent(SERVER_URL, "amuniz/test-repos", HASH2, "Jenkinsfile", content("changed")))).isEqualTo("changed");
+        assertThat(read(sut.getContent(SERVER_URL, "amuniz/other-repos", HASH1, "Jenkinsfile", content("other")))).isEqualTo("other");
+        assertThat(requests).hasValue(3);
+    }
+
+    @Test
+    void least_recently_read_files_are_evicted() throws Exception {
+        BitbucketFileContentCache sut = new BitbucketFileContentCache(directory, 16 * 40);
+        String text = "x".repeat(40);
+
+        sut.getContent(SERVER_URL, "amuniz/test-repos", HASH1, "file0", content(text)).close();
+        for (int i = 1; i < 16; i++) {
+            sut.getContent(SERVER_URL, "amuniz/test-repos", HASH1, "file" + i, content(text)).close();
+            // keep file0 as the most recently read
+            sut.getContent(SERVER_URL, "amuniz/test-repos", HASH1, "file0", content(text)).close();
+        }
+        assertThat(requests).hasValue(16);
+
+        sut.getContent(SERVER_URL, "amuniz/test-repos", HASH1, "file16", content(text)).close();
+        try (var files = Files.list(directory)) {
+            assertThat(files).hasSize(16);
+        }
+        sut.getContent(SERVER_URL, "amuniz/test-repos", HASH1, "file0", content(text)).close();
+        assertThat(requests).hasValue(17);
+        sut.getContent(SERVER_URL, "amuniz/test-repos", HASH1, "file1", content(text)).close();
+        assertThat(requests).hasValue(18);
+    }
+
+    @Test
+    void large_file_is_not_kept() throws Exception {
+        BitbucketFileContentCache sut = new BitbucketFileContentCache(directory, 16 * 10);
+        String text = "x".repeat(11);
+
+        assertThat(read(sut.getContent(SERVER_URL, "amuniz/test-repos", HASH1, "big", content(text)))).isEqualTo(text);
+        assertThat(read(sut.getContent(SERVER_URL, "amuniz/test-repos", HASH1, "big", content(text)))).isEqualTo(text);
+        assertThat(requests).hasValue(2);
+        try (var files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void files_are_kept_across_restarts() throws Exception {
+        new BitbucketFileContentCache(directory, 1024).getContent(SERVER_URL, "amuniz/test-repos", HASH1, "Jenkinsfile", content("node {}")).close();
+
+        BitbucketFileContentCache sut = new BitbucketFileContentCache(directory, 1024);
+        assertThat(read(sut.getContent(SERVER_URL, "amuniz/test-repos", HASH1, "Jenkinsfile", content("changed")))).isEqualTo("node {}");
+        assertThat(requests).hasValue(1);
+    }
+
+    @Test
+    void failure_is_not_cached() throws Exception {
+        BitbucketFileContentCache sut = new BitbucketFileContentCache(directory, 1024);
+
+        assertThatThrownBy(() -> sut.getContent(SERVER_URL, "amuniz/test-repos", HASH1, "Jenkinsfile", () -> {
+            throw new IOException("Communication error");
+        })).isInstanceOf(IOException.class);
+
+        assertThat(read(sut.getContent(SERVER_URL, "amuniz/test-repos", HASH1, "Jenkinsfile", content("node {}")))).isEqualTo("node {}");
+    }
+}
@@ -26,6 +26,7 @@ package com.cloudbees.jenkins.plugins.bitbucket.filesystem;
 import com.cloudbees.jenkins.plugins.bitbucket.BranchSCMHead;
 import com.cloudbees.jenkins.plugins.bitbucket.PullRequestSCMHead;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApi;
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketCommit;
 import com.cloudbees.jenkins.plugins.bitbucket.api.PullRequestBranchType;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.endpoint.BitbucketCloudEndpoint;
 import hudson.plugins.git.GitChangeLogParser;
@@ -33,6 +34,7 @@ import hudson.plugins.git.GitChangeSet;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Date;
 import java.util.List;
 import jenkins.plugins.git.AbstractGitSCMSource.SCMRevisionImpl;
 import jenkins.scm.api.SCMHeadOrigin;
@@ -41,6 +43,8 @@ import org.junit.jupiter.api.Test;
 
 import static com.cloudbees.jenkins.plugins.bitbucket.client.BitbucketIntegrationClientFactory.getApiMockClient;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class BitbucketSCMFileSystemTest {
 
@@ -67,6 +71,8 @@ class BitbucketSCMFileSystemTest {
                 assertThat(changeset.getAuthorEmail()).isEqualTo("amuniz@acme.com");
                 assertThat(changeset.getComment()).isEqualTo("Provide some change to work diffstats:\n* add a new\n");
                 assertThat(changeset.getTimestamp()).isEqualTo(1745661059000L);
+                assertThat(changeset.getAffectedPaths()).hasSize(4)
+                    .contains("Jenkinsfile", "resources/README.md", "resources/image.png");
             });
             assertThat(result).element(1).satisfies(changeset -> {
                 assertThat(changeset.getCommitId()).isEqualTo("2674e72983786424571e0c8fc5ac8eca17e0583f");
@@ -75,6 +81,7 @@ class BitbucketSCMFileSystemTest {
                 assertThat(changeset.getAuthorEmail()).isEqualTo("amuniz@acme.com");
                 assertThat(changeset.getComment()).isEqualTo("Provide some change to work diffstats:\n* add a new\n* modify a file\n* rename a file\n");
                 assertThat(changeset.getTimestamp()).isEqualTo(1745660941000L);
+                assertThat(changeset.getAffectedPaths()).isEmpty();
             });
         }
     }
@@ -102,6 +109,13 @@ class BitbucketSCMFileSystemTest {
                 assertThat(changeset.getAuthorEmail()).isEqualTo("amuniz@acme.com");
                 assertThat(changeset.getComment()).isEqualTo("Provide some change to work diffstats:\n* add a new\n");
                 assertThat(changeset.getTimestamp()).isEqualTo(1745661059000L);
+                assertThat(changeset.getAffectedPaths()).hasSize(4)
+                    .contains("Jenkinsfile", "resources/README.md", "resources/image.png");
+                assertThat(changeset.getPaths()).filteredOn(path -> "Jenkinsfile".equals(path.getPath())).singleElement()
+                    .satisfies(path -> {
+                        assertThat(path.getSrc()).isEqualTo("c6b4c6a7d0f2ddc7a1e1c0bd2c0e3e7f0b6f3d1a");
+                        assertThat(path.getDst()).isEqualTo("5e1c309dae7f45e0f39b1bf3ac3cd9db12e7d689");
+                    });
             });
             assertThat(result).element(1).satisfies(changeset -> {
                 assertThat(changeset.getCommitId()).isEqualTo("2674e72983786424571e0c8fc5ac8eca17e0583f");
@@ -110,10 +124,28 @@ class BitbucketSCMFileSystemTest {
                 assertThat(changeset.getAuthorEmail()).isEqualTo("amuniz@acme.com");
                 assertThat(changeset.getComment()).isEqualTo("Provide some change to work diffstats:\n* add a new\n* modify a file\n* rename a file\n");
                 assertThat(changeset.getTimestamp()).isEqualTo(1745660941000L);
+                assertThat(changeset.getAffectedPaths()).isEmpty();
             });
         }
     }
 
+    @Test
+    void verify_lastModified_is_the_committer_time_of_the_revision() throws Exception {
+        String hash = "251fce291f086cdde68ae2a896148abb5b58033e";
+        BitbucketCommit commit = mock(BitbucketCommit.class);
+        when(commit.getCommitterDate()).thenReturn(new Date(1745661059000L));
+        BitbucketApi client = mock(BitbucketApi.class);
+        when(client.resolveCommit(hash)).thenReturn(commit);
+
+        try (BitbucketSCMFileSystem sut = new BitbucketSCMFileSystem(client, "master", new SCMRevisionImpl(new BranchSCMHead("master"), hash))) {
+            assertThat(sut.lastModified()).isEqualTo(1745661059000L);
+            assertThat(sut.getRoot().child("Jenkinsfile").lastModified()).isEqualTo(1745661059000L);
+        }
+        try (BitbucketSCMFileSystem sut = new BitbucketSCMFileSystem(client, "master", null)) {
+            assertThat(sut.lastModified()).isZero();
+        }
+    }
+
     private List<GitChangeSet> parseOutput(ByteArrayOutputStream out) throws IOException {
         GitChangeLogParser parser = new GitChangeLogParser(null, false);
         return parser.parse(new ByteArrayInputStream(out.toByteArray()));
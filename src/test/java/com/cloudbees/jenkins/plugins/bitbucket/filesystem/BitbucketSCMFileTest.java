@@ -26,6 +26,8 @@ package com.cloudbees.jenkins.plugins.bitbucket.filesystem;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApi;
 import com.cloudbees.jenkins.plugins.bitbucket.client.BitbucketIntegrationClientFactory;
 import java.io.FileNotFoundException;
+import java.util.List;
+import java.util.Map;
 import jenkins.scm.api.SCMFile;
 import jenkins.scm.api.SCMFile.Type;
 import org.junit.jupiter.api.Test;
@@ -35,6 +37,13 @@ import org.jvnet.hudson.test.JenkinsRule;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class BitbucketSCMFileTest {
 
@@ -89,4 +98,105 @@ class BitbucketSCMFileTest {
         SCMFile jenkinsfile = root.child("script.bat");
         assertThat(jenkinsfile.content()).hasContent("@echo off\necho \"Hello world\"");
     }
+
+    @Test
+    void type_of_children_is_resolved_from_the_listing_of_their_parent() throws Exception {
+        String hash = "046d9a3c1532acf4cf08fe93235c00e4d673c1d2";
+        BitbucketApi client = mock(BitbucketApi.class);
+        when(client.getDirectoryContent(any())).thenAnswer(invocation -> {
+            BitbucketSCMFile directory = invocation.getArgument(0);
+            return switch (directory.getPath()) {
+                case "" -> List.of(new BitbucketSCMFile(directory, "Jenkinsfile", Type.REGULAR_FILE, hash),
+                        new BitbucketSCMFile(directory, "vars", Type.DIRECTORY, hash));
+                case "vars" -> List.of(new BitbucketSCMFile(directory, "build.groovy", Type.REGULAR_FILE, hash));
+                default -> throw new FileNotFoundException(directory.getPath());
+            };
+        });
+
+        BitbucketSCMFile root = new BitbucketSCMFile(client, "master", hash);
+        assertThat(root.child("Jenkinsfile").getType()).isEqualTo(Type.REGULAR_FILE);
+        assertThat(root.child("pom.xml").getType()).isEqualTo(Type.NONEXISTENT);
+        assertThat(root.child("vars/build.groovy").getType()).isEqualTo(Type.REGULAR_FILE);
+        assertThat(root.child("vars/deploy.groovy").getType()).isEqualTo(Type.NONEXISTENT);
+        assertThat(root.child("resources/config.json").getType()).isEqualTo(Type.NONEXISTENT);
+
+        verify(client, times(2)).getDirectoryContent(any());
+        verify(client, never()).getFile(any());
+    }
+
+    @Test
+    void type_of_file_in_a_directory_not_listed_is_requested_once() throws Exception {
+        String hash = "046d9a3c1532acf4cf08fe93235c00e4d673c1d2";
+        BitbucketApi client = mock(BitbucketApi.class);
+        when(client.getDirectoryContent(any())).thenThrow(new FileNotFoundException());
+        when(client.getFile(any())).thenAnswer(invocation -> {
+            BitbucketSCMFile file = invocation.getArgument(0);
+            return new BitbucketSCMFile((BitbucketSCMFile) file.parent(), file.getName(), Type.REGULAR_FILE, hash);
+        });
+
+        BitbucketSCMFile root = new BitbucketSCMFile(client, "master", hash);
+        assertThat(root.child("vars/build.groovy").getType()).isEqualTo(Type.REGULAR_FILE);
+
+        verify(client, never()).getDirectoryContent(any());
+        verify(client, times(1)).getFile(any());
+    }
+
+    @Test
+    void prefetched_tree_is_walked_without_requests() throws Exception {
+        String hash = "046d9a3c1532acf4cf08fe93235c00e4d673c1d2";
+        BitbucketApi client = mock(BitbucketApi.class);
+        when(client.getTree(any(), anyInt())).thenReturn(Map.of(
+                "Jenkinsfile", Type.REGULAR_FILE,
+                "vars", Type.DIRECTORY,
+                "vars/build.groovy", Type.REGULAR_FILE,
+                "resources", Type.DIRECTORY,
+                "resources/org", Type.DIRECTORY));
+
+        BitbucketSCMFile root = new BitbucketSCMFile(client, "master", hash);
+        assertThat(root.prefetch(2)).isTrue();
+
+        assertThat(root.children()).extracting(SCMFile::getName).containsExactly("Jenkinsfile", "resources", "vars");
+        assertThat(root.child("vars").children()).extracting(SCMFile::getName).containsExactly("build.groovy");
+        assertThat(root.child("vars/build.groovy").getType()).isEqualTo(Type.REGULAR_FILE);
+        assertThat(root.child("vars/deploy.groovy").getType()).isEqualTo(Type.NONEXISTENT);
+        assertThat(root.child("resources/org").getType()).isEqualTo(Type.DIRECTORY);
+
+        verify(client, never()).getDirectoryContent(any());
+        verify(client, never()).getFile(any());
+    }
+
+    @Test
+    void prefetched_directory_lists_its_subtree_once() throws Exception {
+        String hash = "046d9a3c1532acf4cf08fe93235c00e4d673c1d2";
+        BitbucketApi client = mock(BitbucketApi.class);
+        when(client.getTree(any(), anyInt())).thenReturn(Map.of(
+                "org", Type.DIRECTORY,
+                "org/acme", Type.DIRECTORY,
+                "org/acme/Build.groovy", Type.REGULAR_FILE));
+
+        BitbucketSCMFile src = new BitbucketSCMFile(client, "master", hash).child("src", Type.DIRECTORY);
+        assertThat(src.prefetch(10)).isTrue();
+        assertThat(src.children()).extracting(SCMFile::getName).containsExactly("org");
+        assertThat(src.child("org").children()).extracting(SCMFile::getName).containsExactly("acme");
+        assertThat(src.child("org/acme").children()).extracting(SCMFile::getName).containsExactly("Build.groovy");
+
+        verify(client, times(1)).getTree(any(), anyInt());
+        verify(client, never()).getDirectoryContent(any());
+    }
+
+    @Test
+    void walk_of_a_directory_lists_the_directory_only() throws Exception {
+        String hash = "046d9a3c1532acf4cf08fe93235c00e4d673c1d2";
+        BitbucketApi client = mock(BitbucketApi.class);
+        when(client.getDirectoryContent(any())).thenAnswer(invocation -> {
+            BitbucketSCMFile directory = invocation.getArgument(0);
+            return List.of(new BitbucketSCMFile(directory, "build.groovy", Type.REGULAR_FILE, hash));
+        });
+
+        BitbucketSCMFile vars = new BitbucketSCMFile(client, "master", hash).child("vars", Type.DIRECTORY);
+        assertThat(vars.children()).extracting(SCMFile::getName).containsExactly("build.groovy");
+
+        verify(client, never()).getTree(any(), anyInt());
+        verify(client, times(1)).getDirectoryContent(any());
+    }
 }
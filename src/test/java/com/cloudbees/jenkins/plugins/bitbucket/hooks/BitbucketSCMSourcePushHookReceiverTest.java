@@ -27,11 +27,18 @@ import com.cloudbees.jenkins.plugins.bitbucket.endpoints.BitbucketEndpointConfig
 import com.cloudbees.jenkins.plugins.bitbucket.impl.endpoint.BitbucketCloudEndpoint;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.endpoint.BitbucketServerEndpoint;
 import com.cloudbees.jenkins.plugins.bitbucket.test.util.BitbucketTestUtil;
+import com.cloudbees.plugins.credentials.CredentialsProvider;
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.cloudbees.plugins.credentials.CredentialsStore;
+import com.cloudbees.plugins.credentials.domains.Domain;
+import hudson.util.Secret;
 import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.UUID;
+import org.jenkinsci.plugins.plaincredentials.StringCredentials;
+import org.jenkinsci.plugins.plaincredentials.impl.StringCredentialsImpl;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -351,6 +358,47 @@ class BitbucketSCMSourcePushHookReceiverTest {
         }
     }
 
+    @Test
+    void test_native_signature_after_credentials_change() throws Exception {
+        BitbucketServerEndpoint endpoint = new BitbucketServerEndpoint("datacenter", "http://localhost:7990/bitbucket", false, null, true, credentialsId);
+        endpoint.setBitbucketJenkinsRootUrl("https://jenkins.example.com");
+        BitbucketEndpointConfiguration.get().updateEndpoint(endpoint);
+
+        CredentialsStore store = CredentialsProvider.lookupStores(j.jenkins).iterator().next();
+        try {
+            mockServerRequest(endpoint.getServerUrl());
+            when(req.getHeader("X-Event-Key")).thenReturn("repo:refs_changed");
+            when(req.getHeader("X-Hub-Signature")).thenReturn("sha256=4ffba9e7b58ea3d7e1a230446e8c92baea0aeec89b73f598932387254f0de13e");
+            when(req.getInputStream()).thenReturn(loadResource("native/signed_payload.json"));
+            sut.doNotify(req);
+            verify(hookProcessor).process(eq(HookEventType.SERVER_REFS_CHANGED), anyString(), eq(BitbucketType.SERVER), anyString(), eq(endpoint.getServerUrl()));
+
+            // the same payload is no more valid once the secret changes
+            StringCredentials changed = new StringCredentialsImpl(CredentialsScope.GLOBAL, credentialsId, null, Secret.fromString("another secret"));
+            store.updateCredentials(Domain.global(), changed, changed);
+            reset(hookProcessor);
+            when(req.getInputStream()).thenReturn(loadResource("native/signed_payload.json"));
+            sut.doNotify(req);
+            verify(hookProcessor, never()).process(any(), anyString(), any(), anyString(), anyString());
+        } finally {
+            StringCredentials original = new StringCredentialsImpl(CredentialsScope.GLOBAL, credentialsId, null, Secret.fromString("Gkvl$k$wyNpQAF42"));
+            store.updateCredentials(Domain.global(), original, original);
+            BitbucketEndpointConfiguration.get().removeEndpoint(endpoint.getServerUrl());
+        }
+    }
+
+    @Test
+    void test_payload_too_large_is_not_read() throws Exception {
+        mockCloudRequest();
+        when(req.getHeader("X-Event-Key")).thenReturn("repo:push");
+        when(req.getContentLengthLong()).thenReturn(100L * 1024 * 1024);
+
+        sut.doNotify(req);
+
+        verify(req, never()).getInputStream();
+        verify(hookProcessor, never()).process(any(), anyString(), any(), anyString(), anyString());
+    }
+
     @Test
     void test_cloud_pullrequest_created() throws Exception {
         mockCloudRequest();
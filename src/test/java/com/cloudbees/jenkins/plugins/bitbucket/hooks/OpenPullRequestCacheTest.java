@@ -0,0 +1,104 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.hooks;
+
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketPullRequest;
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketPullRequestDestination;
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketPullRequestSource;
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketRepository;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.pullrequest.BitbucketServerPullRequest;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OpenPullRequestCacheTest {
+
+    private static final String SERVER_URL = "http://localhost:7990";
+
+    @AfterEach
+    void tearDown() {
+        OpenPullRequestCache.clear();
+    }
+
+    @Test
+    void test_entries_are_shared_per_ref_head_and_credentials() {
+        OpenPullRequestCache.put(key("AMUNIZ", "test-repos", "hash1", "creds@1a2b"), Map.of("1", new BitbucketServerPullRequest()));
+
+        assertThat(OpenPullRequestCache.get(key("amuniz", "TEST-REPOS", "hash1", "creds@1a2b"))).containsOnlyKeys("1");
+        assertThat(OpenPullRequestCache.get(key("amuniz", "test-repos", "hash2", "creds@1a2b"))).isNull();
+        assertThat(OpenPullRequestCache.get(key("amuniz", "test-repos", "hash1", "creds@3c4d"))).isNull();
+        assertThat(OpenPullRequestCache.get(key("amuniz", "test-repos", "hash1", "anonymous"))).isNull();
+    }
+
+    @Test
+    void test_pull_request_event_invalidates_source_and_destination() {
+        OpenPullRequestCache.put(key("amuniz", "fork", "hash1", "creds@1a2b"), Map.of());
+        OpenPullRequestCache.put(key("amuniz", "test-repos", "hash1", "creds@1a2b"), Map.of());
+        OpenPullRequestCache.put(key("amuniz", "unrelated", "hash1", "creds@1a2b"), Map.of());
+
+        OpenPullRequestCache.invalidate(SERVER_URL, pullRequest("AMUNIZ", "fork", "AMUNIZ", "test-repos"));
+
+        assertThat(OpenPullRequestCache.get(key("amuniz", "fork", "hash1", "creds@1a2b"))).isNull();
+        assertThat(OpenPullRequestCache.get(key("amuniz", "test-repos", "hash1", "creds@1a2b"))).isNull();
+        assertThat(OpenPullRequestCache.get(key("amuniz", "unrelated", "hash1", "creds@1a2b"))).isNotNull();
+    }
+
+    @Test
+    void test_pull_request_event_without_server_url_invalidates_every_server() {
+        OpenPullRequestCache.put(key("amuniz", "test-repos", "hash1", "creds@1a2b"), Map.of());
+        OpenPullRequestCache.invalidate("https://bitbucket.example.com", pullRequest("amuniz", "test-repos", "amuniz", "test-repos"));
+        assertThat(OpenPullRequestCache.get(key("amuniz", "test-repos", "hash1", "creds@1a2b"))).isNotNull();
+
+        OpenPullRequestCache.invalidate(null, pullRequest("amuniz", "test-repos", "amuniz", "test-repos"));
+        assertThat(OpenPullRequestCache.get(key("amuniz", "test-repos", "hash1", "creds@1a2b"))).isNull();
+    }
+
+    private static OpenPullRequestCache.Key key(String owner, String repository, String hash, String credentialsIdentity) {
+        return new OpenPullRequestCache.Key(SERVER_URL, owner, repository, "refs/heads/main", hash, credentialsIdentity);
+    }
+
+    private static BitbucketPullRequest pullRequest(String sourceOwner, String sourceRepository, String targetOwner, String targetRepository) {
+        BitbucketRepository source = repository(sourceOwner, sourceRepository);
+        BitbucketRepository target = repository(targetOwner, targetRepository);
+        BitbucketPullRequestSource pullRequestSource = mock(BitbucketPullRequestSource.class);
+        when(pullRequestSource.getRepository()).thenReturn(source);
+        BitbucketPullRequestDestination pullRequestDestination = mock(BitbucketPullRequestDestination.class);
+        when(pullRequestDestination.getRepository()).thenReturn(target);
+        BitbucketPullRequest pullRequest = mock(BitbucketPullRequest.class);
+        when(pullRequest.getSource()).thenReturn(pullRequestSource);
+        when(pullRequest.getDestination()).thenReturn(pullRequestDestination);
+        return pullRequest;
+    }
+
+    private static BitbucketRepository repository(String owner, String name) {
+        BitbucketRepository repository = mock(BitbucketRepository.class);
+        when(repository.getOwnerName()).thenReturn(owner);
+        when(repository.getRepositoryName()).thenReturn(name);
+        return repository;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.hooks;
+
+import com.cloudbees.jenkins.plugins.bitbucket.client.events.BitbucketCloudPushEvent;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.JsonParser;
+import com.cloudbees.jenkins.plugins.bitbucket.server.events.NativeServerRefsChangedEvent;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PushPayloadReaderTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"annotated_tag_created.json", "pushPayload.json", "tag_created.json", "tag_deleted.json"})
+    void test_native_server_refs_changed_matches_full_binding(String resource) throws Exception {
+        String payload = loadResource("native/" + resource);
+
+        NativeServerRefsChangedEvent event = PushPayloadReader.readNativeServerRefsChanged(payload);
+
+        assertThat(event.getChanges()).isNotEmpty();
+        assertThat(event)
+            .usingRecursiveComparison()
+            .isEqualTo(JsonParser.toJava(payload, NativeServerRefsChangedEvent.class));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"annotated_tag_created.json", "commit_created.json", "tag_created.json"})
+    void test_cloud_push_matches_full_binding(String resource) throws Exception {
+        String payload = loadResource("cloud/" + resource);
+
+        BitbucketCloudPushEvent event = PushPayloadReader.readCloudPush(payload);
+
+        assertThat(event.getChanges()).isNotEmpty();
+        assertThat(event)
+            .usingRecursiveComparison()
+            .isEqualTo(JsonParser.toJava(payload, BitbucketCloudPushEvent.class));
+    }
+
+    @Test
+    void test_null_and_missing_parts() throws Exception {
+        BitbucketCloudPushEvent event = PushPayloadReader.readCloudPush("""
+            {"actor": {"links": {}}, "repository": null, "push": {"changes": [{"old": null, "new": null, "created": true, "commits": [{}]}]}}
+            """);
+
+        assertThat(event.getRepository()).isNull();
+        assertThat(event.getChanges()).hasSize(1).first().satisfies(change -> {
+            assertThat(change.getOld()).isNull();
+            assertThat(change.getNew()).isNull();
+            assertThat(change.isCreated()).isTrue();
+        });
+        assertThat(PushPayloadReader.readNativeServerRefsChanged("{\"eventKey\": \"repo:refs_changed\"}").getChanges()).isEmpty();
+    }
+
+    @Test
+    void test_not_an_object() {
+        assertThatThrownBy(() -> PushPayloadReader.readCloudPush("[]")).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> PushPayloadReader.readNativeServerRefsChanged("{\"changes\": {}}")).isInstanceOf(IOException.class);
+    }
+
+    private String loadResource(String resource) throws IOException {
+        try (InputStream stream = this.getClass().getResourceAsStream(resource)) {
+            return IOUtils.toString(stream, StandardCharsets.UTF_8);
+        }
+    }
+}
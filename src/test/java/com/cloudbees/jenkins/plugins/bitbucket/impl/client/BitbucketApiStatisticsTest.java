@@ -0,0 +1,121 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.client;
+
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
+import com.cloudbees.jenkins.plugins.bitbucket.server.BitbucketServerWebhookImplementation;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.BitbucketServerAPIClient;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.InputStreamEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class BitbucketApiStatisticsTest {
+
+    @Test
+    void operation_of_cloud_paths() {
+        assertThat(BitbucketApiStatistics.operationOf("/2.0/repositories/amuniz/test-repos/refs/branches?pagelen=100")).isEqualTo("branches");
+        assertThat(BitbucketApiStatistics.operationOf("/2.0/repositories/amuniz/test-repos/refs/tags/v1.0")).isEqualTo("tags");
+        assertThat(BitbucketApiStatistics.operationOf("/2.0/repositories/amuniz/test-repos/pullrequests")).isEqualTo("pullrequests");
+        assertThat(BitbucketApiStatistics.operationOf("/2.0/repositories/amuniz/test-repos/pullrequests/1/commits")).isEqualTo("pullrequests/commits");
+        assertThat(BitbucketApiStatistics.operationOf("/2.0/repositories/amuniz/test-repos/commit/a1b2c3")).isEqualTo("commit");
+        assertThat(BitbucketApiStatistics.operationOf("/2.0/repositories/amuniz/test-repos/src/a1b2c3/Jenkinsfile")).isEqualTo("browse");
+        assertThat(BitbucketApiStatistics.operationOf("/2.0/repositories/amuniz/test-repos")).isEqualTo("repository");
+        assertThat(BitbucketApiStatistics.operationOf("/2.0/repositories/amuniz")).isEqualTo("repositories");
+        assertThat(BitbucketApiStatistics.operationOf("/2.0/workspaces/amuniz")).isEqualTo("team");
+    }
+
+    @Test
+    void operation_of_server_paths() {
+        assertThat(BitbucketApiStatistics.operationOf("/rest/api/1.0/projects/PRJ/repos/repo/branches?start=0&limit=200")).isEqualTo("branches");
+        assertThat(BitbucketApiStatistics.operationOf("/rest/api/1.0/projects/PRJ/repos/repo/pull-requests/1/merge")).isEqualTo("pullrequests/merge");
+        assertThat(BitbucketApiStatistics.operationOf("/rest/api/1.0/projects/PRJ/repos/repo/commits/a1b2c3")).isEqualTo("commit");
+        assertThat(BitbucketApiStatistics.operationOf("/rest/api/1.0/projects/PRJ/repos/repo/commits")).isEqualTo("commits");
+        assertThat(BitbucketApiStatistics.operationOf("/rest/api/1.0/projects/PRJ/repos/repo/browse/folder/Jenkinsfile")).isEqualTo("browse");
+        assertThat(BitbucketApiStatistics.operationOf("/rest/api/1.0/projects/PRJ/repos")).isEqualTo("repositories");
+        assertThat(BitbucketApiStatistics.operationOf("/rest/mirroring/1.0/repos/1/mirrors")).isEqualTo("mirrors");
+        assertThat(BitbucketApiStatistics.operationOf("/rest/api/1.0/projects/PRJ/avatar.png")).isEqualTo("avatar");
+        assertThat(BitbucketApiStatistics.operationOf("/site/oauth2/access_token")).isEqualTo("other");
+    }
+
+    @Test
+    void calls_are_recorded_in_all_active_collectors() {
+        try (BitbucketApiStatistics outer = BitbucketApiStatistics.start()) {
+            BitbucketApiStatistics.recordCall("branches", 200, TimeUnit.MILLISECONDS.toNanos(10), 100);
+            try (BitbucketApiStatistics inner = BitbucketApiStatistics.start()) {
+                BitbucketApiStatistics.recordCall("commit", 200, TimeUnit.MILLISECONDS.toNanos(5), -1);
+                BitbucketApiStatistics.recordBytes(50);
+                assertThat(inner.getCalls()).isEqualTo(1);
+            }
+            BitbucketApiStatistics.recordCall("branches", 404, TimeUnit.MILLISECONDS.toNanos(20), 10);
+            BitbucketApiStatistics.recordCacheHit("commits");
+            outer.recordPhase("branches", TimeUnit.SECONDS.toNanos(1));
+            assertThat(outer.getCalls()).isEqualTo(3);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            outer.printSummary(new PrintStream(out, true, StandardCharsets.UTF_8));
+            assertThat(out.toString(StandardCharsets.UTF_8))
+                .containsPattern("branches\\s+2\\s+1\\s+110\\s+30\\s+20\\s+0")
+                .containsPattern("commit\\s+1\\s+0\\s+50\\s+5")
+                .contains("commits=1")
+                .contains("branches=1000ms");
+        }
+    }
+
+    @Test
+    void bytes_of_a_response_of_unknown_length_are_counted() throws Exception {
+        String json = "{\"displayName\":\"Ren\u00e9 \u2192 \u4e2d\u6587\"}";
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        BasicClassicHttpResponse response = new BasicClassicHttpResponse(200);
+        response.setEntity(new InputStreamEntity(new ByteArrayInputStream(body), -1, ContentType.APPLICATION_JSON));
+
+        try (BitbucketApiStatistics statistics = BitbucketApiStatistics.start();
+             AbstractBitbucketApi client = new BitbucketServerAPIClient("https://bitbucket.example.com", "amuniz", "test-repos",
+                     (BitbucketAuthenticator) null, false, mock(BitbucketServerWebhookImplementation.class))) {
+            BitbucketApiStatistics.recordCall("browse", 200, TimeUnit.MILLISECONDS.toNanos(5), -1);
+            assertThat(client.getResponseContent(response)).isEqualTo(json);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            statistics.printSummary(new PrintStream(out, true, StandardCharsets.UTF_8));
+            assertThat(out.toString(StandardCharsets.UTF_8))
+                .containsPattern("browse\\s+1\\s+0\\s+" + body.length + "\\s");
+        }
+    }
+
+    @Test
+    void nothing_is_recorded_without_an_active_collector() {
+        BitbucketApiStatistics.recordCall("branches", 200, 10, 10);
+        try (BitbucketApiStatistics statistics = BitbucketApiStatistics.start()) {
+            assertThat(statistics.getCalls()).isZero();
+        }
+    }
+}
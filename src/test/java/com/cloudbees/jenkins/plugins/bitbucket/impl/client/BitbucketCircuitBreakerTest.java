@@ -0,0 +1,115 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.client;
+
+import com.cloudbees.jenkins.plugins.bitbucket.impl.client.BitbucketCircuitBreaker.CircuitOpenException;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.client.BitbucketCircuitBreaker.State;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BitbucketCircuitBreakerTest {
+
+    private AtomicLong clock;
+    private BitbucketCircuitBreaker sut;
+
+    @BeforeEach
+    void setup() {
+        clock = new AtomicLong();
+        sut = new BitbucketCircuitBreaker("bitbucket.example.com", 10, 50, 30, TimeUnit.SECONDS, clock::get);
+    }
+
+    private void elapse(long seconds) {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    private void call(int statusCode) throws Exception {
+        sut.acquirePermission();
+        sut.record(statusCode);
+    }
+
+    @Test
+    void application_errors_do_not_open_the_circuit() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            call(i % 2 == 0 ? 404 : 500);
+        }
+        assertThat(sut.getState()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void outage_opens_the_circuit() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            call(-1);
+        }
+        assertThat(sut.getState()).isEqualTo(State.OPEN);
+        assertThatThrownBy(sut::acquirePermission)
+            .isInstanceOf(CircuitOpenException.class)
+            .hasMessageContaining("bitbucket.example.com");
+        assertThat(sut.getStatus()).startsWith("Unavailable, requests are suspended for 30 seconds");
+    }
+
+    @Test
+    void failure_rate_below_threshold_keeps_the_circuit_closed() throws Exception {
+        for (int i = 0; i < 30; i++) {
+            call(i % 3 == 0 ? 503 : 200);
+        }
+        assertThat(sut.getState()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void single_probe_when_half_open() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            call(504);
+        }
+        elapse(30);
+        assertThat(sut.getState()).isEqualTo(State.HALF_OPEN);
+
+        sut.acquirePermission();
+        // only one probe at time
+        assertThatThrownBy(sut::acquirePermission).isInstanceOf(CircuitOpenException.class);
+
+        sut.record(200);
+        assertThat(sut.getState()).isEqualTo(State.CLOSED);
+        assertThat(sut.getStatus()).isEqualTo("Available, 0 failures in the last 0 requests");
+    }
+
+    @Test
+    void failed_probe_opens_again_the_circuit() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            call(502);
+        }
+        elapse(30);
+        call(-1);
+        assertThat(sut.getState()).isEqualTo(State.OPEN);
+        elapse(29);
+        assertThatThrownBy(sut::acquirePermission).isInstanceOf(CircuitOpenException.class);
+        elapse(1);
+        sut.acquirePermission();
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.client;
+
+import com.cloudbees.jenkins.plugins.bitbucket.impl.client.BitbucketRateLimiter.Priority;
+import java.util.concurrent.TimeUnit;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BitbucketRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private BasicHttpResponse response(int code, String... headers) {
+        BasicHttpResponse response = new BasicHttpResponse(code);
+        for (int i = 0; i < headers.length; i += 2) {
+            response.addHeader(headers[i], headers[i + 1]);
+        }
+        return response;
+    }
+
+    @Test
+    void not_limited_until_server_rejects_requests() {
+        BitbucketRateLimiter sut = BitbucketRateLimiter.get("not-limited.example.com", "user");
+        sut.update(response(HttpStatus.SC_OK), 0);
+        assertThat(sut.isLimited()).isFalse();
+        for (int i = 0; i < 1000; i++) {
+            assertThat(sut.tryAcquire(Priority.BACKGROUND, 0)).isZero();
+        }
+    }
+
+    @Test
+    void limiter_is_per_endpoint_and_credentials() {
+        assertThat(BitbucketRateLimiter.get("shared.example.com", "user"))
+            .isSameAs(BitbucketRateLimiter.get("shared.example.com", "user"))
+            .isNotSameAs(BitbucketRateLimiter.get("shared.example.com", "other"))
+            .isNotSameAs(BitbucketRateLimiter.get("shared.example.com", null));
+    }
+
+    @Test
+    void too_many_requests_pauses_and_throttles() {
+        BitbucketRateLimiter sut = BitbucketRateLimiter.get("throttled.example.com", "user");
+        sut.update(response(HttpStatus.SC_TOO_MANY_REQUESTS, HttpHeaders.RETRY_AFTER, "30"), 0);
+        assertThat(sut.isLimited()).isTrue();
+
+        // paused until Retry-After
+        assertThat(sut.tryAcquire(Priority.INTERACTIVE, 10 * SECOND)).isEqualTo(20 * SECOND);
+        // then permits come back at the throttled rate
+        assertThat(sut.tryAcquire(Priority.INTERACTIVE, 30 * SECOND)).isPositive();
+        assertThat(sut.tryAcquire(Priority.INTERACTIVE, 31 * SECOND)).isZero();
+    }
+
+    @Test
+    void background_calls_leave_room_for_interactive_calls() {
+        BitbucketRateLimiter sut = BitbucketRateLimiter.get("priority.example.com", "user");
+        sut.update(response(HttpStatus.SC_TOO_MANY_REQUESTS), 0);
+
+        // 5 req/s with a burst of 50 permits, background can use only half of them
+        long now = 10 * SECOND;
+        int background = 0;
+        while (sut.tryAcquire(Priority.BACKGROUND, now) == 0) {
+            background++;
+        }
+        assertThat(background).isEqualTo(25);
+        assertThat(sut.tryAcquire(Priority.EVENT, now)).isZero();
+        assertThat(sut.tryAcquire(Priority.INTERACTIVE, now)).isZero();
+    }
+
+    @Test
+    void near_limit_header_throttles_to_hourly_limit() {
+        BitbucketRateLimiter sut = BitbucketRateLimiter.get("cloud.example.com", "user");
+        sut.update(response(HttpStatus.SC_OK, "X-RateLimit-Limit", "3600", "X-RateLimit-NearLimit", "false"), 0);
+        assertThat(sut.isLimited()).isFalse();
+
+        sut.update(response(HttpStatus.SC_OK, "X-RateLimit-Limit", "3600", "X-RateLimit-NearLimit", "true"), 0);
+        assertThat(sut.isLimited()).isTrue();
+        assertThat(sut).hasToString("BitbucketRateLimiter[cloud.example.com::user, 1.0 req/s]");
+    }
+
+    @Test
+    void successful_responses_release_the_limiter() {
+        BitbucketRateLimiter sut = BitbucketRateLimiter.get("recover.example.com", "user");
+        sut.update(response(HttpStatus.SC_TOO_MANY_REQUESTS), 0);
+        for (int i = 0; i < 200 && sut.isLimited(); i++) {
+            sut.update(response(HttpStatus.SC_OK), 0);
+        }
+        assertThat(sut.isLimited()).isFalse();
+    }
+
+    @Test
+    void priority_scope_restores_previous_priority() {
+        assertThat(BitbucketRateLimiter.currentPriority()).isEqualTo(Priority.INTERACTIVE);
+        try (BitbucketRateLimiter.PriorityScope scan = BitbucketRateLimiter.withPriority(Priority.BACKGROUND)) {
+            try (BitbucketRateLimiter.PriorityScope event = BitbucketRateLimiter.withPriority(Priority.EVENT)) {
+                assertThat(BitbucketRateLimiter.currentPriority()).isEqualTo(Priority.EVENT);
+            }
+            assertThat(BitbucketRateLimiter.currentPriority()).isEqualTo(Priority.BACKGROUND);
+        }
+        assertThat(BitbucketRateLimiter.currentPriority()).isEqualTo(Priority.INTERACTIVE);
+    }
+
+}
@@ -0,0 +1,194 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.client;
+
+import java.io.FileNotFoundException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BitbucketRequestCoalescerTest {
+
+    private BitbucketRequestCoalescer sut;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        sut = new BitbucketRequestCoalescer();
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedIOException {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+    }
+
+    @Test
+    void identical_requests_in_flight_are_sent_once() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger shared = new AtomicInteger();
+
+        Future<String> leader = executor.submit(() -> sut.execute("user https://bitbucket.org/branches", () -> {
+            sent.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "branches";
+        }, shared::incrementAndGet));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        Thread follower = new Thread(() -> {
+            try {
+                assertThat(sut.execute("user https://bitbucket.org/branches", () -> {
+                    sent.incrementAndGet();
+                    return "other";
+                }, shared::incrementAndGet)).isEqualTo("branches");
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+        });
+        follower.start();
+        while (shared.get() == 0) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+        follower.join(10_000);
+
+        assertThat(leader.get()).isEqualTo("branches");
+        assertThat(sent).hasValue(1);
+        assertThat(shared).hasValue(1);
+        assertThat(sut.getDeduplicated()).isEqualTo(1);
+    }
+
+    @Test
+    void waiting_callers_get_their_own_failure() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger shared = new AtomicInteger();
+        FileNotFoundException failure = new FileNotFoundException("not found");
+
+        Future<String> leader = executor.submit(() -> sut.execute("key", () -> {
+            started.countDown();
+            await(release);
+            throw failure;
+        }, shared::incrementAndGet));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        AtomicReference<Throwable> followerFailure = new AtomicReference<>();
+        Thread follower = new Thread(() -> {
+            try {
+                sut.execute("key", () -> "found", shared::incrementAndGet);
+            } catch (Exception e) {
+                followerFailure.set(e);
+            }
+        });
+        follower.start();
+        waitUntilWaiting(follower);
+        release.countDown();
+        follower.join(10_000);
+
+        assertThatThrownBy(leader::get).hasCause(failure);
+        assertThat(followerFailure.get()).isInstanceOf(FileNotFoundException.class)
+            .isNotSameAs(failure)
+            .hasCause(failure);
+        assertThat(shared).hasValue(1);
+    }
+
+    @Test
+    void waiting_callers_send_the_request_when_the_first_caller_is_interrupted() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger sent = new AtomicInteger();
+
+        Future<String> leader = executor.submit(() -> sut.execute("key", () -> {
+            sent.incrementAndGet();
+            started.countDown();
+            await(release);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted");
+        }, () -> {}));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        AtomicReference<String> content = new AtomicReference<>();
+        Thread follower = new Thread(() -> {
+            try {
+                content.set(sut.execute("key", () -> "content" + sent.incrementAndGet(), () -> {}));
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+        });
+        follower.start();
+        waitUntilWaiting(follower);
+        release.countDown();
+        follower.join(10_000);
+
+        assertThatThrownBy(leader::get).hasCauseInstanceOf(InterruptedIOException.class);
+        assertThat(content.get()).isEqualTo("content2");
+        assertThat(follower.isInterrupted()).isFalse();
+    }
+
+    private static void waitUntilWaiting(Thread thread) throws InterruptedException {
+        while (thread.getState() != Thread.State.WAITING) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void completed_requests_are_not_cached() throws Exception {
+        AtomicInteger sent = new AtomicInteger();
+        sut.execute("user https://bitbucket.org/branches", () -> "branches" + sent.incrementAndGet(), () -> {});
+        assertThat(sut.execute("user https://bitbucket.org/branches", () -> "branches" + sent.incrementAndGet(), () -> {}))
+            .isEqualTo("branches2");
+        assertThat(sut.getDeduplicated()).isZero();
+    }
+
+    @Test
+    void failure_is_propagated_and_forgotten() throws Exception {
+        assertThatThrownBy(() -> sut.execute("key", () -> {
+            throw new FileNotFoundException("not found");
+        }, () -> {})).isInstanceOf(FileNotFoundException.class);
+        assertThat(sut.execute("key", () -> "found", () -> {})).isEqualTo("found");
+    }
+
+}
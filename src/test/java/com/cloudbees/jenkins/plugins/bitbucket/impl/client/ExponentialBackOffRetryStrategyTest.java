@@ -34,6 +34,7 @@ import org.apache.hc.core5.http.HttpException;
 import org.apache.hc.core5.http.HttpResponse;
 import org.apache.hc.core5.http.HttpResponseInterceptor;
 import org.apache.hc.core5.http.protocol.HttpContext;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockserver.integration.ClientAndServer;
@@ -49,6 +50,12 @@ import static org.mockserver.model.HttpResponse.response;
 @ExtendWith(MockServerExtension.class)
 class ExponentialBackOffRetryStrategyTest {
 
+    @BeforeEach
+    void setUp(ClientAndServer mockServer) {
+        // the server is shared by all the tests of the class
+        mockServer.reset();
+    }
+
     @Test
     void test_retry(ClientAndServer mockServer) throws Exception {
         HttpRequest request = request() //
@@ -80,12 +87,59 @@ class ExponentialBackOffRetryStrategyTest {
         }
     }
 
+    @Test
+    void retries_stop_when_the_circuit_opens(ClientAndServer mockServer) throws Exception {
+        HttpRequest request = request() //
+                .withMethod("GET") //
+                .withPath("/rest/api/1.0/projects/test/repos/testRepos/tags");
+        mockServer.when(request)
+            .respond( //
+                response() //
+                    .withStatusCode(503) //
+        );
+
+        final RetryInterceptor counterInterceptor = new RetryInterceptor(503);
+        // a host of its own, the circuit breakers are shared by all the tests
+        try (BitbucketApi client = new BitbucketServerAPIClient("http://127.0.0.1:" + mockServer.getPort(),
+                "test",
+                "testRepos",
+                (BitbucketAuthenticator) null,
+                false,
+                mock(BitbucketServerWebhookImplementation.class)) {
+            @Override
+            protected HttpClientBuilder setupClientBuilder() {
+                return super.setupClientBuilder()
+                        .setRetryStrategy(new ExponentialBackoffRetryStrategy(2, 5, 100))
+                        .addResponseInterceptorFirst(counterInterceptor);
+            }
+        }) {
+            // 6 retries and the last attempt
+            assertThatIOException().isThrownBy(client::getTags);
+            assertThat(counterInterceptor.getRetry()).isEqualTo(7);
+            // the circuit opens after 10 failures of a window of 20, retries stop there
+            assertThatIOException().isThrownBy(client::getTags);
+            assertThat(counterInterceptor.getRetry()).isEqualTo(10);
+            assertThatIOException().isThrownBy(client::getTags)
+                .withRootCauseInstanceOf(BitbucketCircuitBreaker.CircuitOpenException.class);
+            assertThat(counterInterceptor.getRetry()).isEqualTo(10);
+        }
+    }
+
     private static class RetryInterceptor implements HttpResponseInterceptor {
+        private final int statusCode;
         private int retry = 0;
 
+        RetryInterceptor() {
+            this(429);
+        }
+
+        RetryInterceptor(int statusCode) {
+            this.statusCode = statusCode;
+        }
+
         @Override
         public void process(HttpResponse response, EntityDetails entity, HttpContext context) throws HttpException, IOException {
-            if (response.getCode() == 429) {
+            if (response.getCode() == statusCode) {
                 retry += 1;
             }
         }
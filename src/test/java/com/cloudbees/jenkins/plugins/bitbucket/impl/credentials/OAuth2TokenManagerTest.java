@@ -0,0 +1,126 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.credentials;
+
+import com.github.scribejava.core.model.OAuth2AccessToken;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OAuth2TokenManagerTest {
+
+    private AtomicLong clock;
+    private List<Runnable> backgroundTasks;
+    private AtomicInteger requests;
+    private OAuth2TokenManager sut;
+
+    @BeforeEach
+    void setup() {
+        clock = new AtomicLong();
+        backgroundTasks = new ArrayList<>();
+        requests = new AtomicInteger();
+        sut = new OAuth2TokenManager(300, 60, TimeUnit.SECONDS, backgroundTasks::add, clock::get);
+    }
+
+    private OAuth2AccessToken newToken(Integer expiresIn) {
+        return new OAuth2AccessToken("token" + requests.incrementAndGet(), "bearer", expiresIn, null, null, null);
+    }
+
+    private void elapse(long seconds) {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    private void runBackgroundTasks() {
+        List<Runnable> tasks = new ArrayList<>(backgroundTasks);
+        backgroundTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Test
+    void token_is_reused_until_refresh_window() throws Exception {
+        assertThat(sut.getToken("key", () -> newToken(7200)).getAccessToken()).isEqualTo("token1");
+        elapse(7000);
+        assertThat(sut.getToken("key", () -> newToken(7200)).getAccessToken()).isEqualTo("token1");
+        assertThat(backgroundTasks).isEmpty();
+        assertThat(requests).hasValue(1);
+    }
+
+    @Test
+    void token_is_refreshed_in_background_before_expiry() throws Exception {
+        sut.getToken("key", () -> newToken(7200));
+        elapse(7150);
+
+        // current token is served while the refresh is pending
+        assertThat(sut.getToken("key", () -> newToken(7200)).getAccessToken()).isEqualTo("token1");
+        assertThat(sut.getToken("key", () -> newToken(7200)).getAccessToken()).isEqualTo("token1");
+        assertThat(backgroundTasks).hasSize(1);
+
+        runBackgroundTasks();
+        assertThat(sut.getToken("key", () -> newToken(7200)).getAccessToken()).isEqualTo("token2");
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void default_lifetime_is_used_when_expiry_is_unknown() throws Exception {
+        sut.getToken("key", () -> newToken(null));
+        elapse(299);
+        assertThat(sut.getToken("key", () -> newToken(null)).getAccessToken()).isEqualTo("token1");
+        elapse(1);
+        assertThat(sut.getToken("key", () -> newToken(null)).getAccessToken()).isEqualTo("token2");
+    }
+
+    @Test
+    void failed_refresh_keeps_current_token() throws Exception {
+        sut.getToken("key", () -> newToken(600));
+        elapse(560);
+        sut.getToken("key", () -> {
+            throw new IllegalStateException("token endpoint unavailable");
+        });
+        runBackgroundTasks();
+
+        assertThat(sut.getToken("key", () -> newToken(600)).getAccessToken()).isEqualTo("token1");
+        // a new attempt is delayed
+        assertThat(backgroundTasks).isEmpty();
+        elapse(10);
+        sut.getToken("key", () -> newToken(600));
+        assertThat(backgroundTasks).hasSize(1);
+    }
+
+    @Test
+    void cold_start_failure_is_propagated() {
+        assertThatThrownBy(() -> sut.getToken("key", () -> {
+            throw new IllegalStateException("invalid client");
+        })).isInstanceOf(ExecutionException.class)
+            .hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricsPluginBitbucketMetricsTest {
+
+    @Test
+    void sanitize_metric_name_parts() {
+        assertThat(MetricsPluginBitbucketMetrics.sanitize("api.bitbucket.org:443")).isEqualTo("api_bitbucket_org_443");
+        assertThat(MetricsPluginBitbucketMetrics.sanitize("pullrequests/merge")).isEqualTo("pullrequests_merge");
+        assertThat(MetricsPluginBitbucketMetrics.sanitize("PULL_REQUEST_CREATED")).isEqualTo("pull_request_created");
+        assertThat(MetricsPluginBitbucketMetrics.sanitize("amuniz/test-repos")).isEqualTo("amuniz_test-repos");
+    }
+
+    @Test
+    void noop_when_jenkins_is_not_running() {
+        BitbucketMetrics metrics = BitbucketMetrics.get();
+        assertThat(metrics).isNotInstanceOf(MetricsPluginBitbucketMetrics.class);
+        // must not fail
+        metrics.apiCall("api.bitbucket.org", "branches", 200, 1000);
+        metrics.cacheHit("team");
+    }
+
+}
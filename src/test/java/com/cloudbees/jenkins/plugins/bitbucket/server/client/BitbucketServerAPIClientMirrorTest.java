@@ -0,0 +1,179 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2024, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.server.client;
+
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketBranch;
+import com.cloudbees.jenkins.plugins.bitbucket.server.BitbucketServerWebhookImplementation;
+import java.io.FileNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.junit.jupiter.MockServerExtension;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.verify.VerificationTimes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+@ExtendWith(MockServerExtension.class)
+class BitbucketServerAPIClientMirrorTest {
+
+    private static final String TAGS = """
+            {
+              "size": 1,
+              "limit": 200,
+              "isLastPage": true,
+              "values": [
+                {
+                  "id": "refs/tags/v1.0.0",
+                  "displayId": "v1.0.0",
+                  "type": "TAG",
+                  "latestCommit": "046d9a3c1532acf4cf08fe93235c00e4d673c1d2"
+                }
+              ],
+              "start": 0
+            }""";
+
+    @BeforeEach
+    void setUp(ClientAndServer mockServer) {
+        // the server is shared by all the tests of the class
+        mockServer.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        BitbucketServerMirrorCache.get().clear();
+    }
+
+    @Test
+    void reads_are_sent_to_the_synchronised_mirror(ClientAndServer mockServer) throws Exception {
+        HttpRequest primary = tags("/primary");
+        HttpRequest mirror = tags("/mirror");
+        mockServer.when(mirror).respond(response().withStatusCode(200).withBody(TAGS));
+
+        try (BitbucketServerAPIClient client = client(mockServer)) {
+            assertThat(client.getTags()).extracting(BitbucketBranch::getName).containsExactly("v1.0.0");
+        }
+
+        mockServer.verify(mirror, VerificationTimes.once());
+        mockServer.verify(primary, VerificationTimes.never());
+    }
+
+    @Test
+    void reads_fall_back_to_the_primary_server_when_the_mirror_fails(ClientAndServer mockServer) throws Exception {
+        HttpRequest primary = tags("/primary");
+        HttpRequest mirror = tags("/mirror");
+        mockServer.when(mirror).respond(response().withStatusCode(500));
+        mockServer.when(primary).respond(response().withStatusCode(200).withBody(TAGS));
+
+        try (BitbucketServerAPIClient client = client(mockServer)) {
+            assertThat(client.getTags()).extracting(BitbucketBranch::getName).containsExactly("v1.0.0");
+        }
+
+        mockServer.verify(mirror, VerificationTimes.once());
+        mockServer.verify(primary, VerificationTimes.once());
+    }
+
+    @Test
+    void reads_bypass_the_mirror_until_it_synchronises_the_last_push(ClientAndServer mockServer) throws Exception {
+        HttpRequest primary = tags("/primary");
+        HttpRequest mirror = tags("/mirror");
+        mockServer.when(mirror).respond(response().withStatusCode(200).withBody(TAGS));
+        mockServer.when(primary).respond(response().withStatusCode(200).withBody(TAGS));
+        String primaryURL = url(mockServer, "/primary");
+
+        try (BitbucketServerAPIClient client = client(mockServer)) {
+            BitbucketServerMirrorCache.get().repositoryPushed(primaryURL, "test", "testRepos");
+            client.getTags();
+            mockServer.verify(mirror, VerificationTimes.never());
+            mockServer.verify(primary, VerificationTimes.once());
+
+            BitbucketServerMirrorCache.get().repositorySynchronized(primaryURL, "test", "testRepos", "mirror-1");
+            client.getTags();
+            mockServer.verify(mirror, VerificationTimes.once());
+            mockServer.verify(primary, VerificationTimes.once());
+        }
+    }
+
+    @Test
+    void resources_missing_on_a_mirror_without_recorded_synchronisation_are_requested_to_the_primary_server(ClientAndServer mockServer) throws Exception {
+        HttpRequest primary = tags("/primary");
+        HttpRequest mirror = tags("/mirror");
+        mockServer.when(mirror).respond(response().withStatusCode(404));
+        mockServer.when(primary).respond(response().withStatusCode(200).withBody(TAGS));
+
+        // no push recorded, for example without the native webhook
+        try (BitbucketServerAPIClient client = client(mockServer)) {
+            assertThat(client.getTags()).extracting(BitbucketBranch::getName).containsExactly("v1.0.0");
+        }
+
+        mockServer.verify(mirror, VerificationTimes.once());
+        mockServer.verify(primary, VerificationTimes.once());
+    }
+
+    @Test
+    void resources_missing_on_the_synchronised_mirror_are_not_requested_again(ClientAndServer mockServer) throws Exception {
+        HttpRequest primary = tags("/primary");
+        HttpRequest mirror = tags("/mirror");
+        mockServer.when(mirror).respond(response().withStatusCode(404));
+        mockServer.when(primary).respond(response().withStatusCode(200).withBody(TAGS));
+        String primaryURL = url(mockServer, "/primary");
+
+        try (BitbucketServerAPIClient client = client(mockServer)) {
+            BitbucketServerMirrorCache.get().repositoryPushed(primaryURL, "test", "testRepos");
+            BitbucketServerMirrorCache.get().repositorySynchronized(primaryURL, "test", "testRepos", "mirror-1");
+            assertThatThrownBy(client::getTags).isInstanceOf(FileNotFoundException.class);
+        }
+
+        mockServer.verify(mirror, VerificationTimes.once());
+        mockServer.verify(primary, VerificationTimes.never());
+    }
+
+    private static HttpRequest tags(String contextPath) {
+        return request() //
+                .withMethod("GET") //
+                .withPath(contextPath + "/rest/api/1.0/projects/test/repos/testRepos/tags");
+    }
+
+    private static String url(ClientAndServer mockServer, String contextPath) {
+        return "http://localhost:" + mockServer.getPort() + contextPath;
+    }
+
+    private static BitbucketServerAPIClient client(ClientAndServer mockServer) {
+        BitbucketServerAPIClient client = new BitbucketServerAPIClient(url(mockServer, "/primary"),
+                "test",
+                "testRepos",
+                (BitbucketAuthenticator) null,
+                false,
+                mock(BitbucketServerWebhookImplementation.class));
+        client.setReadMirror(url(mockServer, "/mirror"), "mirror-1");
+        return client;
+    }
+}
@@ -31,6 +31,7 @@ import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketException;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketRepository;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketTeam;
 import com.cloudbees.jenkins.plugins.bitbucket.client.BitbucketIntegrationClientFactory;
+import com.cloudbees.jenkins.plugins.bitbucket.filesystem.BitbucketSCMFile;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.credentials.BitbucketAccessTokenAuthenticator;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.credentials.BitbucketClientCertificateAuthenticator;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.credentials.BitbucketOAuthAuthenticator;
@@ -41,7 +42,9 @@ import hudson.ProxyConfiguration;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
+import jenkins.scm.api.SCMFile;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -163,6 +166,41 @@ class BitbucketServerAPIClientTest {
                     .hasPath("/rest/api/1.0/projects/amuniz/repos/test-repos/browse/Jenkinsfile"));
     }
 
+    @Test
+    void verify_getTree_deduces_directories_from_files() throws Exception {
+        BitbucketApi client = BitbucketIntegrationClientFactory.getApiMockClient("https://acme.bitbucket.org");
+        BitbucketSCMFile root = new BitbucketSCMFile(client, "master", "2c130d767a38ac4ef511797f221315f35a2aea55");
+        BitbucketSCMFile folder = new BitbucketSCMFile(root, "folder", SCMFile.Type.DIRECTORY, root.getHash());
+
+        Map<String, SCMFile.Type> tree = client.getTree(folder, 2);
+        assertThat(tree).hasSize(6)
+            .containsEntry("Jenkinsfile", SCMFile.Type.REGULAR_FILE)
+            .containsEntry("src", SCMFile.Type.DIRECTORY)
+            .containsEntry("src/main.groovy", SCMFile.Type.REGULAR_FILE)
+            .containsEntry("src/lib", SCMFile.Type.DIRECTORY)
+            .containsEntry("vars", SCMFile.Type.DIRECTORY)
+            .containsEntry("vars/build.groovy", SCMFile.Type.REGULAR_FILE);
+    }
+
+    @Test
+    void verify_getTree_browses_the_children_only_for_a_single_level() throws Exception {
+        BitbucketApi client = BitbucketIntegrationClientFactory.getApiMockClient("https://acme.bitbucket.org");
+        BitbucketSCMFile root = new BitbucketSCMFile(client, "master", "2c130d767a38ac4ef511797f221315f35a2aea55");
+        BitbucketSCMFile folder = new BitbucketSCMFile(root, "folder", SCMFile.Type.DIRECTORY, root.getHash());
+
+        Map<String, SCMFile.Type> tree = client.getTree(folder, 1);
+        assertThat(tree).hasSize(3)
+            .containsEntry("Jenkinsfile", SCMFile.Type.REGULAR_FILE)
+            .containsEntry("src", SCMFile.Type.DIRECTORY)
+            .containsEntry("vars", SCMFile.Type.DIRECTORY);
+
+        HttpRequest request = BitbucketTestUtil.extractRequest(client);
+        assertThat(request).isNotNull()
+            .satisfies(get ->
+                assertThat(get.getUri())
+                    .hasPath("/rest/api/1.0/projects/amuniz/repos/test-repos/browse/folder"));
+    }
+
     @Test
     void filterArchivedRepositories() throws Exception {
         BitbucketApi client = BitbucketIntegrationClientFactory.getClient("localhost", "foo", "test-repos");
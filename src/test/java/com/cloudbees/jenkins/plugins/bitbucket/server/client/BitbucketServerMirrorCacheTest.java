@@ -0,0 +1,195 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.server.client;
+
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketHref;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BitbucketServerMirrorCacheTest {
+
+    private static final String SERVER_URL = "https://bitbucket.example.com";
+
+    private AtomicLong clock;
+    private List<Runnable> backgroundTasks;
+    private AtomicInteger requests;
+    private BitbucketServerMirrorCache sut;
+
+    @BeforeEach
+    void setup() {
+        clock = new AtomicLong();
+        backgroundTasks = new ArrayList<>();
+        requests = new AtomicInteger();
+        sut = new BitbucketServerMirrorCache(600, TimeUnit.SECONDS, backgroundTasks::add, clock::get);
+    }
+
+    private List<BitbucketHref> newLinks() {
+        return List.of(new BitbucketHref("http", "https://mirror.example.com/scm/amuniz/test-repos" + requests.incrementAndGet() + ".git"));
+    }
+
+    private BitbucketServerMirrorCache.Key key(String projectKey, String repositorySlug, String mirrorId) {
+        return new BitbucketServerMirrorCache.Key(SERVER_URL, projectKey, repositorySlug, mirrorId, "creds@1a2b");
+    }
+
+    private String href(List<BitbucketHref> links) {
+        return links.get(0).getHref();
+    }
+
+    private void elapse(long seconds) {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    private void runBackgroundTasks() {
+        List<Runnable> tasks = new ArrayList<>(backgroundTasks);
+        backgroundTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Test
+    void links_are_shared_until_refresh_is_due() throws Exception {
+        assertThat(href(sut.getCloneLinks(key("AMUNIZ", "test-repos", "mirror1"), this::newLinks))).endsWith("test-repos1.git");
+        elapse(299);
+        assertThat(href(sut.getCloneLinks(key("amuniz", "TEST-REPOS", "mirror1"), this::newLinks))).endsWith("test-repos1.git");
+        assertThat(backgroundTasks).isEmpty();
+        assertThat(requests).hasValue(1);
+
+        sut.getCloneLinks(key("amuniz", "test-repos", "mirror2"), this::newLinks);
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void links_are_refreshed_in_background_before_expiry() throws Exception {
+        sut.getCloneLinks(key("amuniz", "test-repos", "mirror1"), this::newLinks);
+        elapse(300);
+
+        // current links are served while the refresh is pending
+        assertThat(href(sut.getCloneLinks(key("amuniz", "test-repos", "mirror1"), this::newLinks))).endsWith("test-repos1.git");
+        assertThat(href(sut.getCloneLinks(key("amuniz", "test-repos", "mirror1"), this::newLinks))).endsWith("test-repos1.git");
+        assertThat(backgroundTasks).hasSize(1);
+
+        runBackgroundTasks();
+        assertThat(href(sut.getCloneLinks(key("amuniz", "test-repos", "mirror1"), this::newLinks))).endsWith("test-repos2.git");
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void expired_links_are_resolved_again() throws Exception {
+        sut.getCloneLinks(key("amuniz", "test-repos", "mirror1"), this::newLinks);
+        elapse(600);
+        assertThat(href(sut.getCloneLinks(key("amuniz", "test-repos", "mirror1"), this::newLinks))).endsWith("test-repos2.git");
+        assertThat(backgroundTasks).isEmpty();
+    }
+
+    @Test
+    void mirror_synchronization_invalidates_links() throws Exception {
+        sut.getCloneLinks(key("amuniz", "test-repos", "mirror1"), this::newLinks);
+        sut.getCloneLinks(key("amuniz", "test-repos", "mirror2"), this::newLinks);
+        sut.getCloneLinks(key("amuniz", "other-repos", "mirror1"), this::newLinks);
+
+        sut.invalidate(SERVER_URL, "AMUNIZ", "test-repos", "mirror1");
+
+        assertThat(href(sut.getCloneLinks(key("amuniz", "test-repos", "mirror1"), this::newLinks))).endsWith("test-repos4.git");
+        assertThat(href(sut.getCloneLinks(key("amuniz", "test-repos", "mirror2"), this::newLinks))).endsWith("test-repos2.git");
+        assertThat(href(sut.getCloneLinks(key("amuniz", "other-repos", "mirror1"), this::newLinks))).endsWith("test-repos3.git");
+    }
+
+    @Test
+    void refresh_of_invalidated_links_is_discarded() throws Exception {
+        sut.getCloneLinks(key("amuniz", "test-repos", "mirror1"), this::newLinks);
+        elapse(300);
+        sut.getCloneLinks(key("amuniz", "test-repos", "mirror1"), this::newLinks);
+        sut.invalidate(SERVER_URL, "amuniz", "test-repos", null);
+
+        runBackgroundTasks();
+        assertThat(href(sut.getCloneLinks(key("amuniz", "test-repos", "mirror1"), this::newLinks))).endsWith("test-repos3.git");
+    }
+
+    @Test
+    void mirror_is_stale_from_push_to_synchronization() {
+        assertThat(sut.isSynchronized(SERVER_URL, "amuniz", "test-repos", "mirror1")).isTrue();
+
+        sut.repositoryPushed(SERVER_URL, "AMUNIZ", "test-repos");
+        assertThat(sut.isSynchronized(SERVER_URL, "amuniz", "test-repos", "mirror1")).isFalse();
+        assertThat(sut.isSynchronized(SERVER_URL, "amuniz", "other-repos", "mirror1")).isTrue();
+
+        elapse(10);
+        sut.repositorySynchronized(SERVER_URL, "amuniz", "TEST-REPOS", "mirror1");
+        assertThat(sut.isSynchronized(SERVER_URL, "amuniz", "test-repos", "mirror1")).isTrue();
+        assertThat(sut.isSynchronized(SERVER_URL, "amuniz", "test-repos", "mirror2")).isFalse();
+
+        elapse(10);
+        sut.repositoryPushed(SERVER_URL, "amuniz", "test-repos");
+        assertThat(sut.isSynchronized(SERVER_URL, "amuniz", "test-repos", "mirror1")).isFalse();
+    }
+
+    @Test
+    void mirror_is_known_synchronized_only_after_a_recorded_synchronization() {
+        assertThat(sut.isKnownSynchronized(SERVER_URL, "amuniz", "test-repos", "mirror1")).isFalse();
+
+        sut.repositorySynchronized(SERVER_URL, "amuniz", "test-repos", "mirror1");
+        assertThat(sut.isKnownSynchronized(SERVER_URL, "amuniz", "test-repos", "mirror1")).isTrue();
+        assertThat(sut.isKnownSynchronized(SERVER_URL, "amuniz", "test-repos", "mirror2")).isFalse();
+
+        elapse(10);
+        sut.repositoryPushed(SERVER_URL, "amuniz", "test-repos");
+        assertThat(sut.isKnownSynchronized(SERVER_URL, "amuniz", "test-repos", "mirror1")).isFalse();
+
+        elapse(10);
+        sut.repositorySynchronized(SERVER_URL, "amuniz", "test-repos", "mirror1");
+        assertThat(sut.isKnownSynchronized(SERVER_URL, "amuniz", "test-repos", "mirror1")).isTrue();
+
+        elapse(600);
+        assertThat(sut.isKnownSynchronized(SERVER_URL, "amuniz", "test-repos", "mirror1")).isFalse();
+    }
+
+    @Test
+    void mirror_without_synchronization_is_trusted_again_after_duration() {
+        sut.repositoryPushed(SERVER_URL, "amuniz", "test-repos");
+        elapse(599);
+        assertThat(sut.isSynchronized(SERVER_URL, "amuniz", "test-repos", "mirror1")).isFalse();
+        elapse(1);
+        assertThat(sut.isSynchronized(SERVER_URL, "amuniz", "test-repos", "mirror1")).isTrue();
+    }
+
+    @Test
+    void failure_is_not_cached() throws Exception {
+        assertThatThrownBy(() -> sut.getCloneLinks(key("amuniz", "test-repos", "mirror1"), () -> {
+            throw new IllegalStateException("Mirror is disabled for mirror id mirror1");
+        })).isInstanceOf(ExecutionException.class)
+            .hasRootCauseInstanceOf(IllegalStateException.class);
+        assertThat(sut.size()).isZero();
+
+        assertThat(href(sut.getCloneLinks(key("amuniz", "test-repos", "mirror1"), this::newLinks))).endsWith("test-repos1.git");
+    }
+
+}
@@ -85,6 +85,20 @@ class DiscardOldBranchTraitTest {
         }
     }
 
+    @Test
+    void verify_that_unknown_branch_is_not_excluded() throws Exception {
+        ExcludeOldSCMHeadBranch filter = new ExcludeOldSCMHeadBranch(5);
+
+        SCMHead head = mock(SCMHead.class);
+        when(head.getName()).thenReturn("feature/unknown");
+
+        BitbucketSCMSourceRequest request = prepareRequest(
+                buildBranch("feature/release", DateUtils.addDays(new Date(), -10).getTime())
+        );
+
+        assertThat(filter.isExcluded(request, head)).isFalse();
+    }
+
     private BitbucketBranch buildBranch(String name, long date) {
         BitbucketBranch branch = mock(BitbucketBranch.class);
         when(branch.getName()).thenReturn(name);
@@ -95,6 +109,9 @@ class DiscardOldBranchTraitTest {
     private BitbucketSCMSourceRequest prepareRequest(BitbucketBranch ...branches) throws Exception {
         BitbucketSCMSourceRequest request = mock(BitbucketSCMSourceRequest.class);
         when(request.getBranches()).thenReturn(Arrays.asList(branches));
+        for (BitbucketBranch branch : branches) {
+            when(request.getBranch(branch.getName())).thenReturn(branch);
+        }
         return request;
     }
 